@@ -0,0 +1,39 @@
+package cays.httpclient.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基准测试的请求和响应数据
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 22:10
+ **/
+final class BenchmarkData {
+    // 每条记录序列化后大约的字节数
+    private static final int RECORD_BYTES = 120;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * 生成序列化后约为指定字节数的记录，至少一条
+     * @param approximateBytes JSON的大致字节数
+     */
+    static List<Map<String, Object>> records(int approximateBytes) {
+        int count = Math.max(1, approximateBytes / RECORD_BYTES);
+        List<Map<String, Object>> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> record = new HashMap<>();
+            record.put("id", "" + i);
+            record.put("name", "name" + i);
+            record.put("price", 5.12 + i);
+            record.put("lastUpdateTime", 1571400000000L + i);
+            record.put("message", "benchmark record message " + i);
+            records.add(record);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,104 @@
+package cays.httpclient.benchmark;
+
+import cays.httpclient.cache.MappedFileCacheStorage;
+import cays.httpclient.handler.ResponseHandlers;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.cache.HttpCacheStorage;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.cache.BasicHttpCacheStorage;
+import org.apache.http.impl.client.cache.CacheConfig;
+import org.apache.http.impl.client.cache.CachingHttpClients;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存命中、重新验证与未命中，分别使用内存缓存和内存映射文件缓存
+ * <p>
+ * hit请求/cache/3600(max-age=3600)，除第一次外都不访问服务端；
+ * revalidate请求/cache(只有ETag和Last-Modified)，每次带If-None-Match访问服务端，得到304后返回缓存的响应体；
+ * miss请求/get(没有缓存相关的响应头)，每次都经过缓存模块再访问服务端。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 22:35
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheBenchmark extends LocalServerState {
+    private static final ResponseHandler<String> STRING_HANDLER = ResponseHandlers.toStringHandler();
+
+    @Param({"memory", "mappedFile"})
+    public String storage;
+
+    private CloseableHttpClient cachingClient;
+    private MappedFileCacheStorage mappedFileStorage;
+    private Path cacheDirectory;
+
+    @Override
+    protected void setUp() throws IOException {
+        CacheConfig cacheConfig = CacheConfig.custom()
+                .setMaxCacheEntries(3000)
+                .setMaxObjectSize(10240)
+                .build();
+        HttpCacheStorage cacheStorage;
+        if ("mappedFile".equals(storage)) {
+            cacheDirectory = Files.createTempDirectory("httpclient-benchmark-cache");
+            mappedFileStorage = new MappedFileCacheStorage(cacheDirectory, 64 * 1024 * 1024);
+            cacheStorage = mappedFileStorage;
+        } else {
+            cacheStorage = new BasicHttpCacheStorage(cacheConfig);
+        }
+        cachingClient = clientFactory.configure(CachingHttpClients.custom())
+                .setCacheConfig(cacheConfig)
+                .setHttpCacheStorage(cacheStorage)
+                .build();
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        cachingClient.close();
+        if (mappedFileStorage != null) {
+            mappedFileStorage.close();
+            File[] files = cacheDirectory.toFile().listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    Files.deleteIfExists(file.toPath());
+                }
+            }
+            Files.deleteIfExists(cacheDirectory);
+        }
+    }
+
+    @Benchmark
+    public String hit() throws IOException {
+        return cachingClient.execute(new HttpGet(baseUrl + "/cache/3600"), STRING_HANDLER);
+    }
+
+    @Benchmark
+    public String revalidate() throws IOException {
+        return cachingClient.execute(new HttpGet(baseUrl + "/cache"), STRING_HANDLER);
+    }
+
+    @Benchmark
+    public String miss() throws IOException {
+        return cachingClient.execute(new HttpGet(baseUrl + "/get"), STRING_HANDLER);
+    }
+}
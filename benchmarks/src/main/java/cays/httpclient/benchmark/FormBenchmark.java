@@ -0,0 +1,128 @@
+package cays.httpclient.benchmark;
+
+import cays.httpclient.client.FormRequestTemplate;
+import cays.httpclient.entity.FileChannelBody;
+import cays.httpclient.handler.ResponseHandlers;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.HttpMultipartMode;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.message.BasicNameValuePair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HttpClientFormExample中的表单提交、自定义请求头和分段上传文件，以及使用FormRequestTemplate的表单和请求头
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 22:25
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormBenchmark extends LocalServerState {
+    private static final ResponseHandler<String> STRING_HANDLER = ResponseHandlers.toStringHandler();
+    private static final FormRequestTemplate FORM_TEMPLATE = FormRequestTemplate.custom()
+            .addField("name", "cays")
+            .addField("password", "123456")
+            .build();
+    private static final FormRequestTemplate HEADERS_TEMPLATE = FormRequestTemplate.custom()
+            .addHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+            .addHeader(HttpHeaders.FROM, "https://memorynotfound.com")
+            .addHeader("X-Custom-Header", "custom header http request")
+            .build();
+
+    // 上传文件的字节数，只影响multipart
+    @Param({"1024", "1048576"})
+    public int fileSize;
+
+    private CloseableHttpClient httpClient;
+    private CloseableHttpClient headersClient;
+    private File file;
+
+    @Override
+    protected void setUp() throws IOException {
+        httpClient = clientFactory.createClient();
+        List<Header> headers = Collections.singletonList(
+                new BasicHeader("X-Default-Header", "default header httpclient"));
+        headersClient = clientFactory.custom().setDefaultHeaders(headers).build();
+        byte[] content = new byte[fileSize];
+        new Random(fileSize).nextBytes(content);
+        file = Files.createTempFile("httpclient-benchmark", ".bin").toFile();
+        Files.write(file.toPath(), content);
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Benchmark
+    public String postForm() throws IOException {
+        List<NameValuePair> form = new ArrayList<>();
+        form.add(new BasicNameValuePair("name", "cays"));
+        form.add(new BasicNameValuePair("password", "123456"));
+        HttpPost post = new HttpPost(baseUrl + "/post");
+        post.setEntity(new UrlEncodedFormEntity(form));
+        return httpClient.execute(post, STRING_HANDLER);
+    }
+
+    @Benchmark
+    public String postTemplateForm() throws IOException {
+        return httpClient.execute(FORM_TEMPLATE.post(baseUrl + "/post"), STRING_HANDLER);
+    }
+
+    @Benchmark
+    public String customHeaders() throws IOException {
+        return headersClient.execute(RequestBuilder.get()
+                .setUri(baseUrl + "/get")
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setHeader(HttpHeaders.FROM, "https://memorynotfound.com")
+                .setHeader("X-Custom-Header", "custom header http request")
+                .build(), STRING_HANDLER);
+    }
+
+    @Benchmark
+    public String templateHeaders() throws IOException {
+        return headersClient.execute(HEADERS_TEMPLATE.get(baseUrl + "/get"), STRING_HANDLER);
+    }
+
+    @Benchmark
+    public String multipart() throws IOException {
+        return httpClient.execute(RequestBuilder.post(baseUrl + "/post")
+                .setEntity(MultipartEntityBuilder.create()
+                        .setMode(HttpMultipartMode.BROWSER_COMPATIBLE)
+                        .addPart("file", new FileChannelBody(file, ContentType.DEFAULT_BINARY, file.getName()))
+                        .addTextBody("message", "文本部分", ContentType.create("text/plain", "UTF-8"))
+                        .build())
+                .build(), STRING_HANDLER);
+    }
+}
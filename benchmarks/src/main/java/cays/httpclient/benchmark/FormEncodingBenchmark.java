@@ -0,0 +1,120 @@
+package cays.httpclient.benchmark;
+
+import cays.httpclient.client.FormRequestTemplate;
+import org.apache.http.HttpHeaders;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.message.BasicNameValuePair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 构造表单和请求头并写出请求体的分配量，不发送请求，对比每次创建NameValuePair、UrlEncodedFormEntity和
+ * 预先编码的FormRequestTemplate
+ * <p>
+ * 需要加上-prof gc，比较gc.alloc.rate.norm(每次操作分配的字节数)：
+ * <pre>
+ * java -jar target/benchmarks.jar FormEncodingBenchmark -prof gc
+ * </pre>
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 17:00
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormEncodingBenchmark {
+    private static final String URL = "http://127.0.0.1:8080/post";
+
+    private static final FormRequestTemplate FORM_TEMPLATE = FormRequestTemplate.custom()
+            .addField("name", "cays")
+            .addField("password", "123456")
+            .addVariable("message")
+            .build();
+    private static final FormRequestTemplate HEADERS_TEMPLATE = FormRequestTemplate.custom()
+            .addHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+            .addHeader(HttpHeaders.FROM, "https://memorynotfound.com")
+            .addHeader("X-Custom-Header", "custom header http request")
+            .build();
+
+    // 每个请求变化的字段值的字符数，包含需要编码的空格和中文
+    @Param({"16", "1024"})
+    public int valueLength;
+
+    private String message;
+    private final OutputStream discard = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder(valueLength);
+        String pattern = "form value 表单 ";
+        while (builder.length() < valueLength) {
+            builder.append(pattern.charAt(builder.length() % pattern.length()));
+        }
+        message = builder.toString();
+    }
+
+    @Benchmark
+    public HttpPost urlEncodedForm() throws IOException {
+        List<NameValuePair> form = new ArrayList<>();
+        form.add(new BasicNameValuePair("name", "cays"));
+        form.add(new BasicNameValuePair("password", "123456"));
+        form.add(new BasicNameValuePair("message", message));
+        HttpPost post = new HttpPost(URL);
+        post.setEntity(new UrlEncodedFormEntity(form, StandardCharsets.UTF_8));
+        post.getEntity().writeTo(discard);
+        return post;
+    }
+
+    @Benchmark
+    public HttpPost templateForm() throws IOException {
+        HttpPost post = FORM_TEMPLATE.post(URL, message);
+        post.getEntity().writeTo(discard);
+        return post;
+    }
+
+    @Benchmark
+    public HttpUriRequest requestBuilderHeaders() {
+        return RequestBuilder.get()
+                .setUri(URL)
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .setHeader(HttpHeaders.FROM, "https://memorynotfound.com")
+                .setHeader("X-Custom-Header", "custom header http request")
+                .build();
+    }
+
+    @Benchmark
+    public HttpUriRequest templateHeaders() {
+        return HEADERS_TEMPLATE.get(URL);
+    }
+}
@@ -0,0 +1,83 @@
+package cays.httpclient.benchmark;
+
+import cays.httpclient.entity.JsonStreamingEntity;
+import cays.httpclient.handler.ResponseHandlers;
+import com.alibaba.fastjson.JSON;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON请求和响应：GET读取不同大小的JSON数组(/json/{n})，POST发送不同大小的JSON请求体
+ * <p>
+ * POST分别测试JsonStreamingEntity和先序列化成字节数组两种方式。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 22:20
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark extends LocalServerState {
+    private static final ResponseHandler<String> STRING_HANDLER = ResponseHandlers.toStringHandler();
+
+    // JSON的大致字节数
+    @Param({"256", "16384", "1048576"})
+    public int size;
+
+    private CloseableHttpClient httpClient;
+    private List<Map<String, Object>> records;
+
+    @Override
+    protected void setUp() {
+        httpClient = clientFactory.createClient();
+        records = BenchmarkData.records(size);
+    }
+
+    @Benchmark
+    public String getString() throws IOException {
+        return httpClient.execute(new HttpGet(baseUrl + "/json/" + records.size()), STRING_HANDLER);
+    }
+
+    @Benchmark
+    public Long getRecords(Blackhole blackhole) throws IOException {
+        return httpClient.execute(new HttpGet(baseUrl + "/json/" + records.size()),
+                ResponseHandlers.jsonRecords(Map.class, blackhole::consume));
+    }
+
+    @Benchmark
+    public String postStreaming() throws IOException {
+        HttpPost post = new HttpPost(baseUrl + "/post");
+        post.setEntity(JsonStreamingEntity.of(records));
+        return httpClient.execute(post, STRING_HANDLER);
+    }
+
+    @Benchmark
+    public String postBuffered() throws IOException {
+        HttpPost post = new HttpPost(baseUrl + "/post");
+        post.setEntity(new ByteArrayEntity(JSON.toJSONBytes(records), ContentType.APPLICATION_JSON));
+        return httpClient.execute(post, STRING_HANDLER);
+    }
+}
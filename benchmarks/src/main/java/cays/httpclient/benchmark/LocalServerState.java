@@ -0,0 +1,55 @@
+package cays.httpclient.benchmark;
+
+import cays.httpclient.pool.PooledHttpClientFactory;
+import cays.httpclient.server.HttpbinServer;
+import cays.httpclient.server.ServerConfig;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+
+/**
+ * 各基准测试共用的本地服务和连接池，每轮测试(trial)启动一次
+ * <p>
+ * 服务使用与示例相同的{@link HttpbinServer}，只启动HTTP，不注入延迟和错误。
+ * <p>
+ * 子类加上@State注解，在{@link #setUp()}之后创建各自的HttpClient。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 22:15
+ **/
+public abstract class LocalServerState {
+    private static final ServerConfig SERVER_CONFIG = ServerConfig.custom()
+            .setHttpsPort(-1)
+            .build();
+
+    protected HttpbinServer server;
+    protected PooledHttpClientFactory clientFactory;
+    protected String baseUrl;
+
+    @Setup
+    public void startServer() throws IOException {
+        server = HttpbinServer.start(SERVER_CONFIG);
+        baseUrl = server.getBaseUrl();
+        clientFactory = new PooledHttpClientFactory();
+        setUp();
+    }
+
+    /**
+     * 服务和连接池启动后调用
+     */
+    protected abstract void setUp() throws IOException;
+
+    @TearDown
+    public void stopServer() throws IOException {
+        tearDown();
+        clientFactory.close();
+        server.close();
+    }
+
+    /**
+     * 关闭服务和连接池之前调用
+     */
+    protected void tearDown() throws IOException {
+    }
+}
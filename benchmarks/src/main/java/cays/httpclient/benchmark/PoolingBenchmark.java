@@ -0,0 +1,82 @@
+package cays.httpclient.benchmark;
+
+import cays.httpclient.handler.ResponseHandlers;
+import cays.httpclient.metrics.HttpClientMetrics;
+import cays.httpclient.pool.PoolConfig;
+import cays.httpclient.pool.PooledHttpClientFactory;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 共享连接池与每次请求新建HttpClient的对比，以及开启请求指标的额外开销
+ * <p>
+ * perCall每次都建立新的TCP连接并在请求后关闭，相当于没有使用连接池。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 22:40
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PoolingBenchmark extends LocalServerState {
+    private static final ResponseHandler<String> STRING_HANDLER = ResponseHandlers.toStringHandler();
+
+    private CloseableHttpClient pooledClient;
+    private PooledHttpClientFactory meteredClientFactory;
+    private CloseableHttpClient meteredClient;
+
+    @Override
+    protected void setUp() {
+        pooledClient = clientFactory.createClient();
+        meteredClientFactory = new PooledHttpClientFactory(PoolConfig.DEFAULT,
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                        .build(),
+                new HttpClientMetrics());
+        meteredClient = meteredClientFactory.createClient();
+    }
+
+    @Override
+    protected void tearDown() {
+        meteredClientFactory.close();
+    }
+
+    @Benchmark
+    public String pooled() throws IOException {
+        return pooledClient.execute(new HttpGet(baseUrl + "/get"), STRING_HANDLER);
+    }
+
+    @Benchmark
+    public String pooledWithMetrics() throws IOException {
+        return meteredClient.execute(new HttpGet(baseUrl + "/get"), STRING_HANDLER);
+    }
+
+    @Benchmark
+    public String perCall() throws IOException {
+        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+            return httpClient.execute(new HttpGet(baseUrl + "/get"), STRING_HANDLER);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package cays.httpclient.benchmark;
+
+import cays.httpclient.cache.CachingRedirectStrategy;
+import cays.httpclient.cache.RedirectCache;
+import cays.httpclient.cache.RedirectCachingHttpClient;
+import cays.httpclient.handler.ResponseHandlers;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.LaxRedirectStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 重定向链，每次跳转都是一次完整的请求；缓存永久重定向后只需要请求最终地址
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 22:30
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedirectBenchmark extends LocalServerState {
+    private static final ResponseHandler<String> STRING_HANDLER = ResponseHandlers.toStringHandler();
+
+    // 重定向次数
+    @Param({"1", "3", "5"})
+    public int hops;
+
+    private CloseableHttpClient redirectClient;
+    private CloseableHttpClient cachingRedirectClient;
+
+    @Override
+    protected void setUp() {
+        redirectClient = clientFactory.custom()
+                .setRedirectStrategy(new LaxRedirectStrategy())
+                .build();
+        RedirectCache redirectCache = new RedirectCache(TimeUnit.HOURS.toMillis(1), 1000);
+        cachingRedirectClient = new RedirectCachingHttpClient(clientFactory.custom()
+                .setRedirectStrategy(new CachingRedirectStrategy(redirectCache))
+                .build(), redirectCache);
+    }
+
+    @Benchmark
+    public String redirectChain() throws IOException {
+        return redirectClient.execute(new HttpGet(baseUrl + "/redirect/" + hops), STRING_HANDLER);
+    }
+
+    @Benchmark
+    public String cachedRedirectChain() throws IOException {
+        return cachingRedirectClient.execute(new HttpGet(baseUrl + "/redirect/" + hops + "?status_code=301"), STRING_HANDLER);
+    }
+}
@@ -0,0 +1,156 @@
+package cays.httpclient;
+
+import cays.httpclient.async.AsyncHttpClientEngine;
+import cays.httpclient.async.AutoBatcher;
+import cays.httpclient.async.BatchResult;
+import cays.httpclient.async.PipeliningBatchClient;
+import cays.httpclient.handler.ResponseHandlers;
+import cays.httpclient.server.ExampleServer;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpUriRequest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * HttpClient异步非阻塞方式发送请求
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 10:45
+ **/
+public class AsyncHttpClientExample implements Closeable {
+    private final AsyncHttpClientEngine engine;
+    // 与同步方式相同的响应处理逻辑
+    private ResponseHandler<String> responseHandler = ResponseHandlers.toStringHandler();
+    // 批量请求在同一连接上pipelining发送，为null时不支持批量方法
+    private final PipeliningBatchClient batchClient;
+    // 合并多个线程逐条提交的请求
+    private final AutoBatcher<String> autoBatcher;
+
+    public AsyncHttpClientExample(AsyncHttpClientEngine engine) {
+        this(engine, null);
+    }
+
+    public AsyncHttpClientExample(AsyncHttpClientEngine engine, PipeliningBatchClient batchClient) {
+        this.engine = engine;
+        this.batchClient = batchClient;
+        this.autoBatcher = batchClient != null ? new AutoBatcher<>(batchClient, responseHandler) : null;
+    }
+
+    /**
+     * 异步GET方法
+     * @param url GET请求地址
+     */
+    public CompletableFuture<String> getMethod(String url) {
+        return execute(new HttpGet(url));
+    }
+
+    /**
+     * 异步POST方法，请求体为JSON
+     * @param url POST的访问路径
+     */
+    public CompletableFuture<String> postMethod(String url) {
+        return execute(HttpClientExample.createPostRequest(url));
+    }
+
+    /**
+     * 异步提交表单数据
+     * @param url
+     */
+    public CompletableFuture<String> postForm(String url) {
+        return execute(HttpClientFormExample.createFormRequest(url));
+    }
+
+    /**
+     * 异步上传文件
+     * @param url
+     */
+    public CompletableFuture<String> doMultipart(String url) {
+        try {
+            return execute(HttpClientFormExample.createMultipartRequest(url));
+        } catch (IOException e) {
+            CompletableFuture<String> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    /**
+     * 批量POST多条记录，请求在少数几个连接上pipelining发送
+     * @param url POST的访问路径
+     * @param count 请求数量
+     * @return 按请求顺序排列的结果，每个请求对应一个响应或异常
+     */
+    public CompletableFuture<List<BatchResult<String>>> bulkPost(String url, int count) {
+        System.out.println("Executing " + count + " pipelined requests POST " + url);
+        List<HttpUriRequest> requests = IntStream.range(0, count)
+                .mapToObj(i -> HttpClientExample.createPostRequest(url))
+                .collect(Collectors.toList());
+        return batchClient.execute(requests, responseHandler);
+    }
+
+    /**
+     * 与postMethod用法相同，但和其他线程同时提交的请求合并成批发送
+     * @param url POST的访问路径
+     */
+    public CompletableFuture<String> batchedPostMethod(String url) {
+        return autoBatcher.submit(HttpClientExample.createPostRequest(url));
+    }
+
+    private CompletableFuture<String> execute(HttpUriRequest request) {
+        System.out.println("Executing request " + request.getRequestLine());
+        return engine.execute(request, responseHandler);
+    }
+
+    @Override
+    public void close() throws IOException {
+        engine.close();
+        if (batchClient != null) {
+            autoBatcher.close();
+            batchClient.close();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // 默认访问内置的本地服务，-Dhttpbin.url=http://httpbin.org 时访问外网
+        try (ExampleServer server = ExampleServer.start();
+             AsyncHttpClientExample example = new AsyncHttpClientExample(new AsyncHttpClientEngine(),
+                     new PipeliningBatchClient())) {
+            // 同时发起多个请求，I/O线程负责所有连接的读写
+            CompletableFuture<?>[] futures = {
+                    example.getMethod(server.url("/get")),
+                    example.postMethod(server.url("/post")),
+                    example.postForm(server.url("/post")),
+                    example.doMultipart(server.url("/post"))
+            };
+            for (CompletableFuture<?> future : futures) {
+                future.whenComplete((responseBody, e) -> {
+                    System.out.println("=================================================================");
+                    if (e != null) {
+                        e.printStackTrace();
+                    } else {
+                        System.out.println(responseBody);
+                    }
+                    System.out.println("=================================================================");
+                });
+            }
+            CompletableFuture.allOf(futures).exceptionally(e -> null).join();
+            // 批量发送，结果与请求一一对应
+            List<BatchResult<String>> results = example.bulkPost(server.url("/post"), 100).join();
+            long failed = results.stream().filter(result -> !result.isSuccess()).count();
+            System.out.println("Bulk POST: " + results.size() + " requests, " + failed + " failed");
+            // 多个线程逐条提交，自动合并成批
+            List<CompletableFuture<String>> batched = IntStream.range(0, 100).parallel()
+                    .mapToObj(i -> example.batchedPostMethod(server.url("/post")))
+                    .collect(Collectors.toList());
+            CompletableFuture.allOf(batched.toArray(new CompletableFuture<?>[0])).exceptionally(e -> null).join();
+            System.out.println("Auto-batched POST: " + batched.size() + " requests, "
+                    + batched.stream().filter(CompletableFuture::isCompletedExceptionally).count() + " failed");
+        }
+    }
+}
@@ -0,0 +1,560 @@
+package cays.httpclient;
+
+import cays.httpclient.breaker.CircuitBreakerHttpClient;
+import cays.httpclient.breaker.CircuitBreakerRegistry;
+import cays.httpclient.cache.CacheStatistics;
+import cays.httpclient.cache.CoalescingHttpClient;
+import cays.httpclient.cache.MappedFileCacheStorage;
+import cays.httpclient.compress.CompressionConfig;
+import cays.httpclient.compress.CompressionStatistics;
+import cays.httpclient.compress.ContentCompression;
+import cays.httpclient.entity.JsonStreamingEntity;
+import cays.httpclient.handler.ResponseHandlers;
+import cays.httpclient.hedge.HedgingConfig;
+import cays.httpclient.hedge.HedgingHttpClient;
+import cays.httpclient.metrics.MetricsJmxExporter;
+import cays.httpclient.pool.PoolConfig;
+import cays.httpclient.pool.PooledHttpClientFactory;
+import cays.httpclient.retry.AdaptiveRetry;
+import cays.httpclient.server.ExampleServer;
+import cays.httpclient.tls.PeerCertificateCache;
+import cays.httpclient.tls.TlsConfig;
+import cays.httpclient.tls.TlsSocketFactory;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.cache.CacheResponseStatus;
+import org.apache.http.client.cache.HttpCacheContext;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.cache.CacheConfig;
+import org.apache.http.impl.client.cache.CachingHttpClients;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpCoreContext;
+import org.apache.http.util.EntityUtils;
+
+import javax.net.ssl.SSLSession;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.IntStream;
+
+/**
+ * HttpClient的GET方法
+ *
+ * @author Chai yansheng
+ * @create 2019-08-15 9:08
+ **/
+public class HttpClientExample implements Closeable {
+    // 所有实例共用的对冲线程池，线程数与默认连接池的maxTotal相同，不随实例数增长，实例关闭时不关闭
+    private static final ExecutorService HEDGING_EXECUTOR =
+            HedgingHttpClient.newExecutor(PoolConfig.DEFAULT.getMaxTotal());
+
+    // 共享连接池，所有请求复用连接，避免每次请求都重新建立TCP和TLS连接
+    private final PooledHttpClientFactory clientFactory;
+    private final CloseableHttpClient httpClient;
+    // 对冲请求，偶尔很慢的请求由第二个请求兜底，降低p99
+    private final HedgingHttpClient hedgingClient;
+    private final CloseableHttpClient certificateClient;
+    private final CloseableHttpClient retryClient;
+    // 请求体gzip压缩，响应边读边解压，按路由统计压缩比和压缩耗时
+    private final ContentCompression compression = new ContentCompression(CompressionConfig.custom()
+            .setRequestEncoding("gzip")
+            .build());
+    private final CloseableHttpClient compressingClient;
+    // 重试前退避等待，重试次数受每个路由的重试预算限制，故障时不会成倍放大后端压力
+    private final AdaptiveRetry adaptiveRetry = new AdaptiveRetry();
+    // 每个目标主机一个熔断器，故障主机直接失败，不再占用线程和连接
+    private final CircuitBreakerRegistry circuitBreakers = new CircuitBreakerRegistry();
+    // 缓存客户端外面合并并发的相同请求，缓存未命中时只有一个请求发到源站
+    private final CoalescingHttpClient cachingClient;
+    // 指定缓存目录时缓存保存在文件中，不占用堆内存，重启后仍然有效；为null时使用内存缓存
+    private final MappedFileCacheStorage cacheStorage;
+    private final CacheStatistics cacheStatistics = new CacheStatistics();
+    // 查看过的服务端证书链，10分钟内重复查看不再发起请求
+    private final PeerCertificateCache peerCertificateCache = new PeerCertificateCache(600000, 100);
+    // 接受自签名证书的连接池，需要单独的SSL工厂，第一次使用时创建
+    private PooledHttpClientFactory selfSignedClientFactory;
+    private TlsSocketFactory selfSignedSocketFactory;
+
+    public HttpClientExample() {
+        this(PooledHttpClientFactory.getDefault());
+    }
+
+    public HttpClientExample(PooledHttpClientFactory clientFactory) {
+        this(clientFactory, null);
+    }
+
+    /**
+     * @param cacheDirectory 持久化缓存的目录，同时只能被一个实例使用；为null时使用内存缓存
+     */
+    public HttpClientExample(PooledHttpClientFactory clientFactory, Path cacheDirectory) {
+        this.clientFactory = clientFactory;
+        this.httpClient = new CircuitBreakerHttpClient(clientFactory.createClient(), circuitBreakers);
+        this.hedgingClient = new HedgingHttpClient(httpClient, HedgingConfig.DEFAULT, HEDGING_EXECUTOR);
+        // 创建HttpClient并添加拦截器
+        this.certificateClient = clientFactory.custom().addInterceptorLast(interceptor).build();
+        this.retryClient = new CircuitBreakerHttpClient(
+                adaptiveRetry.configure(clientFactory.custom()).build(), circuitBreakers);
+        this.compressingClient = new CircuitBreakerHttpClient(
+                compression.configure(clientFactory.custom()).build(), circuitBreakers);
+        CacheConfig cacheConfig = CacheConfig.custom()
+                .setMaxCacheEntries(3000)
+                .setMaxObjectSize(10240)
+                // 源站声明stale-while-revalidate时，缓存在后台线程中重新验证
+                .setAsynchronousWorkersMax(4)
+                .build();
+        this.cacheStorage = cacheDirectory != null ? createCacheStorage(cacheDirectory) : null;
+        this.cachingClient = new CoalescingHttpClient(clientFactory.configure(CachingHttpClients.custom())
+                .setCacheConfig(cacheConfig)
+                .setHttpCacheStorage(cacheStorage)
+                .build());
+    }
+
+    /**
+     * 创建持久化缓存，失败时(例如目录正被其他进程使用)返回null，使用默认的内存缓存
+     */
+    private static MappedFileCacheStorage createCacheStorage(Path cacheDirectory) {
+        try {
+            return new MappedFileCacheStorage(cacheDirectory, 64 * 1024 * 1024);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // response handler 回调方法处理结果
+    private ResponseHandler<String> responseHandler = ResponseHandlers.toStringHandler();
+    /**
+     * HttpClient的GET方法
+     * @param url GET请求地址
+     */
+    public void getMethod(String url) {
+        try {
+            System.out.println("Executing request GET " + url);
+            // 发起请求并接受结果
+            String responseBody = get(url);
+            System.out.println("=================================================================");
+            System.out.println(responseBody);
+            System.out.println("=================================================================");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * GET请求，异常直接抛出，压测使用
+     */
+    String get(String url) throws IOException {
+        return httpClient.execute(new HttpGet(url), responseHandler);
+    }
+
+    /**
+     * 使用对冲请求多次执行GET，打印对冲统计
+     * @param url GET请求地址
+     * @param count 请求次数，前minSamples次用于统计响应时间，不对冲
+     */
+    public void hedgedGetMethod(String url, int count) {
+        try {
+            long maxLatency = 0;
+            for (int i = 0; i < count; i++) {
+                long start = System.nanoTime();
+                hedgingClient.execute(new HttpGet(url), responseHandler);
+                maxLatency = Math.max(maxLatency, System.nanoTime() - start);
+            }
+            System.out.println("=================================================================");
+            System.out.println("Hedging statistics " + hedgingClient + ", max latency "
+                    + maxLatency / 1000000 + " ms");
+            System.out.println("=================================================================");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 下载响应体到文件，适合很大的响应，不会读入内存
+     * @param url GET请求地址
+     * @param target 保存的文件
+     */
+    public void downloadFile(String url, Path target) {
+        try {
+            HttpGet httpGet = new HttpGet(url);
+            System.out.println("Executing request " + httpGet.getRequestLine());
+            // 发起请求并把响应体写入文件
+            long length = httpClient.execute(httpGet, ResponseHandlers.toFile(target));
+            System.out.println("=================================================================");
+            System.out.println("Saved " + length + " bytes to " + target);
+            System.out.println("=================================================================");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * HttpClient的POST方法
+     * @param url POST的访问路径
+     */
+    public void postMethod(String url) {
+        try {
+            System.out.println("Executing request POST " + url);
+            // response handler 回调方法处理结果
+            // 发起请求并接受结果
+            String responseBody = post(url);
+            System.out.println("=================================================================");
+            System.out.println(responseBody);
+            System.out.println("=================================================================");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * JSON请求体的POST请求，异常直接抛出，压测使用
+     */
+    String post(String url) throws IOException {
+        return httpClient.execute(createPostRequest(url), responseHandler);
+    }
+
+    /**
+     * 请求体gzip压缩的POST请求，服务端需要支持Content-Encoding: gzip的请求体
+     * @param url POST的访问路径
+     */
+    public void compressedPostMethod(String url) {
+        try {
+            System.out.println("Executing compressed request POST " + url);
+            String responseBody = compressedPost(url);
+            System.out.println("=================================================================");
+            System.out.println(responseBody);
+            System.out.println("Compression statistics " + compression.getStatistics());
+            System.out.println("=================================================================");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 请求体gzip压缩的POST请求，异常直接抛出，压测使用
+     */
+    String compressedPost(String url) throws IOException {
+        return compressingClient.execute(createPostRequest(url), responseHandler);
+    }
+
+    /**
+     * 获取gzip压缩的响应，响应体在读取时解压
+     * @param url GET请求地址，例如/gzip
+     */
+    public void compressedGetMethod(String url) {
+        try {
+            System.out.println("Executing compressed request GET " + url);
+            String responseBody = compressingClient.execute(new HttpGet(url), responseHandler);
+            System.out.println("=================================================================");
+            System.out.println(responseBody);
+            System.out.println("Compression statistics " + compression.getStatistics());
+            System.out.println("=================================================================");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * compressedPostMethod()和compressedGetMethod()的压缩统计
+     */
+    public CompressionStatistics getCompressionStatistics() {
+        return compression.getStatistics();
+    }
+
+    /**
+     * 构造JSON请求体的POST请求，同步和异步方式共用
+     * @param url POST的访问路径
+     */
+    static HttpPost createPostRequest(String url) {
+        HttpPost httpPost = new HttpPost(url);
+        // 记录在写请求体时才逐条生成，直接序列化到连接，不在内存中拼接完整的JSON
+        Iterable<Map<String, Object>> params = () -> IntStream.range(0, 3)
+                .mapToObj(HttpClientExample::createRecord)
+                .iterator();
+        httpPost.setEntity(JsonStreamingEntity.of(params));
+        return httpPost;
+    }
+
+    private static Map<String, Object> createRecord(int i) {
+        Map<String, Object> param = new HashMap<String, Object>();
+        param.put("id", "" + i);
+        param.put("name", "name" + i);
+        param.put("price", 5.12 + i);
+        param.put("lastUpdateTime", new Date());
+        param.put("message", "4今天，习近平总书记在辽宁忠旺集团考察时强调指出");
+        return param;
+    }
+
+    private static final String PEER_CERTIFICATES = "PEER_CERTIFICATES";
+    // 拦截器
+    private static HttpResponseInterceptor interceptor = (httpResponse, context) -> {
+        ManagedHttpClientConnection rutedConnnection = (ManagedHttpClientConnection)
+                context.getAttribute(HttpCoreContext.HTTP_CONNECTION);
+        // 获取Session
+        SSLSession sslSession = rutedConnnection.getSSLSession();
+        if (sslSession != null) {
+            Certificate []certificates = sslSession.getPeerCertificates();
+            // 保存到context
+            context.setAttribute(PEER_CERTIFICATES, certificates);
+        }
+    };
+
+    /**
+     * 获取网站证书信息，证书链按主机缓存，重复查看时不再发起请求
+     * @param url
+     */
+    public void getServerCertificate(String url) {
+        try {
+            HttpGet httpGet = new HttpGet(url);
+            String host = httpGet.getURI().getHost();
+            int port = httpGet.getURI().getPort() < 0 ? 443 : httpGet.getURI().getPort();
+            Certificate[] peerCertificates = peerCertificateCache.get(host, port);
+            if (peerCertificates != null) {
+                System.out.println("Using cached certificates of " + host + ":" + port);
+            } else {
+                System.out.println("Executing request " + httpGet.getRequestLine());
+                HttpContext context = new BasicHttpContext();
+                // 响应必须关闭，否则连接不会归还连接池
+                try (CloseableHttpResponse response = certificateClient.execute(httpGet, context)) {
+                    EntityUtils.consume(response.getEntity());
+                }
+                // obtain the server certificates from the context
+                peerCertificates = (Certificate[]) context.getAttribute(PEER_CERTIFICATES);
+                if (peerCertificates == null) {
+                    System.out.println("No TLS session for " + url);
+                    return;
+                }
+                peerCertificateCache.put(host, port, peerCertificates);
+            }
+
+            // loop over certificates and print meta-data
+            for (Certificate certificate : peerCertificates){
+                X509Certificate real = (X509Certificate) certificate;
+                System.out.println("=================================================================");
+                System.out.println("Type: " + real.getType());
+                System.out.println("Signing Algorithm: " + real.getSigAlgName());
+                System.out.println("IssuerDN Principal: " + real.getIssuerX500Principal());
+                System.out.println("SubjectDN Principal: " + real.getSubjectX500Principal());
+                System.out.println("Not After: " + DateUtils.formatDate(real.getNotAfter(), "yyyy-MM-dd HH:mm:ss"));
+                System.out.println("Not Before: " + DateUtils.formatDate(real.getNotBefore(), "yyyy-MM-dd HH:mm:ss"));
+            }
+            System.out.println("=================================================================");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 接受自签名证书
+     * @param url
+     */
+    public void acceptSelfSignedCertificate(String url) {
+        try {
+            CloseableHttpClient httpClient = (CloseableHttpClient) createAcceptSelfSignedCertificate();
+            HttpGet httpGet = new HttpGet(url);
+            System.out.println("Executing request " + httpGet.getRequestLine());
+            // 发起请求并接受结果
+            String responseBody = httpClient.execute(httpGet, responseHandler);
+            System.out.println("=================================================================");
+            System.out.println(responseBody);
+            System.out.println("TLS statistics " + selfSignedSocketFactory.getStatistics());
+            System.out.println("=================================================================");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    public HttpClient createAcceptSelfSignedCertificate() {
+        return selfSignedClientFactory().createClient();
+    }
+
+    private synchronized PooledHttpClientFactory selfSignedClientFactory() {
+        if (selfSignedClientFactory == null) {
+            // SSLContext只创建一次，后续的连接可以恢复之前的TLS会话
+            selfSignedSocketFactory = new TlsSocketFactory(TlsConfig.custom()
+                    // TrustSelfSignedStrategy允许自签名证书
+                    .setTrustStrategy(new TrustSelfSignedStrategy())
+                    // 使用NoopHostnameVerifier本质上关闭主机名验证。
+                    .setHostnameVerifier(NoopHostnameVerifier.INSTANCE)
+                    .build());
+            // 共享连接池时SSL工厂需要注册到连接池上，setSSLSocketFactory不再生效
+            Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                    .register("https", selfSignedSocketFactory)
+                    .build();
+            selfSignedClientFactory = new PooledHttpClientFactory(clientFactory.getConfig(), registry);
+        }
+        return selfSignedClientFactory;
+    }
+
+    /**
+     * 重试请求
+     * @param url
+     */
+    public void retryHandler(String url) {
+        try {
+            HttpGet httpGet = new HttpGet(url);
+            System.out.println("Executing request " + httpGet.getRequestLine());
+            // 发起请求并接受结果
+            String responseBody = retryClient.execute(httpGet, responseHandler);
+            System.out.println("=================================================================");
+            System.out.println(responseBody);
+            System.out.println("=================================================================");
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            System.out.println("Retry budget: retries=" + adaptiveRetry.getBudget().getRetries()
+                    + ", rejected=" + adaptiveRetry.getBudget().getRejected());
+            System.out.println("Circuit breakers: " + circuitBreakers.getAll());
+        }
+    }
+
+    /**
+     * 使用缓存方式缓存请求
+     * @param url
+     */
+    public void caching(String url) {
+        try {
+            for (int i = 0; i < 3; i++) {
+                System.out.println("Executing request GET " + url);
+                // 发起请求并接受结果
+                CacheResponseStatus responseStatus = cachedGet(url);
+                System.out.println("=================================================================");
+                switch (responseStatus) {
+                    case CACHE_HIT:
+                        System.out.println("从缓存生成响应，没有向上游发送请求。");
+                        break;
+                    case CACHE_MODULE_RESPONSE:
+                        System.out.println("响应由缓存模块直接生成。");
+                        break;
+                    case CACHE_MISS:
+                        System.out.println("响应来自上游服务器。");
+                        break;
+                    case VALIDATED:
+                        System.out.println("在使用源服务器验证条目后，从缓存生成响应。");
+                        break;
+                    default:break;
+                }
+            }
+            System.out.println("Cache statistics " + cacheStatistics);
+            System.out.println("Coalescing statistics " + cachingClient);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    /**
+     * 通过缓存执行GET请求并记录命中统计，异常直接抛出，压测使用
+     */
+    CacheResponseStatus cachedGet(String url) throws IOException {
+        HttpCacheContext cacheContext = HttpCacheContext.create();
+        try (CloseableHttpResponse response = cachingClient.execute(new HttpGet(url), cacheContext)) {
+            EntityUtils.consume(response.getEntity());
+        }
+        cacheStatistics.record(cacheContext);
+        return cacheContext.getCacheResponseStatus();
+    }
+
+    /**
+     * caching()的缓存命中统计
+     */
+    public CacheStatistics getCacheStatistics() {
+        return cacheStatistics;
+    }
+
+    /**
+     * 把缓存命中统计和文件缓存的容量统计注册到JMX，exporter关闭时注销
+     * @param name ObjectName中的name
+     */
+    public void registerMBeans(MetricsJmxExporter jmxExporter, String name) {
+        jmxExporter.register("CacheStatistics", name, cacheStatistics);
+        if (cacheStorage != null) {
+            jmxExporter.register("CacheStorage", name, cacheStorage);
+        }
+    }
+
+    /**
+     * 关闭自己创建的连接池和缓存，共享的连接池由创建者负责关闭
+     */
+    @Override
+    public void close() {
+        if (selfSignedClientFactory != null) {
+            selfSignedClientFactory.close();
+        }
+        try {
+            // 连接池和对冲线程池是共享的，这里只停止缓存的后台刷新线程
+            hedgingClient.close();
+            cachingClient.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        if (cacheStorage != null) {
+            try {
+                // 保存访问顺序并释放缓存目录
+                cacheStorage.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        // 默认访问内置的本地服务，-Dhttpbin.url=http://httpbin.org 时访问外网
+        try (ExampleServer server = ExampleServer.start();
+             MetricsJmxExporter jmxExporter =
+                     new MetricsJmxExporter(PooledHttpClientFactory.getDefault().getMetrics()).start()) {
+            // GET请求地址
+            String url = server.url("/get");
+            HttpClientExample httpClientExample = new HttpClientExample(PooledHttpClientFactory.getDefault(),
+                    Paths.get(System.getProperty("java.io.tmpdir"), "httpclient-cache"));
+            // 运行期间可以用jconsole查看cays.httpclient域
+            httpClientExample.registerMBeans(jmxExporter, "example");
+            httpClientExample.getMethod(url);
+            httpClientExample.hedgedGetMethod(url, 50);
+            // 下载到临时文件
+            httpClientExample.downloadFile(url, Paths.get(System.getProperty("java.io.tmpdir"), "httpclient-get.json"));
+            // POST请求地址
+            url = server.url("/post");
+            httpClientExample.postMethod(url);
+            httpClientExample.compressedPostMethod(url);
+            httpClientExample.compressedGetMethod(server.url("/gzip"));
+            // 证书请求地址，本地服务的自签名证书不能通过默认的证书校验
+            if (!server.isLocal()) {
+                url = "https://www.baidu.com";
+                httpClientExample.getServerCertificate(url);
+                // 第二次从缓存读取证书链
+                httpClientExample.getServerCertificate(url);
+            }
+            // 忽略证书地址
+            url = server.isLocal() ? server.httpsUrl("/get") : "https://www.yiibai.com";
+            httpClientExample.acceptSelfSignedCertificate(url);
+            // 重试请求地址
+            url = "http://localhost:1234";
+            httpClientExample.retryHandler(url);
+            // 缓存测试地址
+            url = server.url("/cache");
+            httpClientExample.caching(url);
+            httpClientExample.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            PooledHttpClientFactory.getDefault().close();
+        }
+    }
+}
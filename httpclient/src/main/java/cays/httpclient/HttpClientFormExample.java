@@ -0,0 +1,334 @@
+package cays.httpclient;
+
+import cays.httpclient.cache.CachingRedirectStrategy;
+import cays.httpclient.cache.RedirectCache;
+import cays.httpclient.cache.RedirectCachingHttpClient;
+import cays.httpclient.client.FormRequestTemplate;
+import cays.httpclient.entity.FileChannelBody;
+import cays.httpclient.handler.ResponseHandlers;
+import cays.httpclient.pool.PooledHttpClientFactory;
+import cays.httpclient.ratelimit.RateLimitConfig;
+import cays.httpclient.ratelimit.RateLimitedHttpClient;
+import cays.httpclient.ratelimit.RateLimiterRegistry;
+import cays.httpclient.ratelimit.RequestPriority;
+import cays.httpclient.server.ExampleServer;
+import cays.httpclient.upload.ParallelRangeUploader;
+import cays.httpclient.upload.UploadResult;
+import org.apache.http.*;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.HttpMultipartMode;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HttpClient表单提交数据
+ *
+ * @author Chai yansheng
+ * @create 2019-08-15 13:38
+ **/
+public class HttpClientFormExample {
+    private final PooledHttpClientFactory clientFactory;
+    // 共享连接池，所有请求复用连接；按目标主机限流，令牌不足时表单提交排在文件上传前面
+    private final CloseableHttpClient closeableHttpClient;
+    private final RateLimiterRegistry rateLimiters = new RateLimiterRegistry(RateLimitConfig.custom()
+            .setRate(1000)
+            .setBurst(100)
+            .build());
+    // 缓存301/308重定向，之后的请求直接访问最终地址
+    private final RedirectCache redirectCache = new RedirectCache(TimeUnit.HOURS.toMillis(1), 1000);
+    private final CloseableHttpClient redirectClient;
+    private final CloseableHttpClient headersClient;
+
+    public HttpClientFormExample() {
+        this(PooledHttpClientFactory.getDefault());
+    }
+
+    public HttpClientFormExample(PooledHttpClientFactory clientFactory) {
+        this.clientFactory = clientFactory;
+        this.closeableHttpClient = new RateLimitedHttpClient(clientFactory.createClient(), rateLimiters);
+        this.redirectClient = new RedirectCachingHttpClient(clientFactory.custom()
+                .setRedirectStrategy(new CachingRedirectStrategy(redirectCache))
+                .build(), redirectCache);
+        // 设置请求头
+        List<Header> headers = Arrays.asList(
+                new BasicHeader("X-Default-Header", "default header httpclient")
+        );
+        this.headersClient = clientFactory.custom()
+                .setDefaultHeaders(headers)
+                .build();
+    }
+
+    // 表单数据和自定义请求头只创建一次，多个请求共用
+    private static final FormRequestTemplate FORM_TEMPLATE = FormRequestTemplate.custom()
+            .addField("name", "cays")
+            .addField("password", "123456")
+            .build();
+    private static final FormRequestTemplate HEADERS_TEMPLATE = FormRequestTemplate.custom()
+            .addHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+            .addHeader(HttpHeaders.FROM, "https://memorynotfound.com")
+            .addHeader("X-Custom-Header", "custom header http request")
+            .build();
+    // 上传示例的文件，放在classpath中
+    private static final String SAMPLE_RESOURCE = "a.txt";
+    private static File sampleFile;
+
+    // response handler 回调方法处理结果
+    private ResponseHandler<String> responseHandler = ResponseHandlers.toStringHandler();
+
+    /**
+     * 提交表单数据
+     * @param url
+     */
+    public void postForm(String url) {
+        try {
+            System.out.println("Executing request POST " + url);
+            // 发起请求并接受结果
+            String responseBody = submitForm(url);
+            System.out.println("=================================================================");
+            System.out.println(responseBody);
+            System.out.println("=================================================================");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 提交表单，异常直接抛出，压测使用
+     */
+    String submitForm(String url) throws IOException {
+        return closeableHttpClient.execute(createFormRequest(url), responseHandler,
+                RateLimitedHttpClient.createContext("form", RequestPriority.INTERACTIVE));
+    }
+
+    /**
+     * 构造表单提交请求，同步和异步方式共用
+     * @param url
+     */
+    static HttpPost createFormRequest(String url) {
+        // 表单数据在模板中预先编码，每个请求共用
+        return FORM_TEMPLATE.post(url);
+    }
+
+    /**
+     * 处理重定向
+     * @param url
+     */
+    public void redirectHandling(String url) {
+        try {
+            HttpClientContext httpClientContext = HttpClientContext.create();
+            HttpGet httpGet = new HttpGet(url);
+            System.out.println("Executing request " + httpGet.getRequestLine());
+            System.out.println("=================================================================");
+            try (CloseableHttpResponse response = redirectClient.execute(httpGet, httpClientContext)) {
+                EntityUtils.consume(response.getEntity());
+            }
+            URI cachedLocation = (URI) httpClientContext.getAttribute(RedirectCachingHttpClient.CACHED_LOCATION);
+            if (cachedLocation != null) {
+                System.out.println("缓存的目的地址：" + cachedLocation.toASCIIString());
+                return;
+            }
+            HttpHost target = httpClientContext.getTargetHost();
+            List<URI> redirectLocations = httpClientContext.getRedirectLocations();
+            redirectLocations.forEach(redirectLocation -> System.out.println("中间地址：" + redirectLocation));
+            URI destination = URIUtils.resolve(httpGet.getURI(), target, redirectLocations);
+            System.out.println("目的地址：" + destination.toASCIIString());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    public RedirectCache getRedirectCache() {
+        return redirectCache;
+    }
+
+    /**
+     * 自定义请求头
+     * @param url
+     */
+    public void setHeaders(String url) {
+        try {
+            HttpUriRequest request = HEADERS_TEMPLATE.get(url);
+            System.out.println("Executing request " + request.getRequestLine());
+            String responseBody = headersClient.execute(request, responseHandler);
+            System.out.println("=================================================================");
+            System.out.println(responseBody);
+            System.out.println("=================================================================");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 上传文件
+     * @param url
+     */
+    public void doMultipart(String url) {
+        try {
+            System.out.println("Executing request POST " + url);
+            String responseBody = multipart(url);
+            System.out.println("=================================================================");
+            System.out.println(responseBody);
+            System.out.println("=================================================================");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 分段请求上传文件，异常直接抛出，压测使用
+     */
+    String multipart(String url) throws IOException {
+        return closeableHttpClient.execute(createMultipartRequest(url), responseHandler,
+                RateLimitedHttpClient.createContext("upload", RequestPriority.BULK));
+    }
+
+    /**
+     * 限流后的优先级调度：先排队多个上传，再提交表单，表单请求先于排队中的上传发出
+     * @param url
+     */
+    public void priorityScheduling(String url) {
+        // 每秒2个请求，使排队效果明显
+        RateLimiterRegistry registry = new RateLimiterRegistry(RateLimitConfig.custom()
+                .setRate(2)
+                .setBurst(1)
+                .build());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (CloseableHttpClient client = new RateLimitedHttpClient(clientFactory.createClient(), registry)) {
+            for (int i = 0; i < 4; i++) {
+                int n = i;
+                HttpUriRequest upload = createMultipartRequest(url);
+                executor.execute(() -> execute(client, upload, "upload " + n, RequestPriority.BULK));
+            }
+            // 上传已经在排队
+            Thread.sleep(100);
+            executor.execute(() -> execute(client, createFormRequest(url), "form", RequestPriority.INTERACTIVE));
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            System.out.println("=================================================================");
+            registry.getAll().forEach(System.out::println);
+            System.out.println("=================================================================");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void execute(CloseableHttpClient client, HttpUriRequest request, String name, RequestPriority priority) {
+        try {
+            client.execute(request, responseHandler, RateLimitedHttpClient.createContext(name, priority));
+            System.out.println("Completed " + name);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 大文件分块并行上传，中断后再次调用会从已完成的位置继续
+     * @param url
+     * @param file 上传的文件
+     */
+    public void parallelUpload(String url, File file) {
+        try {
+            System.out.println("Uploading " + file + " to " + url);
+            ParallelRangeUploader uploader = new ParallelRangeUploader(closeableHttpClient, 8 * 1024 * 1024, 4);
+            UploadResult result = uploader.upload(url, file, (completed, total) ->
+                    System.out.println("Uploaded " + completed + "/" + total + " bytes"));
+            System.out.println("=================================================================");
+            System.out.println(result);
+            System.out.println("=================================================================");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 构造上传文件的分段请求，同步和异步方式共用
+     * @param url
+     */
+    static HttpUriRequest createMultipartRequest(String url) throws IOException {
+        File file = sampleFile();
+        String message = "文本部分";
+        HttpEntity entity = MultipartEntityBuilder.create()
+                .setMode(HttpMultipartMode.BROWSER_COMPATIBLE)
+                .addPart("file", new FileChannelBody(file, ContentType.DEFAULT_BINARY, file.getName()))
+                .addTextBody("message", message)
+                .build();
+        return RequestBuilder.post(url)
+                .setEntity(entity)
+                .build();
+    }
+    /**
+     * 上传示例使用的文件，从classpath中的a.txt复制到临时文件，与运行时的工作目录无关，从jar中运行也可以使用
+     */
+    static synchronized File sampleFile() throws IOException {
+        if (sampleFile == null) {
+            Path file = Files.createTempFile("httpclient-", "-a.txt");
+            file.toFile().deleteOnExit();
+            try (InputStream in = HttpClientFormExample.class.getResourceAsStream(SAMPLE_RESOURCE)) {
+                if (in == null) {
+                    throw new FileNotFoundException("Classpath resource " + SAMPLE_RESOURCE + " not found");
+                }
+                Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            sampleFile = file.toFile();
+        }
+        return sampleFile;
+    }
+
+    public static void main(String[] args) {
+        // 默认访问内置的本地服务，-Dhttpbin.url=http://httpbin.org 时访问外网
+        try (ExampleServer server = ExampleServer.start()) {
+            String url = server.url("/post");
+            HttpClientFormExample formExample = new HttpClientFormExample();
+            // 表单提交
+            formExample.postForm(url);
+            // 重定向
+            url = server.url("/redirect/3");
+            formExample.redirectHandling(url);
+            // 永久重定向，第二次请求直接访问缓存的最终地址
+            url = server.url("/redirect/3?status_code=301");
+            formExample.redirectHandling(url);
+            formExample.redirectHandling(url);
+            System.out.println("重定向缓存：" + formExample.getRedirectCache());
+            // 自定义请求头
+            url = server.url("/headers");
+            formExample.setHeaders(url);
+            // 分段请求上传文件
+            url = server.url("/post");
+            formExample.doMultipart(url);
+            // 限流时表单提交优先于文件上传
+            formExample.priorityScheduling(url);
+            // 分块并行上传
+            formExample.parallelUpload(url, sampleFile());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            PooledHttpClientFactory.getDefault().close();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package cays.httpclient;
+
+import cays.httpclient.load.LoadConfig;
+import cays.httpclient.load.LoadGenerator;
+import cays.httpclient.load.LoadOperation;
+import cays.httpclient.load.LoadResult;
+import cays.httpclient.pool.PoolConfig;
+import cays.httpclient.pool.PooledHttpClientFactory;
+import cays.httpclient.server.ExampleServer;
+import cays.httpclient.server.ServerConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 压测命令行，用示例中的请求方式对服务施加固定速率的负载，输出吞吐量、延迟百分位和错误统计
+ * <p>
+ * 例如：java cays.httpclient.LoadTest --operation get,post --rate 500 --duration 30 --json result.json
+ * <ul>
+ *     <li>--operation get|post|compressed-post|form|multipart|caching，多个用逗号分隔，默认get</li>
+ *     <li>--rate 目标速率(请求/秒)，--duration 统计时长(秒)，--warmup 预热时长(秒)</li>
+ *     <li>--concurrency 执行请求的线程数，同时也是连接池每个路由的连接数</li>
+ *     <li>--arrivals constant|poisson 请求的到达方式</li>
+ *     <li>--url 服务地址，默认启动内置的本地服务</li>
+ *     <li>--server-latency、--server-jitter(毫秒)、--server-error-rate 本地服务注入的延迟和错误</li>
+ *     <li>--json 文件路径，-表示输出到标准输出</li>
+ * </ul>
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 23:35
+ **/
+public class LoadTest {
+    public static void main(String[] args) {
+        LoadConfig.Builder loadConfig = LoadConfig.custom();
+        ServerConfig.Builder serverConfig = ServerConfig.custom().setHttpsPort(-1);
+        String[] operations = {"get"};
+        String json = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if ("--help".equals(option)) {
+                    usage();
+                    return;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--operation":
+                        operations = value.split(",");
+                        break;
+                    case "--rate":
+                        loadConfig.setRate(Double.parseDouble(value));
+                        break;
+                    case "--duration":
+                        loadConfig.setDuration(seconds(value));
+                        break;
+                    case "--warmup":
+                        loadConfig.setWarmup(seconds(value));
+                        break;
+                    case "--concurrency":
+                        loadConfig.setConcurrency(Integer.parseInt(value));
+                        break;
+                    case "--arrivals":
+                        loadConfig.setArrivals(LoadConfig.Arrivals.valueOf(value.toUpperCase(Locale.ROOT)));
+                        break;
+                    case "--url":
+                        System.setProperty(ExampleServer.BASE_URL_PROPERTY, value);
+                        break;
+                    case "--json":
+                        json = value;
+                        break;
+                    case "--server-latency":
+                        serverConfig.setLatency(Long.parseLong(value));
+                        break;
+                    case "--server-jitter":
+                        serverConfig.setLatencyJitter(Long.parseLong(value));
+                        break;
+                    case "--server-error-rate":
+                        serverConfig.setErrorRate(Double.parseDouble(value));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            usage();
+            System.exit(2);
+            return;
+        }
+        LoadConfig config = loadConfig.build();
+        // 每个执行线程都能拿到连接，避免在连接池上排队
+        PooledHttpClientFactory clientFactory = new PooledHttpClientFactory(PoolConfig.custom()
+                .setMaxTotal(Math.max(200, config.getConcurrency()))
+                .setDefaultMaxPerRoute(config.getConcurrency())
+                .build());
+        HttpClientExample httpClientExample = new HttpClientExample(clientFactory);
+        HttpClientFormExample formExample = new HttpClientFormExample(clientFactory);
+        List<LoadResult> results = new ArrayList<>();
+        try (ExampleServer server = ExampleServer.start(serverConfig.build())) {
+            LoadGenerator generator = new LoadGenerator(config);
+            for (String operation : operations) {
+                LoadOperation loadOperation = createOperation(operation.trim(), server,
+                        httpClientExample, formExample);
+                System.out.println("Running " + operation + " against " + server.url("") + " ...");
+                LoadResult result = generator.run(operation, loadOperation);
+                System.out.println(result);
+                results.add(result);
+            }
+            if (json != null) {
+                writeJson(results, json);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            httpClientExample.close();
+            clientFactory.close();
+            PooledHttpClientFactory.getDefault().close();
+        }
+    }
+
+    private static LoadOperation createOperation(String operation, ExampleServer server,
+                                                 HttpClientExample httpClientExample,
+                                                 HttpClientFormExample formExample) {
+        switch (operation) {
+            case "get":
+                String getUrl = server.url("/get");
+                return () -> httpClientExample.get(getUrl);
+            case "post":
+                String postUrl = server.url("/post");
+                return () -> httpClientExample.post(postUrl);
+            case "compressed-post":
+                String compressedUrl = server.url("/post");
+                return () -> httpClientExample.compressedPost(compressedUrl);
+            case "form":
+                String formUrl = server.url("/post");
+                return () -> formExample.submitForm(formUrl);
+            case "multipart":
+                String multipartUrl = server.url("/post");
+                return () -> formExample.multipart(multipartUrl);
+            case "caching":
+                String cacheUrl = server.url("/cache");
+                return () -> httpClientExample.cachedGet(cacheUrl);
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    private static void writeJson(List<LoadResult> results, String target) throws IOException {
+        StringBuilder json = new StringBuilder();
+        if (results.size() == 1) {
+            json.append(results.get(0).toJson());
+        } else {
+            json.append('[');
+            for (int i = 0; i < results.size(); i++) {
+                json.append(i == 0 ? "" : ",").append(System.lineSeparator()).append(results.get(i).toJson());
+            }
+            json.append(System.lineSeparator()).append(']');
+        }
+        if ("-".equals(target)) {
+            System.out.println(json);
+        } else {
+            Files.write(Paths.get(target), json.toString().getBytes(StandardCharsets.UTF_8));
+            System.out.println("Results written to " + target);
+        }
+    }
+
+    /**
+     * 秒转为毫秒，允许小数
+     */
+    private static long seconds(String value) {
+        return (long) (Double.parseDouble(value) * TimeUnit.SECONDS.toMillis(1));
+    }
+
+    private static void usage() {
+        System.out.println("Usage: LoadTest [--operation get|post|compressed-post|form|multipart|caching[,...]] [--rate N]"
+                + " [--duration SECONDS] [--warmup SECONDS] [--concurrency N] [--arrivals constant|poisson]"
+                + " [--url BASE_URL] [--json FILE|-] [--server-latency MS] [--server-jitter MS]"
+                + " [--server-error-rate RATE]");
+    }
+}
@@ -0,0 +1,52 @@
+package cays.httpclient;
+
+import cays.httpclient.metrics.HttpClientMetrics;
+import cays.httpclient.metrics.MetricsJmxExporter;
+import cays.httpclient.metrics.PrometheusExporter;
+import cays.httpclient.metrics.RouteMetrics;
+import cays.httpclient.pool.PooledHttpClientFactory;
+import cays.httpclient.server.ExampleServer;
+import cays.httpclient.tls.TlsSocketFactory;
+
+import java.io.IOException;
+
+/**
+ * 请求指标示例：执行几个请求后通过JMX和Prometheus端点查看各路由的耗时分布
+ * <p>
+ * 运行期间可以用jconsole查看cays.httpclient域，或访问http://localhost:9464/metrics
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 21:50
+ **/
+public class MetricsExample {
+    public static void main(String[] args) {
+        // 默认的连接池已经接入HttpClientMetrics.getDefault()
+        HttpClientMetrics metrics = PooledHttpClientFactory.getDefault().getMetrics();
+        HttpClientExample httpClientExample = new HttpClientExample();
+        try (ExampleServer server = ExampleServer.start();
+             MetricsJmxExporter jmxExporter = new MetricsJmxExporter(metrics).start();
+             PrometheusExporter prometheusExporter = new PrometheusExporter(metrics)
+                     .addCacheStatistics("example", httpClientExample.getCacheStatistics())
+                     .addTlsStatistics("default", TlsSocketFactory.getDefault().getStatistics())
+                     .addCompressionStatistics("example", httpClientExample.getCompressionStatistics())
+                     .start(9464)) {
+            httpClientExample.registerMBeans(jmxExporter, "example");
+            jmxExporter.register("TlsStatistics", "default", TlsSocketFactory.getDefault().getStatistics());
+            String url = server.url("/get");
+            httpClientExample.getMethod(url);
+            httpClientExample.hedgedGetMethod(url, 50);
+            httpClientExample.postMethod(server.url("/post"));
+            httpClientExample.compressedPostMethod(server.url("/post"));
+            httpClientExample.caching(server.url("/cache"));
+            for (RouteMetrics route : metrics.getRoutes()) {
+                System.out.println(route);
+            }
+            System.out.println(prometheusExporter.scrape());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            httpClientExample.close();
+            PooledHttpClientFactory.getDefault().close();
+        }
+    }
+}
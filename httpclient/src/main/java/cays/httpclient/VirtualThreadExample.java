@@ -0,0 +1,44 @@
+package cays.httpclient;
+
+import cays.httpclient.concurrent.BlockingCallExecutor;
+import cays.httpclient.concurrent.VirtualThreads;
+import cays.httpclient.pool.PooledHttpClientFactory;
+import cays.httpclient.server.ExampleServer;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+/**
+ * 在虚拟线程上并发执行阻塞的HttpClient示例，需要JDK 21及以上，低版本JDK使用平台线程
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 11:55
+ **/
+public class VirtualThreadExample {
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int concurrency = 50;
+        // 连接池大小与并发数一致，线程不会因为等待连接而超时
+        try (ExampleServer server = ExampleServer.start();
+             PooledHttpClientFactory clientFactory =
+                     new PooledHttpClientFactory(BlockingCallExecutor.poolConfigFor(concurrency))) {
+            HttpClientExample httpClientExample = new HttpClientExample(clientFactory);
+            HttpClientFormExample formExample = new HttpClientFormExample(clientFactory);
+            BlockingCallExecutor executor = VirtualThreads.isSupported()
+                    ? BlockingCallExecutor.ofVirtualThreads(clientFactory)
+                    : new BlockingCallExecutor(Executors.newFixedThreadPool(concurrency), concurrency);
+            try {
+                CompletableFuture.allOf(
+                        executor.execute(() -> httpClientExample.getMethod(server.url("/get"))),
+                        executor.execute(() -> httpClientExample.postMethod(server.url("/post"))),
+                        executor.execute(() -> formExample.postForm(server.url("/post"))),
+                        executor.execute(() -> formExample.setHeaders(server.url("/headers"))),
+                        executor.execute(() -> formExample.doMultipart(server.url("/post")))
+                ).join();
+            } finally {
+                executor.close();
+                httpClientExample.close();
+            }
+        }
+    }
+}
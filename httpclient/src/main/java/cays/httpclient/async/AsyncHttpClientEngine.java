@@ -0,0 +1,183 @@
+package cays.httpclient.async;
+
+import cays.httpclient.pool.PoolConfig;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 基于NIO Reactor的异步请求引擎，少量I/O线程即可同时处理成千上万个请求
+ * <p>
+ * 请求返回CompletableFuture，响应体缓存在内存后交给与同步方式相同的ResponseHandler处理。
+ * JsonStreamingEntity在I/O线程中分批序列化写出，只支持writeTo写出的请求体(例如分段上传)由固定数量的写线程边写边发送，
+ * 都不会整个缓存在内存中。
+ * 通过信号量限制同时在途的请求数量，超过上限时调用线程阻塞等待，形成背压。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 10:20
+ **/
+public class AsyncHttpClientEngine implements Closeable {
+    private final CloseableHttpAsyncClient httpAsyncClient;
+    private final PoolingNHttpClientConnectionManager connectionManager;
+    private final Semaphore inFlight;
+    private final ExecutorService writerExecutor;
+    private final int maxInFlight;
+
+    public AsyncHttpClientEngine() throws IOReactorException {
+        this(PoolConfig.custom().setMaxTotal(1000).setDefaultMaxPerRoute(500).build(),
+                Runtime.getRuntime().availableProcessors(), 5000);
+    }
+
+    /**
+     * @param poolConfig 连接池配置，复用同步方式的最大连接数和超时时间
+     * @param ioThreadCount I/O Reactor线程数量
+     * @param maxInFlight 同时在途的最大请求数
+     */
+    public AsyncHttpClientEngine(PoolConfig poolConfig, int ioThreadCount, int maxInFlight) throws IOReactorException {
+        Args.notNull(poolConfig, "Pool config");
+        Args.positive(ioThreadCount, "I/O thread count");
+        this.maxInFlight = Args.positive(maxInFlight, "Max in-flight requests");
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(ioThreadCount)
+                .setConnectTimeout(poolConfig.getConnectTimeout())
+                .setSoTimeout(poolConfig.getSocketTimeout())
+                .build();
+        this.connectionManager = new PoolingNHttpClientConnectionManager(
+                new DefaultConnectingIOReactor(ioReactorConfig));
+        this.connectionManager.setMaxTotal(poolConfig.getMaxTotal());
+        this.connectionManager.setDefaultMaxPerRoute(poolConfig.getDefaultMaxPerRoute());
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(poolConfig.getConnectTimeout())
+                .setSocketTimeout(poolConfig.getSocketTimeout())
+                .setConnectionRequestTimeout(poolConfig.getConnectionRequestTimeout())
+                .build();
+        this.httpAsyncClient = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .build();
+        this.inFlight = new Semaphore(maxInFlight);
+        this.writerExecutor = StreamingRequestProducer.newWriterExecutor();
+        this.httpAsyncClient.start();
+    }
+
+    /**
+     * 异步执行请求
+     * @param request 请求
+     * @param responseHandler 处理响应的回调，与同步方式的ResponseHandler相同
+     * @return 完成时包含handler结果的Future，取消Future会中止请求
+     */
+    public <T> CompletableFuture<T> execute(HttpUriRequest request, ResponseHandler<? extends T> responseHandler) {
+        return execute(request, null, responseHandler);
+    }
+
+    public <T> CompletableFuture<T> execute(HttpUriRequest request, HttpContext context,
+                                            ResponseHandler<? extends T> responseHandler) {
+        Args.notNull(request, "HTTP request");
+        Args.notNull(responseHandler, "Response handler");
+        CompletableFuture<T> result = new CompletableFuture<>();
+        HttpAsyncRequestProducer producer;
+        try {
+            HttpHost target = URIUtils.extractHost(request.getURI());
+            if (target == null) {
+                throw new ClientProtocolException("URI does not specify a valid host name: " + request.getURI());
+            }
+            producer = StreamingRequestProducer.create(target, request, writerExecutor);
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+            return result;
+        } catch (IOException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        Future<HttpResponse> future;
+        try {
+            future = httpAsyncClient.execute(producer, HttpAsyncMethods.createConsumer(), context,
+                    new FutureCallback<HttpResponse>() {
+                        @Override
+                        public void completed(HttpResponse response) {
+                            inFlight.release();
+                            try {
+                                // 响应体已完整读入内存，handler不会阻塞I/O线程
+                                result.complete(responseHandler.handleResponse(response));
+                            } catch (Exception e) {
+                                result.completeExceptionally(e);
+                            }
+                        }
+
+                        @Override
+                        public void failed(Exception e) {
+                            inFlight.release();
+                            result.completeExceptionally(e);
+                        }
+
+                        @Override
+                        public void cancelled() {
+                            inFlight.release();
+                            result.cancel(false);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            // 客户端已关闭等情况下直接抛出，回调不会被调用
+            inFlight.release();
+            result.completeExceptionally(e);
+            return result;
+        }
+        result.whenComplete((value, throwable) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 当前在途的请求数
+     */
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public PoolingNHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    /**
+     * 关闭I/O Reactor和所有连接，未完成的请求会失败
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            httpAsyncClient.close();
+        } finally {
+            writerExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package cays.httpclient.async;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.util.Args;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 把多个线程逐个提交的请求按路由自动合并成批，通过PipeliningBatchClient发送
+ * <p>
+ * 一个路由攒够batchSize个请求时立即发送，否则从第一个请求开始最多等待flushInterval毫秒。
+ * 调用方像单个异步请求一样拿到自己的结果，不需要改成批量接口。等待发送和在途的请求超过maxPendingRequests时，
+ * 提交的线程阻塞等待，形成背压。
+ * <p>
+ * 结果的Future在PipeliningBatchClient的I/O线程中完成，thenApply等同步回调也在I/O线程中执行。
+ * 在这些线程中调用submit且已经达到maxPendingRequests时不会阻塞(阻塞的I/O线程无法完成请求、释放名额，会死锁)，
+ * 返回以IllegalStateException异常完成的Future；回调中需要继续提交时使用thenComposeAsync等在其他线程中提交。
+ * <pre>
+ * AutoBatcher&lt;String&gt; batcher = new AutoBatcher&lt;&gt;(batchClient, ResponseHandlers.toStringHandler());
+ * String body = batcher.submit(new HttpPost(url)).join();
+ * </pre>
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 12:50
+ **/
+public class AutoBatcher<T> implements Closeable {
+    private final PipeliningBatchClient batchClient;
+    private final ResponseHandler<? extends T> responseHandler;
+    private final BatchConfig config;
+    private final ConcurrentHashMap<HttpHost, RouteQueue> queues = new ConcurrentHashMap<>();
+    private final Semaphore pending;
+    private final ScheduledExecutorService flushScheduler;
+
+    public AutoBatcher(PipeliningBatchClient batchClient, ResponseHandler<? extends T> responseHandler) {
+        this.batchClient = Args.notNull(batchClient, "Batch client");
+        this.responseHandler = Args.notNull(responseHandler, "Response handler");
+        this.config = batchClient.getConfig();
+        this.pending = new Semaphore(config.getMaxPendingRequests());
+        this.flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "batch-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 提交一个请求，与同一路由的其他请求合并发送
+     * @param request 绝对地址的请求
+     * @return 完成时包含handler结果的Future，请求失败时异常完成；在I/O线程中提交且没有名额时以IllegalStateException异常完成
+     */
+    public CompletableFuture<T> submit(HttpUriRequest request) {
+        Args.notNull(request, "HTTP request");
+        HttpHost target = URIUtils.extractHost(request.getURI());
+        Args.notNull(target, "Request target host");
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (!pending.tryAcquire()) {
+            if (batchClient.isIoThread()) {
+                result.completeExceptionally(new IllegalStateException(
+                        "Too many pending requests, submit would block an I/O dispatcher thread"));
+                return result;
+            }
+            try {
+                pending.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(e);
+                return result;
+            }
+        }
+        RouteQueue queue = queues.get(target);
+        if (queue == null) {
+            queue = queues.computeIfAbsent(target, RouteQueue::new);
+        }
+        queue.add(request, result);
+        return result;
+    }
+
+    /**
+     * 立即发送所有路由中等待的请求
+     */
+    public void flush() {
+        for (RouteQueue queue : queues.values()) {
+            queue.flush(-1);
+        }
+    }
+
+    /**
+     * 等待发送和在途的请求数
+     */
+    public int getPending() {
+        return config.getMaxPendingRequests() - pending.availablePermits();
+    }
+
+    /**
+     * 发送剩余的请求并停止定时发送线程，不关闭PipeliningBatchClient
+     */
+    @Override
+    public void close() {
+        flushScheduler.shutdownNow();
+        flush();
+    }
+
+    private void send(HttpHost target, List<HttpUriRequest> requests, List<CompletableFuture<T>> results) {
+        batchClient.execute(target, requests, responseHandler).whenComplete((batchResults, throwable) -> {
+            pending.release(results.size());
+            for (int i = 0; i < results.size(); i++) {
+                CompletableFuture<T> result = results.get(i);
+                if (throwable != null) {
+                    result.completeExceptionally(throwable);
+                } else if (batchResults.get(i).isSuccess()) {
+                    result.complete(batchResults.get(i).getValue());
+                } else {
+                    result.completeExceptionally(batchResults.get(i).getError());
+                }
+            }
+        });
+    }
+
+    /**
+     * 一个路由等待发送的请求，generation区分不同的批，避免上一批的定时任务提前发送新的一批
+     */
+    private final class RouteQueue {
+        private final HttpHost target;
+        private List<HttpUriRequest> requests = new ArrayList<>();
+        private List<CompletableFuture<T>> results = new ArrayList<>();
+        private long generation;
+
+        private RouteQueue(HttpHost target) {
+            this.target = target;
+        }
+
+        private void add(HttpUriRequest request, CompletableFuture<T> result) {
+            List<HttpUriRequest> fullRequests = null;
+            List<CompletableFuture<T>> fullResults = null;
+            long scheduleGeneration = -1;
+            synchronized (this) {
+                requests.add(request);
+                results.add(result);
+                if (requests.size() >= config.getBatchSize()) {
+                    fullRequests = requests;
+                    fullResults = results;
+                    reset();
+                } else if (requests.size() == 1) {
+                    scheduleGeneration = generation;
+                }
+            }
+            if (fullRequests != null) {
+                send(target, fullRequests, fullResults);
+            } else if (scheduleGeneration >= 0) {
+                scheduleFlush(scheduleGeneration);
+            }
+        }
+
+        private void scheduleFlush(long scheduleGeneration) {
+            try {
+                flushScheduler.schedule(() -> flush(scheduleGeneration),
+                        config.getFlushInterval(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // 已经关闭，直接发送
+                flush(scheduleGeneration);
+            }
+        }
+
+        /**
+         * @param expectedGeneration 只发送这一批，-1表示发送当前等待的请求
+         */
+        private void flush(long expectedGeneration) {
+            List<HttpUriRequest> batchRequests;
+            List<CompletableFuture<T>> batchResults;
+            synchronized (this) {
+                if (requests.isEmpty() || (expectedGeneration >= 0 && expectedGeneration != generation)) {
+                    return;
+                }
+                batchRequests = requests;
+                batchResults = results;
+                reset();
+            }
+            send(target, batchRequests, batchResults);
+        }
+
+        private void reset() {
+            requests = new ArrayList<>();
+            results = new ArrayList<>();
+            generation++;
+        }
+    }
+}
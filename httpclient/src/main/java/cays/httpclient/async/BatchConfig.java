@@ -0,0 +1,100 @@
+package cays.httpclient.async;
+
+import org.apache.http.util.Args;
+
+/**
+ * 批量请求配置，使用方式与PoolConfig一致：BatchConfig.custom()...build()
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 12:30
+ **/
+public final class BatchConfig {
+    public static final BatchConfig DEFAULT = custom().build();
+
+    private final int batchSize;
+    private final long flushInterval;
+    private final int connectionsPerRoute;
+    private final int maxPendingRequests;
+
+    private BatchConfig(Builder builder) {
+        this.batchSize = builder.batchSize;
+        this.flushInterval = builder.flushInterval;
+        this.connectionsPerRoute = builder.connectionsPerRoute;
+        this.maxPendingRequests = builder.maxPendingRequests;
+    }
+
+    public static Builder custom() {
+        return new Builder();
+    }
+
+    /**
+     * 一个连接上连续发送(pipelining)的最大请求数，更多的请求拆成多批
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * 自动合并时，第一个请求最多等待的时间(毫秒)，到时间后不足一批也发送
+     */
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * 每个路由同时用于pipelining的连接数，多批请求分散在这些连接上
+     */
+    public int getConnectionsPerRoute() {
+        return connectionsPerRoute;
+    }
+
+    /**
+     * 自动合并时等待发送和在途的最大请求数，超过时提交的线程阻塞等待
+     */
+    public int getMaxPendingRequests() {
+        return maxPendingRequests;
+    }
+
+    @Override
+    public String toString() {
+        return "[batchSize=" + batchSize +
+                ", flushInterval=" + flushInterval +
+                ", connectionsPerRoute=" + connectionsPerRoute +
+                ", maxPendingRequests=" + maxPendingRequests +
+                "]";
+    }
+
+    public static class Builder {
+        private int batchSize = 32;
+        private long flushInterval = 5;
+        private int connectionsPerRoute = 2;
+        private int maxPendingRequests = 10000;
+
+        Builder() {
+        }
+
+        public Builder setBatchSize(int batchSize) {
+            this.batchSize = Args.positive(batchSize, "Batch size");
+            return this;
+        }
+
+        public Builder setFlushInterval(long flushInterval) {
+            this.flushInterval = Args.notNegative(flushInterval, "Flush interval");
+            return this;
+        }
+
+        public Builder setConnectionsPerRoute(int connectionsPerRoute) {
+            this.connectionsPerRoute = Args.positive(connectionsPerRoute, "Connections per route");
+            return this;
+        }
+
+        public Builder setMaxPendingRequests(int maxPendingRequests) {
+            this.maxPendingRequests = Args.positive(maxPendingRequests, "Max pending requests");
+            return this;
+        }
+
+        public BatchConfig build() {
+            return new BatchConfig(this);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package cays.httpclient.async;
+
+/**
+ * 批量请求中单个请求的结果，成功时为ResponseHandler的返回值，失败时为异常
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 12:35
+ **/
+public final class BatchResult<T> {
+    private final T value;
+    private final Exception error;
+
+    private BatchResult(T value, Exception error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    static <T> BatchResult<T> success(T value) {
+        return new BatchResult<>(value, null);
+    }
+
+    static <T> BatchResult<T> failure(Exception error) {
+        return new BatchResult<>(null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * ResponseHandler的返回值，失败时为null
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * 失败原因，非2xx响应为HttpResponseException，连接失败为IOException
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ? "[success " + value + "]" : "[failure " + error + "]";
+    }
+}
@@ -0,0 +1,205 @@
+package cays.httpclient.async;
+
+import cays.httpclient.pool.PoolConfig;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpPipeliningClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.protocol.BasicAsyncResponseConsumer;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.util.Args;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 批量发送同一路由的请求，每批请求在一个连接上连续写出(HTTP/1.1 pipelining)，不等待前一个响应
+ * <p>
+ * 大量小请求的耗时主要是往返等待，pipelining后一批请求只需要大约一次往返。超过batchSize的请求拆成多批，
+ * 分散在每个路由connectionsPerRoute个连接上并行发送。结果按请求的顺序返回，每个请求对应一个响应或异常。
+ * <p>
+ * 服务端必须按顺序处理同一连接上的请求。连接中途断开时，已经收到响应的请求仍返回响应，其余的请求返回异常，
+ * 这些请求可能已经被服务端处理，不会自动重发，由调用方决定是否重试。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 12:40
+ **/
+public class PipeliningBatchClient implements Closeable {
+    private final BatchConfig config;
+    private final PoolingNHttpClientConnectionManager connectionManager;
+    private final CloseableHttpPipeliningClient pipeliningClient;
+    private final ExecutorService writerExecutor;
+    // 在本客户端的I/O线程中为true，批量结果的回调都在这些线程中执行
+    private final ThreadLocal<Boolean> ioThread = new ThreadLocal<>();
+
+    public PipeliningBatchClient() throws IOReactorException {
+        this(PoolConfig.DEFAULT, BatchConfig.DEFAULT);
+    }
+
+    /**
+     * @param poolConfig 复用连接超时和读取超时，每个路由的连接数由batchConfig决定
+     */
+    public PipeliningBatchClient(PoolConfig poolConfig, BatchConfig batchConfig) throws IOReactorException {
+        Args.notNull(poolConfig, "Pool config");
+        this.config = Args.notNull(batchConfig, "Batch config");
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(Runtime.getRuntime().availableProcessors())
+                .setConnectTimeout(poolConfig.getConnectTimeout())
+                .setSoTimeout(poolConfig.getSocketTimeout())
+                .build();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.connectionManager = new PoolingNHttpClientConnectionManager(
+                new DefaultConnectingIOReactor(ioReactorConfig, runnable -> new Thread(() -> {
+                    ioThread.set(Boolean.TRUE);
+                    runnable.run();
+                }, "batch-io-dispatcher-" + threadNumber.incrementAndGet())));
+        this.connectionManager.setMaxTotal(poolConfig.getMaxTotal());
+        this.connectionManager.setDefaultMaxPerRoute(batchConfig.getConnectionsPerRoute());
+        this.pipeliningClient = HttpAsyncClients.createPipelining(connectionManager);
+        // 只有writeTo写出的请求体需要写线程
+        this.writerExecutor = StreamingRequestProducer.newWriterExecutor();
+        this.pipeliningClient.start();
+    }
+
+    /**
+     * 批量执行请求，所有请求必须是同一个目标主机
+     * @param requests 绝对地址的请求
+     * @param responseHandler 处理每个响应，与同步方式的ResponseHandler相同
+     * @return 全部请求完成后按请求顺序排列的结果
+     */
+    public <T> CompletableFuture<List<BatchResult<T>>> execute(List<? extends HttpUriRequest> requests,
+                                                             ResponseHandler<? extends T> responseHandler) {
+        Args.notEmpty(requests, "Requests");
+        HttpHost target = URIUtils.extractHost(requests.get(0).getURI());
+        Args.notNull(target, "Request target host");
+        for (HttpUriRequest request : requests) {
+            Args.check(target.equals(URIUtils.extractHost(request.getURI())),
+                    "All requests in a batch must have the same target host");
+        }
+        return execute(target, requests, responseHandler);
+    }
+
+    /**
+     * 批量执行发往target的请求
+     */
+    public <T> CompletableFuture<List<BatchResult<T>>> execute(HttpHost target, List<? extends HttpRequest> requests,
+                                                             ResponseHandler<? extends T> responseHandler) {
+        Args.notNull(target, "Target host");
+        Args.notNull(requests, "Requests");
+        Args.notNull(responseHandler, "Response handler");
+        // 各批在不同线程中写入不同的位置，全部完成后再读取
+        List<BatchResult<T>> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int offset = 0; offset < requests.size(); offset += config.getBatchSize()) {
+            int end = Math.min(offset + config.getBatchSize(), requests.size());
+            batches.add(executeBatch(target, requests.subList(offset, end), offset, responseHandler, results));
+        }
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> results);
+    }
+
+    /**
+     * 在一个连接上pipelining发送一批请求，结果写入results中从offset开始的位置
+     */
+    private <T> CompletableFuture<Void> executeBatch(HttpHost target, List<? extends HttpRequest> batch, int offset,
+                                                     ResponseHandler<? extends T> responseHandler,
+                                                     List<BatchResult<T>> results) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        List<HttpAsyncRequestProducer> producers = new ArrayList<>(batch.size());
+        List<BasicAsyncResponseConsumer> consumers = new ArrayList<>(batch.size());
+        for (HttpRequest request : batch) {
+            producers.add(StreamingRequestProducer.create(target, request, writerExecutor));
+            consumers.add(new BasicAsyncResponseConsumer());
+        }
+        try {
+            pipeliningClient.execute(target, producers, consumers, new FutureCallback<List<HttpResponse>>() {
+                @Override
+                public void completed(List<HttpResponse> responses) {
+                    for (int i = 0; i < responses.size(); i++) {
+                        results.set(offset + i, handle(responses.get(i), responseHandler));
+                    }
+                    done.complete(null);
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    completeRemaining(e);
+                }
+
+                @Override
+                public void cancelled() {
+                    completeRemaining(new CancellationException("Batch cancelled"));
+                }
+
+                private void completeRemaining(Exception e) {
+                    for (int i = 0; i < consumers.size(); i++) {
+                        BasicAsyncResponseConsumer consumer = consumers.get(i);
+                        HttpResponse response = consumer.isDone() ? consumer.getResult() : null;
+                        results.set(offset + i, response != null
+                                ? handle(response, responseHandler) : BatchResult.failure(e));
+                    }
+                    done.complete(null);
+                }
+            });
+        } catch (RuntimeException e) {
+            // 客户端已关闭等情况下直接抛出，回调不会被调用
+            for (int i = 0; i < producers.size(); i++) {
+                results.set(offset + i, BatchResult.failure(e));
+            }
+            done.complete(null);
+        }
+        return done;
+    }
+
+    private static <T> BatchResult<T> handle(HttpResponse response, ResponseHandler<? extends T> responseHandler) {
+        try {
+            // 响应体已完整读入内存，handler不会阻塞I/O线程
+            return BatchResult.success(responseHandler.handleResponse(response));
+        } catch (Exception e) {
+            return BatchResult.failure(e);
+        }
+    }
+
+    /**
+     * 当前线程是否是本客户端的I/O线程，批量结果的回调在这些线程中执行，不能在其中阻塞等待
+     */
+    boolean isIoThread() {
+        return ioThread.get() != null;
+    }
+
+    public BatchConfig getConfig() {
+        return config;
+    }
+
+    public PoolingNHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    /**
+     * 关闭I/O Reactor和所有连接，未完成的请求会失败
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            pipeliningClient.close();
+        } finally {
+            writerExecutor.shutdownNow();
+        }
+    }
+}
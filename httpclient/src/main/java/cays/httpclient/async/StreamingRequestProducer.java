@@ -0,0 +1,248 @@
+package cays.httpclient.async;
+
+import cays.httpclient.entity.PercentEncodedFormEntity;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.FileEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+import org.apache.http.nio.protocol.BasicAsyncRequestProducer;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 异步客户端发送只支持writeTo写出的请求体(例如JsonStreamingEntity、分段上传)
+ * <p>
+ * 异步客户端默认通过getContent()读取请求体，实现了HttpAsyncContentProducer的实体(例如JsonStreamingEntity)
+ * 在I/O线程中直接写出。其他实体(例如分段上传、压缩的请求体)由写线程调用writeTo，写入固定大小的缓冲区，
+ * I/O线程在连接可写时从缓冲区取出数据写到连接，缓冲区满时写线程阻塞等待，请求体不会整个放进内存。
+ * 写线程数量固定，不随在途的请求数增长，超出的请求体排队等待空闲的写线程。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 18:10
+ **/
+final class StreamingRequestProducer extends BasicAsyncRequestProducer {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int WRITER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private StreamingRequestProducer(HttpHost target, HttpEntityEnclosingRequest request,
+                                     HttpAsyncContentProducer producer) {
+        super(target, request, producer);
+    }
+
+    /**
+     * 创建请求的producer，异步实体和getContent()开销小的实体沿用异步客户端默认的方式发送
+     * @param writerExecutor 执行writeTo的线程池
+     */
+    static HttpAsyncRequestProducer create(HttpHost target, HttpRequest request, Executor writerExecutor) {
+        if (!(request instanceof HttpEntityEnclosingRequest)) {
+            return HttpAsyncMethods.create(target, request);
+        }
+        HttpEntityEnclosingRequest enclosingRequest = (HttpEntityEnclosingRequest) request;
+        HttpEntity entity = enclosingRequest.getEntity();
+        if (entity == null || entity instanceof HttpAsyncContentProducer || readsContentCheaply(entity)) {
+            return HttpAsyncMethods.create(target, request);
+        }
+        return new StreamingRequestProducer(target, enclosingRequest, new WriterContentProducer(entity, writerExecutor));
+    }
+
+    /**
+     * 按实体类型判断，不调用getContent()，分段上传等实体的getContent()会在内存中生成整个请求体
+     */
+    private static boolean readsContentCheaply(HttpEntity entity) {
+        return entity instanceof ByteArrayEntity
+                || entity instanceof StringEntity
+                || entity instanceof FileEntity
+                || entity instanceof PercentEncodedFormEntity;
+    }
+
+    /**
+     * 写线程的线程池，线程数固定，空闲线程60秒后退出
+     */
+    static ThreadPoolExecutor newWriterExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(WRITER_THREADS, WRITER_THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "async-entity-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static final class WriterContentProducer implements HttpAsyncContentProducer {
+        private final HttpEntity entity;
+        private final Executor writerExecutor;
+        // 每次发送一个新的管道，重试时旧的写线程写入已关闭的管道后退出
+        private Pipe pipe;
+
+        private WriterContentProducer(HttpEntity entity, Executor writerExecutor) {
+            this.entity = entity;
+            this.writerExecutor = writerExecutor;
+        }
+
+        @Override
+        public void produceContent(ContentEncoder encoder, IOControl ioControl) throws IOException {
+            if (pipe == null) {
+                Pipe newPipe = new Pipe(ioControl);
+                try {
+                    writerExecutor.execute(() -> newPipe.write(entity));
+                } catch (RejectedExecutionException e) {
+                    throw new IOException("Entity writer has been shut down", e);
+                }
+                pipe = newPipe;
+            }
+            pipe.produce(encoder, ioControl);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return entity.isRepeatable();
+        }
+
+        @Override
+        public void close() {
+            if (pipe != null) {
+                pipe.close();
+                pipe = null;
+            }
+        }
+    }
+
+    /**
+     * 写线程和I/O线程之间的缓冲区
+     */
+    private static final class Pipe extends OutputStream {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notFull = lock.newCondition();
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private IOControl ioControl;
+        private boolean outputSuspended;
+        private boolean finished;
+        private boolean closed;
+        private Throwable failure;
+
+        private Pipe(IOControl ioControl) {
+            this.ioControl = ioControl;
+        }
+
+        /**
+         * 在写线程中执行
+         */
+        private void write(HttpEntity entity) {
+            Throwable error = null;
+            try {
+                entity.writeTo(this);
+            } catch (Throwable e) {
+                error = e;
+            }
+            lock.lock();
+            try {
+                finished = true;
+                failure = error;
+                wakeUpOutput();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            lock.lock();
+            try {
+                while (len > 0) {
+                    while (!closed && !buffer.hasRemaining()) {
+                        notFull.await();
+                    }
+                    if (closed) {
+                        throw new IOException("Request aborted");
+                    }
+                    int n = Math.min(len, buffer.remaining());
+                    buffer.put(b, off, n);
+                    off += n;
+                    len -= n;
+                    wakeUpOutput();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 在I/O线程中执行，把缓冲区中的数据写到连接
+         */
+        private void produce(ContentEncoder encoder, IOControl ioControl) throws IOException {
+            lock.lock();
+            try {
+                this.ioControl = ioControl;
+                buffer.flip();
+                try {
+                    while (buffer.hasRemaining() && encoder.write(buffer) > 0) {
+                        notFull.signal();
+                    }
+                } finally {
+                    buffer.compact();
+                }
+                if (buffer.position() > 0) {
+                    return;
+                }
+                if (!finished) {
+                    // 缓冲区已空，等写线程写入数据后再恢复
+                    outputSuspended = true;
+                    ioControl.suspendOutput();
+                    return;
+                }
+                if (failure != null) {
+                    throw failure instanceof IOException
+                            ? (IOException) failure : new IOException("Failed to write request entity", failure);
+                }
+                encoder.complete();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void wakeUpOutput() {
+            if (outputSuspended) {
+                outputSuspended = false;
+                ioControl.requestOutput();
+            }
+        }
+
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                closed = true;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package cays.httpclient.breaker;
+
+import org.apache.http.HttpHost;
+
+import java.io.IOException;
+
+/**
+ * 熔断器打开或并发数已满时请求被直接拒绝，没有发送到服务端
+ * <p>
+ * 继承IOException，调用方现有的异常处理不需要修改。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 19:45
+ **/
+public class CallNotPermittedException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final HttpHost target;
+    private final CircuitBreaker.State state;
+
+    public CallNotPermittedException(HttpHost target, CircuitBreaker.State state, String message) {
+        super(message);
+        this.target = target;
+        this.state = state;
+    }
+
+    public HttpHost getTarget() {
+        return target;
+    }
+
+    /**
+     * 拒绝时熔断器的状态，CLOSED表示因为并发数已满被拒绝
+     */
+    public CircuitBreaker.State getState() {
+        return state;
+    }
+}
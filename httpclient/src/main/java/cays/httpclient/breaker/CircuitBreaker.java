@@ -0,0 +1,257 @@
+package cays.httpclient.breaker;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpHost;
+import org.apache.http.util.Args;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个路由的熔断器和并发限制
+ * <ul>
+ * <li>CLOSED：正常放行，滑动窗口内失败率或慢调用比例超过阈值时打开</li>
+ * <li>OPEN：直接拒绝，经过openDuration后进入半开状态</li>
+ * <li>HALF_OPEN：放行少量探测请求，全部成功则关闭，任何一个失败或慢调用则重新打开；
+ * 超过openDuration仍有探测请求没有结果时按慢调用处理，重新打开，之后再发新的探测请求</li>
+ * </ul>
+ * 每个路由同时进行的调用数有上限，超过时直接拒绝，不占用线程和连接池中的连接。
+ * 状态切换全部使用CAS，不加锁。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 19:50
+ **/
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final Log log = LogFactory.getLog(getClass());
+    private final HttpHost target;
+    private final CircuitBreakerConfig config;
+    private final SlidingWindow window;
+    private final Semaphore concurrentCalls;
+    private final AtomicReference<Phase> phase;
+    private final long openNanos;
+    private final long slowCallNanos;
+    private final LongAdder notPermitted = new LongAdder();
+
+    public CircuitBreaker(HttpHost target, CircuitBreakerConfig config) {
+        this.target = target;
+        this.config = Args.notNull(config, "Circuit breaker config");
+        this.window = new SlidingWindow(config.getWindowBuckets(), config.getBucketDuration());
+        this.concurrentCalls = new Semaphore(config.getMaxConcurrentCalls());
+        this.phase = new AtomicReference<>(new Phase(State.CLOSED, System.nanoTime()));
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(config.getOpenDuration());
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDuration());
+    }
+
+    /**
+     * 申请一次调用，调用结束后必须调用Permit的complete和release
+     * @throws CallNotPermittedException 熔断器打开或并发数已满
+     */
+    public Permit acquire() throws CallNotPermittedException {
+        if (!concurrentCalls.tryAcquire()) {
+            notPermitted.increment();
+            throw new CallNotPermittedException(target, getState(),
+                    "Too many concurrent calls to " + target + ", limit " + config.getMaxConcurrentCalls());
+        }
+        Phase current;
+        try {
+            current = admit(System.nanoTime());
+        } catch (CallNotPermittedException e) {
+            concurrentCalls.release();
+            notPermitted.increment();
+            throw e;
+        }
+        return new Permit(current);
+    }
+
+    private Phase admit(long now) throws CallNotPermittedException {
+        while (true) {
+            Phase current = phase.get();
+            switch (current.state) {
+                case CLOSED:
+                    return current;
+                case OPEN:
+                    if (now - current.since < openNanos) {
+                        throw new CallNotPermittedException(target, State.OPEN, "Circuit breaker for " + target + " is open");
+                    }
+                    transition(current, new Phase(State.HALF_OPEN, now));
+                    // 重新读取状态，可能已经被其他线程切换
+                    break;
+                case HALF_OPEN:
+                    if (current.tryIssueProbe(config.getHalfOpenProbes())) {
+                        return current;
+                    }
+                    if (now - current.since >= openNanos) {
+                        // 探测请求一直没有结果，不能一直停在半开状态，迟到的结果不再影响新的状态
+                        if (transition(current, new Phase(State.OPEN, now))) {
+                            log.warn("Circuit breaker for " + target + " reopened, probes outstanding for more than "
+                                    + config.getOpenDuration() + " ms");
+                        }
+                        break;
+                    }
+                    throw new CallNotPermittedException(target, State.HALF_OPEN,
+                            "Circuit breaker for " + target + " is half-open, waiting for probe results");
+                default:
+                    throw new IllegalStateException(current.state.name());
+            }
+        }
+    }
+
+    private void onResult(Phase issuedIn, boolean failure, long durationNanos) {
+        boolean slow = durationNanos >= slowCallNanos;
+        long now = System.nanoTime();
+        if (issuedIn.state == State.HALF_OPEN) {
+            if (failure || slow) {
+                transition(issuedIn, new Phase(State.OPEN, now));
+            } else if (issuedIn.probesSucceeded.incrementAndGet() >= config.getHalfOpenProbes()) {
+                window.reset();
+                transition(issuedIn, new Phase(State.CLOSED, now));
+            }
+            return;
+        }
+        window.record(now, failure, slow);
+        Phase current = phase.get();
+        if (current.state != State.CLOSED) {
+            return;
+        }
+        SlidingWindow.Snapshot snapshot = window.snapshot(now);
+        if (snapshot.calls >= config.getMinimumCalls()
+                && (snapshot.failureRate() >= config.getFailureRateThreshold()
+                || snapshot.slowCallRate() >= config.getSlowCallRateThreshold())) {
+            if (transition(current, new Phase(State.OPEN, now))) {
+                log.warn("Circuit breaker for " + target + " opened, failure rate " + snapshot.failureRate()
+                        + "%, slow call rate " + snapshot.slowCallRate() + "% over " + snapshot.calls + " calls");
+            }
+        }
+    }
+
+    private boolean transition(Phase from, Phase to) {
+        if (!phase.compareAndSet(from, to)) {
+            return false;
+        }
+        if (log.isInfoEnabled()) {
+            log.info("Circuit breaker for " + target + " " + from.state + " -> " + to.state);
+        }
+        return true;
+    }
+
+    public HttpHost getTarget() {
+        return target;
+    }
+
+    public State getState() {
+        return phase.get().state;
+    }
+
+    /**
+     * 当前窗口内的失败率(百分比)
+     */
+    public int getFailureRate() {
+        return window.snapshot(System.nanoTime()).failureRate();
+    }
+
+    /**
+     * 当前窗口内的慢调用比例(百分比)
+     */
+    public int getSlowCallRate() {
+        return window.snapshot(System.nanoTime()).slowCallRate();
+    }
+
+    /**
+     * 正在进行的调用数
+     */
+    public int getConcurrentCalls() {
+        return config.getMaxConcurrentCalls() - concurrentCalls.availablePermits();
+    }
+
+    /**
+     * 累计被拒绝的调用数
+     */
+    public long getNotPermittedCalls() {
+        return notPermitted.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "[target=" + target + ", state=" + getState() + ", failureRate=" + getFailureRate()
+                + "%, slowCallRate=" + getSlowCallRate() + "%, concurrentCalls=" + getConcurrentCalls()
+                + ", notPermitted=" + getNotPermittedCalls() + "]";
+    }
+
+    /**
+     * 状态和进入状态的时间，半开状态同时记录探测请求数
+     */
+    private static final class Phase {
+        private final State state;
+        private final long since;
+        private final AtomicInteger probesIssued = new AtomicInteger();
+        private final AtomicInteger probesSucceeded = new AtomicInteger();
+
+        private Phase(State state, long since) {
+            this.state = state;
+            this.since = since;
+        }
+
+        private boolean tryIssueProbe(int maxProbes) {
+            while (true) {
+                int issued = probesIssued.get();
+                if (issued >= maxProbes) {
+                    return false;
+                }
+                if (probesIssued.compareAndSet(issued, issued + 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * 一次被放行的调用
+     */
+    public final class Permit {
+        private final Phase issuedIn;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean completed = new AtomicBoolean(false);
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Permit(Phase issuedIn) {
+            this.issuedIn = issuedIn;
+        }
+
+        /**
+         * 记录调用结果和耗时，收到响应头或发生异常时调用，多次调用只记录第一次
+         */
+        public void complete(boolean failure) {
+            if (completed.compareAndSet(false, true)) {
+                onResult(issuedIn, failure, System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * 调用被调用方主动中止(例如对冲请求中落后的一个)，不记录结果，半开状态的探测名额交还给下一个请求。
+         * 之后仍然需要调用release
+         */
+        public void abandon() {
+            if (completed.compareAndSet(false, true) && issuedIn.state == State.HALF_OPEN) {
+                issuedIn.probesIssued.decrementAndGet();
+            }
+        }
+
+        /**
+         * 释放并发数，响应关闭、连接归还连接池时调用，多次调用只释放一次
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                concurrentCalls.release();
+            }
+        }
+    }
+}
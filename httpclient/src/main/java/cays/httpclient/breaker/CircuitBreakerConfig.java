@@ -0,0 +1,184 @@
+package cays.httpclient.breaker;
+
+import org.apache.http.util.Args;
+
+/**
+ * 熔断器配置，使用方式与PoolConfig一致：CircuitBreakerConfig.custom()...build()
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 19:35
+ **/
+public final class CircuitBreakerConfig {
+    public static final CircuitBreakerConfig DEFAULT = custom().build();
+
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallDuration;
+    private final int windowBuckets;
+    private final long bucketDuration;
+    private final int minimumCalls;
+    private final long openDuration;
+    private final int halfOpenProbes;
+    private final int maxConcurrentCalls;
+
+    private CircuitBreakerConfig(Builder builder) {
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.slowCallDuration = builder.slowCallDuration;
+        this.windowBuckets = builder.windowBuckets;
+        this.bucketDuration = builder.bucketDuration;
+        this.minimumCalls = builder.minimumCalls;
+        this.openDuration = builder.openDuration;
+        this.halfOpenProbes = builder.halfOpenProbes;
+        this.maxConcurrentCalls = builder.maxConcurrentCalls;
+    }
+
+    public static Builder custom() {
+        return new Builder();
+    }
+
+    /**
+     * 失败率(百分比)达到这个值时打开熔断器
+     */
+    public int getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    /**
+     * 慢调用比例(百分比)达到这个值时打开熔断器
+     */
+    public int getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    /**
+     * 超过这个时间(毫秒)的调用算作慢调用
+     */
+    public long getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    /**
+     * 滑动窗口的桶数量
+     */
+    public int getWindowBuckets() {
+        return windowBuckets;
+    }
+
+    /**
+     * 每个桶的时间长度(毫秒)，窗口长度为桶数量乘以桶的时间长度
+     */
+    public long getBucketDuration() {
+        return bucketDuration;
+    }
+
+    /**
+     * 窗口内调用次数达到这个值后才计算失败率
+     */
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    /**
+     * 熔断器打开后多久(毫秒)进入半开状态
+     */
+    public long getOpenDuration() {
+        return openDuration;
+    }
+
+    /**
+     * 半开状态放行的探测请求数，全部成功后关闭熔断器
+     */
+    public int getHalfOpenProbes() {
+        return halfOpenProbes;
+    }
+
+    /**
+     * 每个路由同时进行的最大调用数，超过时直接拒绝
+     */
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    @Override
+    public String toString() {
+        return "[failureRateThreshold=" + failureRateThreshold +
+                ", slowCallRateThreshold=" + slowCallRateThreshold +
+                ", slowCallDuration=" + slowCallDuration +
+                ", windowBuckets=" + windowBuckets +
+                ", bucketDuration=" + bucketDuration +
+                ", minimumCalls=" + minimumCalls +
+                ", openDuration=" + openDuration +
+                ", halfOpenProbes=" + halfOpenProbes +
+                ", maxConcurrentCalls=" + maxConcurrentCalls +
+                "]";
+    }
+
+    public static class Builder {
+        private int failureRateThreshold = 50;
+        private int slowCallRateThreshold = 80;
+        private long slowCallDuration = 5000;
+        private int windowBuckets = 10;
+        private long bucketDuration = 1000;
+        private int minimumCalls = 20;
+        private long openDuration = 10000;
+        private int halfOpenProbes = 3;
+        private int maxConcurrentCalls = 50;
+
+        Builder() {
+        }
+
+        public Builder setFailureRateThreshold(int failureRateThreshold) {
+            Args.check(failureRateThreshold > 0 && failureRateThreshold <= 100,
+                    "Failure rate threshold must be between 1 and 100");
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        public Builder setSlowCallRateThreshold(int slowCallRateThreshold) {
+            Args.check(slowCallRateThreshold > 0 && slowCallRateThreshold <= 100,
+                    "Slow call rate threshold must be between 1 and 100");
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            return this;
+        }
+
+        public Builder setSlowCallDuration(long slowCallDuration) {
+            this.slowCallDuration = Args.positive(slowCallDuration, "Slow call duration");
+            return this;
+        }
+
+        public Builder setWindowBuckets(int windowBuckets) {
+            this.windowBuckets = Args.positive(windowBuckets, "Window buckets");
+            return this;
+        }
+
+        public Builder setBucketDuration(long bucketDuration) {
+            this.bucketDuration = Args.positive(bucketDuration, "Bucket duration");
+            return this;
+        }
+
+        public Builder setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = Args.positive(minimumCalls, "Minimum calls");
+            return this;
+        }
+
+        public Builder setOpenDuration(long openDuration) {
+            this.openDuration = Args.positive(openDuration, "Open duration");
+            return this;
+        }
+
+        public Builder setHalfOpenProbes(int halfOpenProbes) {
+            this.halfOpenProbes = Args.positive(halfOpenProbes, "Half-open probes");
+            return this;
+        }
+
+        public Builder setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = Args.positive(maxConcurrentCalls, "Max concurrent calls");
+            return this;
+        }
+
+        public CircuitBreakerConfig build() {
+            return new CircuitBreakerConfig(this);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package cays.httpclient.breaker;
+
+import cays.httpclient.client.CloseNotifyingResponse;
+import cays.httpclient.client.DelegatingHttpClient;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.execchain.RequestAbortedException;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import java.io.IOException;
+
+/**
+ * 在请求发出前经过目标主机的熔断器，熔断器打开或并发数已满时直接抛出CallNotPermittedException
+ * <p>
+ * I/O异常和5xx响应算作失败，收到响应头的耗时超过slowCallDuration算作慢调用。
+ * 并发数在响应关闭、连接归还连接池时才释放。
+ * 调用方主动中止的请求(例如对冲请求中落后的一个)不算失败，只释放并发数。
+ * 包装带重试的客户端时，一次调用包括其中所有的重试。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 20:00
+ **/
+public class CircuitBreakerHttpClient extends DelegatingHttpClient {
+    private final CircuitBreakerRegistry registry;
+
+    public CircuitBreakerHttpClient(CloseableHttpClient delegate, CircuitBreakerRegistry registry) {
+        super(delegate);
+        this.registry = Args.notNull(registry, "Circuit breaker registry");
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context)
+            throws IOException, ClientProtocolException {
+        if (target == null) {
+            return super.doExecute(target, request, context);
+        }
+        CircuitBreaker.Permit permit = registry.get(target).acquire();
+        CloseableHttpResponse response;
+        try {
+            response = super.doExecute(target, request, context);
+        } catch (IOException | RuntimeException e) {
+            if (isAborted(request, e)) {
+                permit.abandon();
+            } else {
+                permit.complete(true);
+            }
+            permit.release();
+            throw e;
+        }
+        permit.complete(response.getStatusLine().getStatusCode() >= HttpStatus.SC_INTERNAL_SERVER_ERROR);
+        return new CloseNotifyingResponse(response, permit::release);
+    }
+
+    /**
+     * 中止后连接被关闭，抛出的也可能是其他I/O异常，所以同时检查请求的中止状态
+     */
+    private static boolean isAborted(HttpRequest request, Exception e) {
+        return e instanceof RequestAbortedException
+                || (request instanceof HttpUriRequest && ((HttpUriRequest) request).isAborted());
+    }
+
+    public CircuitBreakerRegistry getRegistry() {
+        return registry;
+    }
+}
@@ -0,0 +1,40 @@
+package cays.httpclient.breaker;
+
+import org.apache.http.HttpHost;
+import org.apache.http.util.Args;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按路由(目标主机)保存熔断器，第一次访问时创建，多个HttpClient可以共用
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 19:55
+ **/
+public class CircuitBreakerRegistry {
+    private final CircuitBreakerConfig config;
+    private final ConcurrentHashMap<HttpHost, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerRegistry() {
+        this(CircuitBreakerConfig.DEFAULT);
+    }
+
+    public CircuitBreakerRegistry(CircuitBreakerConfig config) {
+        this.config = Args.notNull(config, "Circuit breaker config");
+    }
+
+    public CircuitBreaker get(HttpHost target) {
+        Args.notNull(target, "Target host");
+        return breakers.computeIfAbsent(target, host -> new CircuitBreaker(host, config));
+    }
+
+    public Collection<CircuitBreaker> getAll() {
+        return Collections.unmodifiableCollection(breakers.values());
+    }
+
+    public CircuitBreakerConfig getConfig() {
+        return config;
+    }
+}
@@ -0,0 +1,105 @@
+package cays.httpclient.breaker;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁的时间滑动窗口，按时间分桶统计调用数、失败数和慢调用数
+ * <p>
+ * 桶组成环形数组，每个桶记录所属的时间段编号，写入时发现桶已过期就用CAS抢占并清零。
+ * 清零和并发写入之间可能丢失极少量计数，对失败率的判断没有影响。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 19:40
+ **/
+class SlidingWindow {
+    private final Bucket[] buckets;
+    private final long bucketNanos;
+
+    SlidingWindow(int bucketCount, long bucketMillis) {
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.bucketNanos = bucketMillis * 1_000_000L;
+    }
+
+    void record(long nowNanos, boolean failure, boolean slow) {
+        Bucket bucket = current(nowNanos);
+        bucket.calls.increment();
+        if (failure) {
+            bucket.failures.increment();
+        }
+        if (slow) {
+            bucket.slowCalls.increment();
+        }
+    }
+
+    /**
+     * 汇总窗口内未过期的桶
+     */
+    Snapshot snapshot(long nowNanos) {
+        long epoch = nowNanos / bucketNanos;
+        long calls = 0;
+        long failures = 0;
+        long slowCalls = 0;
+        for (Bucket bucket : buckets) {
+            if (epoch - bucket.epoch.get() < buckets.length) {
+                calls += bucket.calls.sum();
+                failures += bucket.failures.sum();
+                slowCalls += bucket.slowCalls.sum();
+            }
+        }
+        return new Snapshot(calls, failures, slowCalls);
+    }
+
+    void reset() {
+        for (Bucket bucket : buckets) {
+            bucket.epoch.set(Long.MIN_VALUE);
+            bucket.clear();
+        }
+    }
+
+    private Bucket current(long nowNanos) {
+        long epoch = nowNanos / bucketNanos;
+        Bucket bucket = buckets[(int) Math.floorMod(epoch, (long) buckets.length)];
+        long bucketEpoch = bucket.epoch.get();
+        if (bucketEpoch != epoch && bucket.epoch.compareAndSet(bucketEpoch, epoch)) {
+            bucket.clear();
+        }
+        return bucket;
+    }
+
+    private static final class Bucket {
+        private final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder slowCalls = new LongAdder();
+
+        private void clear() {
+            calls.reset();
+            failures.reset();
+            slowCalls.reset();
+        }
+    }
+
+    static final class Snapshot {
+        final long calls;
+        final long failures;
+        final long slowCalls;
+
+        Snapshot(long calls, long failures, long slowCalls) {
+            this.calls = calls;
+            this.failures = failures;
+            this.slowCalls = slowCalls;
+        }
+
+        int failureRate() {
+            return calls == 0 ? 0 : (int) (failures * 100 / calls);
+        }
+
+        int slowCallRate() {
+            return calls == 0 ? 0 : (int) (slowCalls * 100 / calls);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package cays.httpclient.cache;
+
+import org.apache.http.client.cache.CacheResponseStatus;
+import org.apache.http.client.cache.HttpCacheContext;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 缓存响应状态计数，按CacheResponseStatus分别统计，线程安全
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 16:25
+ **/
+public class CacheStatistics implements CacheStatisticsMXBean {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder validated = new LongAdder();
+    private final LongAdder moduleResponses = new LongAdder();
+
+    /**
+     * 记录一次请求的缓存状态，请求执行完后调用
+     */
+    public void record(HttpCacheContext cacheContext) {
+        record(cacheContext.getCacheResponseStatus());
+    }
+
+    public void record(CacheResponseStatus status) {
+        if (status == null) {
+            return;
+        }
+        switch (status) {
+            case CACHE_HIT:
+                hits.increment();
+                break;
+            case CACHE_MISS:
+                misses.increment();
+                break;
+            case VALIDATED:
+                validated.increment();
+                break;
+            case CACHE_MODULE_RESPONSE:
+                moduleResponses.increment();
+                break;
+            default:break;
+        }
+    }
+
+    /**
+     * 从缓存生成响应，没有向上游发送请求
+     */
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * 响应来自上游服务器
+     */
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 向源服务器验证后从缓存生成响应
+     */
+    @Override
+    public long getValidated() {
+        return validated.sum();
+    }
+
+    /**
+     * 响应由缓存模块直接生成
+     */
+    @Override
+    public long getModuleResponses() {
+        return moduleResponses.sum();
+    }
+
+    /**
+     * 不需要从上游读取响应体的比例，验证通过的请求也算命中
+     */
+    @Override
+    public double getHitRatio() {
+        long hit = getHits() + getValidated();
+        long total = hit + getMisses();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    @Override
+    public String toString() {
+        return "[hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", validated=" + getValidated() +
+                ", moduleResponses=" + getModuleResponses() +
+                "]";
+    }
+}
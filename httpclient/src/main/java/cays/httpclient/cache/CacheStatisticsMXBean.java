@@ -0,0 +1,19 @@
+package cays.httpclient.cache;
+
+/**
+ * 缓存命中统计的JMX接口
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 16:20
+ **/
+public interface CacheStatisticsMXBean {
+    long getHits();
+
+    long getMisses();
+
+    long getValidated();
+
+    long getModuleResponses();
+
+    double getHitRatio();
+}
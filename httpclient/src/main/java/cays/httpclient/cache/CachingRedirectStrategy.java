@@ -0,0 +1,111 @@
+package cays.httpclient.cache;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.ProtocolException;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.impl.client.LaxRedirectStrategy;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * 与LaxRedirectStrategy一样跟随重定向，同时把可以缓存的重定向保存到RedirectCache
+ * <p>
+ * 可以缓存的重定向：GET/HEAD请求的301、308永久重定向，以及通过Cache-Control: max-age或Expires声明了缓存时间的
+ * 302、303、307重定向。Cache-Control为no-store或no-cache时不缓存。
+ * 每个GET/HEAD重定向都计入RedirectCache的未命中数，用来计算命中率。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 14:40
+ **/
+public class CachingRedirectStrategy extends LaxRedirectStrategy {
+    // HttpStatus中没有308
+    private static final int SC_PERMANENT_REDIRECT = 308;
+
+    private final RedirectCache cache;
+
+    public CachingRedirectStrategy(RedirectCache cache) {
+        this.cache = Args.notNull(cache, "Redirect cache");
+    }
+
+    @Override
+    public URI getLocationURI(HttpRequest request, HttpResponse response, HttpContext context)
+            throws ProtocolException {
+        URI location = super.getLocationURI(request, response, context);
+        String method = request.getRequestLine().getMethod();
+        if ("GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method)) {
+            cache.recordMiss();
+            long timeToLive = timeToLive(response);
+            if (timeToLive > 0) {
+                URI requestUri = requestUri(request, context);
+                if (requestUri != null) {
+                    cache.put(requestUri, location, timeToLive);
+                }
+            }
+        }
+        return location;
+    }
+
+    /**
+     * @return 重定向可以缓存的毫秒数，0表示不能缓存
+     */
+    private long timeToLive(HttpResponse response) {
+        int status = response.getStatusLine().getStatusCode();
+        boolean permanent = status == HttpStatus.SC_MOVED_PERMANENTLY || status == SC_PERMANENT_REDIRECT;
+        long explicit = -1;
+        for (Header header : response.getHeaders("Cache-Control")) {
+            for (HeaderElement element : header.getElements()) {
+                String name = element.getName().toLowerCase(Locale.ROOT);
+                if ("no-store".equals(name) || "no-cache".equals(name)) {
+                    return 0;
+                }
+                if ("max-age".equals(name) && element.getValue() != null) {
+                    try {
+                        explicit = Math.max(0, Long.parseLong(element.getValue().trim()) * 1000);
+                    } catch (NumberFormatException e) {
+                        // 忽略无法解析的max-age
+                    }
+                }
+            }
+        }
+        if (explicit < 0) {
+            Header expires = response.getFirstHeader("Expires");
+            Date date = expires != null ? DateUtils.parseDate(expires.getValue()) : null;
+            if (date != null) {
+                explicit = Math.max(0, date.getTime() - System.currentTimeMillis());
+            }
+        }
+        if (explicit >= 0) {
+            return explicit;
+        }
+        return permanent ? cache.getMaxTimeToLive() : 0;
+    }
+
+    private static URI requestUri(HttpRequest request, HttpContext context) {
+        try {
+            URI uri = new URI(request.getRequestLine().getUri());
+            if (uri.isAbsolute()) {
+                return uri;
+            }
+            HttpHost target = HttpClientContext.adapt(context).getTargetHost();
+            return target != null ? URIUtils.rewriteURI(uri, target, URIUtils.DROP_FRAGMENT) : null;
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    public RedirectCache getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,268 @@
+package cays.httpclient.cache;
+
+import cays.httpclient.client.BufferedCloseableResponse;
+import cays.httpclient.client.DelegatingHttpClient;
+import org.apache.http.Header;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.cache.CacheResponseStatus;
+import org.apache.http.client.cache.HttpCacheContext;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 合并并发的相同请求(single-flight)，放在缓存客户端前面，避免缓存未命中时大量请求同时打到源站
+ * <p>
+ * 同一时刻相同的GET/HEAD请求只有第一个(leader)真正执行，响应体读入内存后复制给等待的其他请求。
+ * 请求按方法、完整URI和相关请求头区分，相关请求头包括Accept、Authorization、Cookie等，
+ * 以及源站响应中Vary声明的请求头，源站返回Vary: *的URI不合并。
+ * Vary头按URI记录在有上限的LRU中，超过上限时丢弃最久未请求的URI，之后再按源站响应重新记录。
+ * <p>
+ * 等待的请求使用leader的缓存状态(HttpCacheContext.CACHE_RESPONSE_STATUS)。
+ * 过期响应的后台刷新(stale-while-revalidate)由被包装的缓存客户端负责：CacheConfig设置了asynchronousWorkersMax时，
+ * 源站声明的stale-while-revalidate时间窗口内直接返回过期响应并在后台重新验证，同一条目只验证一次，热点key的调用方不会被阻塞。
+ * 响应体会完整读入内存，只适合包装缓存客户端这类响应体较小的场景。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 18:00
+ **/
+public class CoalescingHttpClient extends DelegatingHttpClient {
+    /**
+     * HttpContext中响应来源的属性名，值为ResponseSource
+     */
+    public static final String RESPONSE_SOURCE = "http.coalescing.response-source";
+
+    private static final String[] DEFAULT_KEY_HEADERS = {
+            "Accept", "Accept-Encoding", "Accept-Language", "Authorization", "Cookie"};
+    private static final String[] VARY_ANY = {"*"};
+    // 与CacheConfig默认的最大缓存条目数相同
+    private static final int DEFAULT_MAX_VARY_ENTRIES = 1000;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Flight>> inFlight = new ConcurrentHashMap<>();
+    // 源站响应中的Vary头，按URI记录，访问和修改都要在varyHeaders上同步
+    private final VaryHeaders varyHeaders;
+
+    private final LongAdder upstreamRequests = new LongAdder();
+    private final LongAdder sharedResponses = new LongAdder();
+
+    /**
+     * @param delegate 被包装的客户端，一般是CachingHttpClients创建的缓存客户端
+     */
+    public CoalescingHttpClient(CloseableHttpClient delegate) {
+        this(delegate, DEFAULT_MAX_VARY_ENTRIES);
+    }
+
+    /**
+     * @param delegate 被包装的客户端
+     * @param maxVaryEntries 最多记录Vary头的URI数
+     */
+    public CoalescingHttpClient(CloseableHttpClient delegate, int maxVaryEntries) {
+        super(delegate);
+        this.varyHeaders = new VaryHeaders(Args.positive(maxVaryEntries, "Max vary entries"));
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context)
+            throws IOException, ClientProtocolException {
+        String method = request.getRequestLine().getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return super.doExecute(target, request, context);
+        }
+        String uri = absoluteUri(target, request);
+        String[] vary;
+        synchronized (varyHeaders) {
+            vary = varyHeaders.get(uri);
+        }
+        if (vary == VARY_ANY) {
+            return super.doExecute(target, request, context);
+        }
+        String key = key(method, uri, request, vary);
+
+        CompletableFuture<Flight> flight = new CompletableFuture<>();
+        CompletableFuture<Flight> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            Flight shared = await(existing);
+            sharedResponses.increment();
+            if (context != null) {
+                context.setAttribute(RESPONSE_SOURCE, ResponseSource.SHARED);
+                context.setAttribute(HttpCacheContext.CACHE_RESPONSE_STATUS, shared.cacheStatus);
+            }
+            return shared.response.copy();
+        }
+        BufferedCloseableResponse response = lead(key, uri, flight, target, request, context);
+        if (context != null) {
+            context.setAttribute(RESPONSE_SOURCE, ResponseSource.UPSTREAM);
+        }
+        return response.copy();
+    }
+
+    /**
+     * leader执行真正的请求，结果和缓存状态通过flight交给等待的请求
+     */
+    private BufferedCloseableResponse lead(String key, String uri, CompletableFuture<Flight> flight,
+                                           HttpHost target, HttpRequest request, HttpContext context)
+            throws IOException {
+        HttpContext localContext = context != null ? context : HttpClientContext.create();
+        try {
+            upstreamRequests.increment();
+            BufferedCloseableResponse response = BufferedCloseableResponse.copyOf(
+                    super.doExecute(target, request, localContext));
+            rememberVary(uri, response);
+            CacheResponseStatus cacheStatus =
+                    (CacheResponseStatus) localContext.getAttribute(HttpCacheContext.CACHE_RESPONSE_STATUS);
+            flight.complete(new Flight(response, cacheStatus));
+            return response;
+        } catch (IOException | RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * 记录源站响应的Vary头，之后的请求按这些请求头区分
+     */
+    private void rememberVary(String uri, BufferedCloseableResponse response) {
+        String[] vary = varyNames(response.getHeaders("Vary"));
+        synchronized (varyHeaders) {
+            if (vary != null) {
+                varyHeaders.put(uri, vary);
+            } else {
+                varyHeaders.remove(uri);
+            }
+        }
+    }
+
+    /**
+     * 解析Vary头中的请求头名称，没有Vary头时返回null
+     */
+    private static String[] varyNames(Header[] vary) {
+        String[] names = Arrays.stream(vary)
+                .flatMap(header -> Arrays.stream(header.getElements()))
+                .map(element -> element.getName().trim())
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+        if (names.length == 0) {
+            return null;
+        }
+        return Arrays.asList(names).contains("*") ? VARY_ANY : names;
+    }
+
+    private static Flight await(CompletableFuture<Flight> flight) throws IOException {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for coalesced request");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static String absoluteUri(HttpHost target, HttpRequest request) {
+        String uri = request.getRequestLine().getUri();
+        if (target == null || uri.startsWith("http://") || uri.startsWith("https://")) {
+            return uri;
+        }
+        return target.toURI() + uri;
+    }
+
+    private static String key(String method, String uri, HttpRequest request, String[] vary) {
+        StringBuilder key = new StringBuilder(method).append(' ').append(uri);
+        appendHeaders(key, request, DEFAULT_KEY_HEADERS);
+        if (vary != null) {
+            appendHeaders(key, request, vary);
+        }
+        return key.toString();
+    }
+
+    private static void appendHeaders(StringBuilder key, HttpRequest request, String[] names) {
+        for (String name : names) {
+            for (Header header : request.getHeaders(name)) {
+                key.append('\n').append(name.toLowerCase(Locale.ROOT)).append(':').append(header.getValue());
+            }
+        }
+    }
+
+    /**
+     * 实际发送到上游的请求数
+     */
+    public long getUpstreamRequests() {
+        return upstreamRequests.sum();
+    }
+
+    /**
+     * 等待并共享其他请求响应的次数
+     */
+    public long getSharedResponses() {
+        return sharedResponses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "[upstream=" + getUpstreamRequests() + ", shared=" + getSharedResponses() + "]";
+    }
+
+    /**
+     * 响应的来源
+     */
+    public enum ResponseSource {
+        // 本次请求发送到了上游(缓存客户端)
+        UPSTREAM,
+        // 共享了同时进行的相同请求的响应
+        SHARED
+    }
+
+    /**
+     * 按访问顺序排列的LRU，超过上限时移除最久未访问的URI
+     */
+    private static final class VaryHeaders extends LinkedHashMap<String, String[]> {
+        private static final long serialVersionUID = 1L;
+        private final int maxEntries;
+
+        private VaryHeaders(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String[]> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    private static final class Flight {
+        private final BufferedCloseableResponse response;
+        // leader的缓存状态，被包装的客户端不是缓存客户端时为null
+        private final CacheResponseStatus cacheStatus;
+
+        private Flight(BufferedCloseableResponse response, CacheResponseStatus cacheStatus) {
+            this.response = response;
+            this.cacheStatus = cacheStatus;
+        }
+    }
+}
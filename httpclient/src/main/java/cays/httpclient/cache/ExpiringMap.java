@@ -0,0 +1,102 @@
+package cays.httpclient.cache;
+
+import org.apache.http.util.Args;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 有数量上限、条目会过期的Map，证书链、DNS和重定向缓存共用
+ * <p>
+ * 内部是按访问顺序排列的LinkedHashMap，超过上限时移除最久没有访问的条目，插入和淘汰都是O(1)，
+ * 不需要在写满后遍历查找最早过期的条目。过期的条目在读取时移除，没有再读取的由淘汰移除。
+ * 时间由调用方传入(System.nanoTime()的值)，测试时可以使用假的时钟。所有操作使用同一个锁。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-20 9:10
+ **/
+public class ExpiringMap<K, V> {
+    private final int maxEntries;
+    private final Entries<K, V> entries;
+
+    /**
+     * @param maxEntries 最多保存的条目数
+     */
+    public ExpiringMap(int maxEntries) {
+        this.maxEntries = Args.positive(maxEntries, "Max entries");
+        this.entries = new Entries<>(maxEntries);
+    }
+
+    /**
+     * @param now 当前时间(纳秒)，与put时的过期时间比较
+     * @return 没有过期的值，没有或已过期时返回null
+     */
+    public synchronized V get(K key, long now) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expires - now <= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * 保存值，已有的值被替换，超过上限时移除最久没有访问的条目
+     * @param expires 过期时间(纳秒)，与get时传入的当前时间比较
+     */
+    public synchronized void put(K key, V value, long expires) {
+        entries.put(key, new Entry<>(Args.notNull(value, "Value"), expires));
+    }
+
+    /**
+     * @return 移除的值，可能已经过期，没有时返回null
+     */
+    public synchronized V remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        return entry != null ? entry.value : null;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * 保存的条目数，包括已过期但还没有移除的
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expires;
+
+        private Entry(V value, long expires) {
+            this.value = value;
+            this.expires = expires;
+        }
+    }
+
+    private static final class Entries<K, V> extends LinkedHashMap<K, Entry<V>> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxEntries;
+
+        private Entries(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
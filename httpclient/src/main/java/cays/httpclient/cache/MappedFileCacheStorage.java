@@ -0,0 +1,507 @@
+package cays.httpclient.cache;
+
+import cays.httpclient.io.ByteBufferInputStream;
+import cays.httpclient.io.ByteBufferPool;
+import cays.httpclient.io.MappedBuffers;
+import org.apache.http.client.cache.HttpCacheEntry;
+import org.apache.http.client.cache.HttpCacheEntrySerializer;
+import org.apache.http.client.cache.HttpCacheStorage;
+import org.apache.http.client.cache.HttpCacheUpdateCallback;
+import org.apache.http.util.Args;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 基于文件的持久化HttpCacheStorage
+ * <p>
+ * 每个缓存条目保存为目录下的一个文件，条目数据在页缓存中，不占用Java堆，进程重启后从目录恢复。
+ * <ul>
+ * <li>读取不加锁，写入先写临时文件再原子替换，读到的总是完整的文件</li>
+ * <li>小文件通过FileChannel按位置读入池化的直接内存缓冲区，超过1MB的文件映射到内存读取，都在反序列化后立即归还或解除映射，
+ * 读取不分配堆内存缓冲区，Windows上被读取过的文件仍然可以替换和删除</li>
+ * <li>写入、删除、更新按key分段加锁，不同key之间互不影响</li>
+ * <li>索引按访问顺序排列，总字节数超过上限时从最久未使用的一端依次淘汰，淘汰到上限的90%，不需要排序</li>
+ * <li>一个目录同时只能被一个实例使用，通过目录下lock文件的FileLock保证，其他进程或实例打开时抛出IOException</li>
+ * <li>close时保存各条目的最近访问时间，下次打开时恢复淘汰顺序；没有正常关闭时以文件修改时间(最后写入时间)代替</li>
+ * </ul>
+ * 条目数、总字节数和淘汰次数可以通过{@link MappedFileCacheStorageMXBean}注册到JMX。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 16:40
+ **/
+public class MappedFileCacheStorage implements HttpCacheStorage, MappedFileCacheStorageMXBean, Closeable {
+    private static final int MAGIC = 0x48434531;
+    private static final String ENTRY_SUFFIX = ".entry";
+    private static final String TMP_SUFFIX = ".tmp";
+    private static final int LOCK_STRIPES = 64;
+    private static final String LOCK_FILE = "lock";
+    private static final String ACCESS_FILE = "access";
+    // 超过这个大小的文件映射到内存读取，不超过的读入同样大小的直接内存缓冲区
+    private static final int MAP_THRESHOLD = 1024 * 1024;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final HttpCacheEntrySerializer serializer;
+    // 按访问顺序排列，最久未访问的在最前面，访问和修改都要在index上同步
+    private final LinkedHashMap<String, EntryMeta> index = new LinkedHashMap<>(16, 0.75f, true);
+    private final ByteBufferPool readBuffers =
+            new ByteBufferPool(MAP_THRESHOLD, Runtime.getRuntime().availableProcessors(), true);
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+    private final FileChannel lockChannel;
+    private final FileLock directoryLock;
+
+    /**
+     * @param directory 缓存目录，不存在时创建，同时只能被一个实例使用
+     * @param maxBytes 缓存文件总字节数上限
+     */
+    public MappedFileCacheStorage(Path directory, long maxBytes) throws IOException {
+        this(directory, maxBytes, new RestrictedCacheEntrySerializer());
+    }
+
+    public MappedFileCacheStorage(Path directory, long maxBytes, HttpCacheEntrySerializer serializer)
+            throws IOException {
+        this.directory = Args.notNull(directory, "Cache directory");
+        this.maxBytes = Args.positive(maxBytes, "Max bytes");
+        this.serializer = Args.notNull(serializer, "Serializer");
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // 同一个进程中的另一个实例
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Cache directory " + directory + " is used by another storage");
+        }
+        this.directoryLock = lock;
+        try {
+            recover();
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 扫描目录恢复索引，删除上次未写完的临时文件。最近访问时间从上次close保存的access文件读取，
+     * 没有记录的条目以文件修改时间代替
+     */
+    private void recover() throws IOException {
+        Map<String, Long> accessTimes = readAccessTimes();
+        List<Map.Entry<String, EntryMeta>> recovered = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TMP_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(ENTRY_SUFFIX)) {
+                    try {
+                        String key = readKey(file);
+                        long size = Files.size(file);
+                        Long lastAccess = accessTimes.get(name);
+                        recovered.add(new AbstractMap.SimpleImmutableEntry<>(key, new EntryMeta(file, size,
+                                lastAccess != null ? lastAccess : Files.getLastModifiedTime(file).toMillis())));
+                        totalBytes.addAndGet(size);
+                    } catch (IOException e) {
+                        // 损坏的文件直接丢弃
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        }
+        // 只在打开时排序一次，按最近访问时间从早到晚放入索引
+        recovered.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+        synchronized (index) {
+            for (Map.Entry<String, EntryMeta> entry : recovered) {
+                index.put(entry.getKey(), entry.getValue());
+            }
+        }
+        evictIfNeeded();
+    }
+
+    /**
+     * 读取并删除上次close保存的最近访问时间，文件不存在或损坏时返回空
+     */
+    private Map<String, Long> readAccessTimes() {
+        Path file = directory.resolve(ACCESS_FILE);
+        Map<String, Long> accessTimes = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                return accessTimes;
+            }
+            for (int count = in.readInt(); count > 0; count--) {
+                String name = in.readUTF();
+                accessTimes.put(name, in.readLong());
+            }
+        } catch (IOException e) {
+            // 没有正常关闭，使用文件修改时间
+            accessTimes.clear();
+        }
+        try {
+            // 本次运行期间访问时间会变化，旧的记录不能在下次异常退出后再用
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // 忽略
+        }
+        return accessTimes;
+    }
+
+    private void writeAccessTimes() throws IOException {
+        Path file = directory.resolve(ACCESS_FILE);
+        Path tmp = directory.resolve(ACCESS_FILE + TMP_SUFFIX);
+        List<EntryMeta> entries;
+        synchronized (index) {
+            entries = new ArrayList<>(index.values());
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(entries.size());
+            for (EntryMeta meta : entries) {
+                out.writeUTF(meta.file.getFileName().toString());
+                out.writeLong(meta.lastAccess);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public HttpCacheEntry getEntry(String key) throws IOException {
+        EntryMeta meta;
+        synchronized (index) {
+            // 访问顺序的LinkedHashMap在get时把条目移到末尾
+            meta = index.get(key);
+        }
+        if (meta == null) {
+            return null;
+        }
+        meta.lastAccess = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(meta.file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= MAP_THRESHOLD) {
+                ByteBuffer buffer = readBuffers.acquire();
+                try {
+                    buffer.limit((int) size);
+                    readFully(channel, buffer, 0);
+                    buffer.flip();
+                    // 反序列化时复制出全部数据，之后缓冲区归还到池中
+                    return readEntry(key, buffer);
+                } finally {
+                    readBuffers.release(buffer);
+                }
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            try {
+                // 反序列化时复制出全部数据，之后不再访问映射
+                return readEntry(key, buffer);
+            } finally {
+                MappedBuffers.unmap(buffer);
+            }
+        } catch (NoSuchFileException e) {
+            // 同时被删除或淘汰
+            return null;
+        }
+    }
+
+    private HttpCacheEntry readEntry(String key, ByteBuffer buffer) throws IOException {
+        String storedKey = readKey(buffer);
+        if (!key.equals(storedKey)) {
+            return null;
+        }
+        return serializer.readFrom(new ByteBufferInputStream(buffer));
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n < 0) {
+                throw new EOFException("Truncated cache entry file");
+            }
+            position += n;
+        }
+    }
+
+    @Override
+    public void putEntry(String key, HttpCacheEntry entry) throws IOException {
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            writeEntry(key, entry);
+        } finally {
+            lock.unlock();
+        }
+        evictIfNeeded();
+    }
+
+    @Override
+    public void removeEntry(String key) throws IOException {
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            deleteEntry(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void updateEntry(String key, HttpCacheUpdateCallback callback) throws IOException {
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            HttpCacheEntry updated = callback.update(getEntry(key));
+            if (updated != null) {
+                writeEntry(key, updated);
+            } else {
+                deleteEntry(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+        evictIfNeeded();
+    }
+
+    private void writeEntry(String key, HttpCacheEntry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(MAGIC);
+        out.writeInt(keyBytes.length);
+        out.write(keyBytes);
+        serializer.writeTo(entry, out);
+        out.flush();
+        if (bytes.size() > maxBytes) {
+            // 单个条目超过上限，不缓存
+            deleteEntry(key);
+            return;
+        }
+        Path file = directory.resolve(fileName(key) + ENTRY_SUFFIX);
+        Path tmp = directory.resolve(fileName(key) + TMP_SUFFIX);
+        Files.write(tmp, bytes.toByteArray());
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        EntryMeta previous;
+        synchronized (index) {
+            previous = index.put(key, new EntryMeta(file, bytes.size(), System.currentTimeMillis()));
+        }
+        totalBytes.addAndGet(bytes.size() - (previous != null ? previous.size : 0));
+    }
+
+    private void deleteEntry(String key) throws IOException {
+        EntryMeta meta;
+        synchronized (index) {
+            meta = index.remove(key);
+        }
+        if (meta != null) {
+            totalBytes.addAndGet(-meta.size);
+            Files.deleteIfExists(meta.file);
+        }
+    }
+
+    /**
+     * 超过上限时从访问顺序的最前面淘汰最久未访问的条目，同一时间只有一个线程执行淘汰
+     */
+    private void evictIfNeeded() throws IOException {
+        if (totalBytes.get() <= maxBytes || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long target = maxBytes / 10 * 9;
+            while (totalBytes.get() > target) {
+                String key;
+                EntryMeta meta;
+                synchronized (index) {
+                    Iterator<Map.Entry<String, EntryMeta>> eldest = index.entrySet().iterator();
+                    if (!eldest.hasNext()) {
+                        break;
+                    }
+                    Map.Entry<String, EntryMeta> entry = eldest.next();
+                    key = entry.getKey();
+                    meta = entry.getValue();
+                }
+                ReentrantLock lock = lockFor(key);
+                lock.lock();
+                try {
+                    // 只淘汰取出的那个版本，期间被重新写入的条目已经移到末尾，保留
+                    boolean removed;
+                    synchronized (index) {
+                        removed = index.remove(key, meta);
+                    }
+                    if (removed) {
+                        totalBytes.addAndGet(-meta.size);
+                        Files.deleteIfExists(meta.file);
+                        evictions.incrementAndGet();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private ReentrantLock lockFor(String key) {
+        return locks[(key.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+
+    /**
+     * 只读取文件头中的key
+     */
+    private static String readKey(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(8);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a cache entry file");
+            }
+            int keyLength = header.getInt();
+            if (keyLength < 0 || keyLength > channel.size() - 8) {
+                throw new IOException("Corrupted cache entry file");
+            }
+            ByteBuffer keyBytes = ByteBuffer.allocate(keyLength);
+            readFully(channel, keyBytes, 8);
+            return new String(keyBytes.array(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String readKey(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a cache entry file");
+        }
+        int keyLength = buffer.getInt();
+        if (keyLength < 0 || keyLength > buffer.remaining()) {
+            throw new IOException("Corrupted cache entry file");
+        }
+        byte[] keyBytes = new byte[keyLength];
+        buffer.get(keyBytes);
+        return new String(keyBytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 缓存key是完整的URI，可能很长且包含非法字符，用SHA-256作为文件名
+     */
+    private static String fileName(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return name.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * 当前缓存的条目数
+     */
+    @Override
+    public int getEntryCount() {
+        synchronized (index) {
+            return index.size();
+        }
+    }
+
+    /**
+     * 当前缓存文件的总字节数
+     */
+    @Override
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+
+    /**
+     * 累计淘汰的条目数
+     */
+    @Override
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * 数据都已经在文件中，关闭时保存最近访问时间，清空内存索引并释放目录锁
+     */
+    @Override
+    public void close() throws IOException {
+        if (!lockChannel.isOpen()) {
+            return;
+        }
+        try {
+            writeAccessTimes();
+        } finally {
+            synchronized (index) {
+                index.clear();
+            }
+            totalBytes.set(0);
+            try {
+                directoryLock.release();
+            } finally {
+                lockChannel.close();
+            }
+        }
+    }
+
+    private static final class EntryMeta {
+        private final Path file;
+        private final long size;
+        private volatile long lastAccess;
+
+        private EntryMeta(Path file, long size, long lastAccess) {
+            this.file = file;
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
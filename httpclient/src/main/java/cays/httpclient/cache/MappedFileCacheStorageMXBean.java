@@ -0,0 +1,17 @@
+package cays.httpclient.cache;
+
+/**
+ * 文件缓存容量和淘汰统计的JMX接口
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 23:10
+ **/
+public interface MappedFileCacheStorageMXBean {
+    int getEntryCount();
+
+    long getTotalBytes();
+
+    long getMaxBytes();
+
+    long getEvictions();
+}
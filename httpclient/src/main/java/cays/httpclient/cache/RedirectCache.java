@@ -0,0 +1,169 @@
+package cays.httpclient.cache;
+
+import org.apache.http.util.Args;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 缓存重定向的目标地址，由CachingRedirectStrategy写入，RedirectCachingHttpClient读取
+ * <p>
+ * 每一跳单独保存，查询时沿着缓存的重定向链一直找到最终地址，多跳的重定向链之后只需要一次请求。
+ * 缓存数量和缓存时间都有上限，超过数量时移除最久没有访问的一跳。
+ * <p>
+ * 命中率按重定向的跳数计算：省去的跳数 / (省去的跳数 + 经过网络跟随的跳数)，没有重定向的普通请求不计入。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 14:35
+ **/
+public class RedirectCache implements RedirectCacheMXBean {
+    // 超过这个跳数认为是循环重定向，交给HttpClient处理
+    private static final int MAX_HOPS = 20;
+
+    private final long maxTimeToLive;
+    private final ExpiringMap<String, URI> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder savedRedirects = new LongAdder();
+
+    /**
+     * @param maxTimeToLive 最长缓存时间(毫秒)，301/308没有声明缓存时间时使用该值
+     * @param maxEntries 最多缓存的重定向数
+     */
+    public RedirectCache(long maxTimeToLive, int maxEntries) {
+        this.maxTimeToLive = Args.positive(maxTimeToLive, "Max time to live");
+        this.entries = new ExpiringMap<>(Args.positive(maxEntries, "Max entries"));
+    }
+
+    /**
+     * 查询uri最终重定向到的地址
+     * @return 最终地址，没有缓存时返回null
+     */
+    public URI lookup(URI uri) {
+        Args.notNull(uri, "URI");
+        long now = System.nanoTime();
+        URI current = uri;
+        int hops = 0;
+        while (hops <= MAX_HOPS) {
+            URI location = entries.get(key(current), now);
+            if (location == null) {
+                break;
+            }
+            current = location;
+            hops++;
+        }
+        if (hops == 0 || hops > MAX_HOPS) {
+            return null;
+        }
+        hits.increment();
+        savedRedirects.add(hops);
+        return current;
+    }
+
+    /**
+     * 保存一跳重定向
+     * @param timeToLive 缓存时间(毫秒)，超过maxTimeToLive时按maxTimeToLive
+     */
+    public void put(URI uri, URI location, long timeToLive) {
+        Args.notNull(uri, "URI");
+        Args.notNull(location, "Location");
+        if (timeToLive <= 0) {
+            return;
+        }
+        long expires = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.min(timeToLive, maxTimeToLive));
+        entries.put(key(uri), location, expires);
+    }
+
+    /**
+     * 记录一次经过网络跟随的重定向，由CachingRedirectStrategy调用
+     */
+    void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * 移除uri的缓存，例如最终地址已经失效
+     */
+    public void invalidate(URI uri) {
+        entries.remove(key(uri));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getMaxTimeToLive() {
+        return maxTimeToLive;
+    }
+
+    /**
+     * 直接使用缓存的最终地址的请求数
+     */
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * 经过网络跟随的重定向数，包括不能缓存和缓存过期的重定向
+     */
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 省去的重定向请求数，命中一条3跳的重定向链算3次
+     */
+    @Override
+    public long getSavedRedirects() {
+        return savedRedirects.sum();
+    }
+
+    /**
+     * 由缓存省去的重定向占全部重定向的比例，按跳数计算
+     */
+    @Override
+    public double getHitRatio() {
+        long saved = getSavedRedirects();
+        long total = saved + getMisses();
+        return total == 0 ? 0 : (double) saved / total;
+    }
+
+    @Override
+    public int getSize() {
+        return entries.size();
+    }
+
+    @Override
+    public String toString() {
+        return "[hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", savedRedirects=" + getSavedRedirects() +
+                ", size=" + getSize() +
+                "]";
+    }
+
+    /**
+     * 去掉片段，规范化路径，主机名不区分大小写
+     */
+    private static String key(URI uri) {
+        URI normalized = uri.normalize();
+        StringBuilder key = new StringBuilder();
+        if (normalized.getScheme() != null) {
+            key.append(normalized.getScheme().toLowerCase(Locale.ROOT)).append("://");
+        }
+        if (normalized.getRawAuthority() != null) {
+            key.append(normalized.getRawAuthority().toLowerCase(Locale.ROOT));
+        }
+        if (normalized.getRawPath() != null) {
+            key.append(normalized.getRawPath());
+        }
+        if (normalized.getRawQuery() != null) {
+            key.append('?').append(normalized.getRawQuery());
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,31 @@
+package cays.httpclient.cache;
+
+/**
+ * 重定向缓存统计的JMX接口
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 14:30
+ **/
+public interface RedirectCacheMXBean {
+    /**
+     * 直接使用缓存的最终地址的请求数
+     */
+    long getHits();
+
+    /**
+     * 经过网络跟随的重定向数
+     */
+    long getMisses();
+
+    /**
+     * 省去的重定向请求数
+     */
+    long getSavedRedirects();
+
+    /**
+     * savedRedirects / (savedRedirects + misses)，没有重定向的请求不计入
+     */
+    double getHitRatio();
+
+    int getSize();
+}
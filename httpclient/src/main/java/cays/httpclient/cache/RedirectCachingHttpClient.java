@@ -0,0 +1,88 @@
+package cays.httpclient.cache;
+
+import cays.httpclient.client.DelegatingHttpClient;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+
+/**
+ * GET/HEAD请求的地址有缓存的重定向时，直接请求最终地址，省去中间的重定向往返
+ * <p>
+ * 被包装的客户端需要使用同一个RedirectCache的CachingRedirectStrategy，重定向才会被缓存：
+ * <pre>
+ * RedirectCache redirectCache = new RedirectCache(3600000, 1000);
+ * CloseableHttpClient client = new RedirectCachingHttpClient(clientFactory.custom()
+ *         .setRedirectStrategy(new CachingRedirectStrategy(redirectCache))
+ *         .build(), redirectCache);
+ * </pre>
+ * 最终地址返回404或410时移除缓存，下一次请求重新跟随重定向。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 14:45
+ **/
+public class RedirectCachingHttpClient extends DelegatingHttpClient {
+    /**
+     * HttpContext中使用了缓存时的属性名，值为直接请求的最终地址(URI)
+     */
+    public static final String CACHED_LOCATION = "http.redirect-cache.location";
+
+    private final RedirectCache cache;
+
+    public RedirectCachingHttpClient(CloseableHttpClient delegate, RedirectCache cache) {
+        super(delegate);
+        this.cache = Args.notNull(cache, "Redirect cache");
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context)
+            throws IOException, ClientProtocolException {
+        String method = request.getRequestLine().getMethod();
+        if (!"GET".equalsIgnoreCase(method) && !"HEAD".equalsIgnoreCase(method)) {
+            return super.doExecute(target, request, context);
+        }
+        URI uri = requestUri(target, request);
+        URI location = uri != null ? cache.lookup(uri) : null;
+        if (location == null) {
+            return super.doExecute(target, request, context);
+        }
+        HttpUriRequest redirected = RequestBuilder.copy(request).setUri(location).build();
+        if (context != null) {
+            context.setAttribute(CACHED_LOCATION, location);
+        }
+        CloseableHttpResponse response = super.doExecute(URIUtils.extractHost(location), redirected, context);
+        int status = response.getStatusLine().getStatusCode();
+        if (status == HttpStatus.SC_NOT_FOUND || status == HttpStatus.SC_GONE) {
+            cache.invalidate(uri);
+        }
+        return response;
+    }
+
+    private static URI requestUri(HttpHost target, HttpRequest request) throws ClientProtocolException {
+        URI uri = request instanceof HttpUriRequest
+                ? ((HttpUriRequest) request).getURI() : URI.create(request.getRequestLine().getUri());
+        if (uri.isAbsolute() || target == null) {
+            return uri.isAbsolute() ? uri : null;
+        }
+        try {
+            return URIUtils.rewriteURI(uri, target, URIUtils.DROP_FRAGMENT);
+        } catch (URISyntaxException e) {
+            throw new ClientProtocolException(e);
+        }
+    }
+
+    public RedirectCache getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,70 @@
+package cays.httpclient.cache;
+
+import org.apache.http.client.cache.HttpCacheEntry;
+import org.apache.http.client.cache.HttpCacheEntrySerializationException;
+import org.apache.http.client.cache.HttpCacheEntrySerializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.util.regex.Pattern;
+
+/**
+ * 只允许反序列化HttpClient、java.util、java.lang类型的缓存条目序列化器
+ * <p>
+ * httpclient-cache 4.5.9自带的DefaultHttpCacheEntrySerializer白名单漏掉了char[]，
+ * 从连接读到的响应头是BufferedHeader，内部用char[]保存，写入后无法再读出来。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 17:20
+ **/
+public class RestrictedCacheEntrySerializer implements HttpCacheEntrySerializer {
+    private static final Pattern[] ALLOWED_CLASSES = {
+            Pattern.compile("^(\\[L)?org\\.apache\\.http\\.(.*)"),
+            Pattern.compile("^(\\[L)?java\\.util\\.(.*)"),
+            Pattern.compile("^(\\[L)?java\\.lang\\.(.*)$"),
+            Pattern.compile("^\\[[BC]$")
+    };
+
+    @Override
+    public void writeTo(HttpCacheEntry entry, OutputStream os) throws IOException {
+        ObjectOutputStream out = new ObjectOutputStream(os);
+        try {
+            out.writeObject(entry);
+        } finally {
+            out.flush();
+        }
+    }
+
+    @Override
+    public HttpCacheEntry readFrom(InputStream is) throws IOException {
+        ObjectInputStream in = new RestrictedObjectInputStream(is);
+        try {
+            return (HttpCacheEntry) in.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new HttpCacheEntrySerializationException("Class not found: " + e.getMessage(), e);
+        }
+    }
+
+    private static class RestrictedObjectInputStream extends ObjectInputStream {
+
+        RestrictedObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            String name = desc.getName();
+            for (Pattern pattern : ALLOWED_CLASSES) {
+                if (pattern.matcher(name).matches()) {
+                    return super.resolveClass(desc);
+                }
+            }
+            throw new InvalidClassException(name, "Class is not allowed in cache entries");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package cays.httpclient.client;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+
+/**
+ * 响应体已读入内存的响应，关闭时不需要释放连接，可以复制给多个调用方
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 17:50
+ **/
+public class BufferedCloseableResponse extends BasicHttpResponse implements CloseableHttpResponse {
+    private final byte[] body;
+
+    private BufferedCloseableResponse(HttpResponse response, byte[] body) {
+        super(response.getStatusLine());
+        setHeaders(response.getAllHeaders());
+        if (response.getLocale() != null) {
+            setLocale(response.getLocale());
+        }
+        this.body = body;
+        HttpEntity entity = response.getEntity();
+        if (entity != null) {
+            ByteArrayEntity bufferedEntity = new ByteArrayEntity(body);
+            bufferedEntity.setContentType(entity.getContentType());
+            bufferedEntity.setContentEncoding(entity.getContentEncoding());
+            setEntity(bufferedEntity);
+        }
+    }
+
+    /**
+     * 读取完整的响应体并关闭原响应，连接归还连接池
+     */
+    public static BufferedCloseableResponse copyOf(CloseableHttpResponse response) throws IOException {
+        try {
+            HttpEntity entity = response.getEntity();
+            byte[] body = entity != null ? EntityUtils.toByteArray(entity) : null;
+            return new BufferedCloseableResponse(response, body != null ? body : new byte[0]);
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * 复制一份独立的响应，共享同一个响应体数组
+     */
+    public BufferedCloseableResponse copy() {
+        return new BufferedCloseableResponse(this, body);
+    }
+
+    /**
+     * 响应体字节数
+     */
+    public int getBodyLength() {
+        return body.length;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * 返回响应头中指定名称的所有值，没有时返回空数组
+     */
+    public String[] getHeaderValues(String name) {
+        Header[] headers = getHeaders(name);
+        String[] values = new String[headers.length];
+        for (int i = 0; i < headers.length; i++) {
+            values[i] = headers[i].getValue();
+        }
+        return values;
+    }
+}
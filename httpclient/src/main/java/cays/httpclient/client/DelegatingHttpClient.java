@@ -0,0 +1,57 @@
+package cays.httpclient.client;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import java.io.IOException;
+
+/**
+ * 包装另一个CloseableHttpClient的基类，子类只需要重写doExecute加入自己的逻辑
+ * <p>
+ * 包装后仍然是CloseableHttpClient，示例中的execute(request, responseHandler)等用法不需要修改，
+ * 多个包装类也可以层层组合。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 17:40
+ **/
+public abstract class DelegatingHttpClient extends CloseableHttpClient {
+    protected final CloseableHttpClient delegate;
+
+    protected DelegatingHttpClient(CloseableHttpClient delegate) {
+        this.delegate = Args.notNull(delegate, "HTTP client");
+    }
+
+    public CloseableHttpClient getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context)
+            throws IOException, ClientProtocolException {
+        return delegate.execute(target, request, context);
+    }
+
+    @Override
+    @Deprecated
+    @SuppressWarnings("deprecation")
+    public org.apache.http.params.HttpParams getParams() {
+        return delegate.getParams();
+    }
+
+    @Override
+    @Deprecated
+    @SuppressWarnings("deprecation")
+    public org.apache.http.conn.ClientConnectionManager getConnectionManager() {
+        return delegate.getConnectionManager();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
@@ -0,0 +1,180 @@
+package cays.httpclient.client;
+
+import cays.httpclient.entity.PercentEncodedFormEntity;
+import org.apache.http.Consts;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.util.Args;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 预先构造好的不可变请求模板，多个线程共用：FormRequestTemplate.custom()...build()
+ * <p>
+ * 请求头、Content-Type和固定的表单字段在build时创建并编码一次，之后每个请求共用同一组Header对象和编码后的字节，
+ * 只对变化的字段值编码。高频提交表单时避免每次创建NameValuePair列表、BasicHeader和UrlEncodedFormEntity。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 16:30
+ **/
+public final class FormRequestTemplate {
+    private final Header[] headers;
+    private final Header contentType;
+    private final Charset charset;
+    private final byte[] prefix;
+    private final byte[][] variables;
+    private final String[] variableNames;
+
+    private FormRequestTemplate(Builder builder) {
+        this.headers = builder.headers.toArray(new Header[0]);
+        this.charset = builder.charset;
+        this.contentType = new BasicHeader(HttpHeaders.CONTENT_TYPE,
+                ContentType.create(ContentType.APPLICATION_FORM_URLENCODED.getMimeType(), charset).toString());
+        this.prefix = builder.fields.toByteArray();
+        this.variableNames = builder.variables.toArray(new String[0]);
+        this.variables = new byte[variableNames.length][];
+        ByteArrayOutputStream name = new ByteArrayOutputStream();
+        for (int i = 0; i < variableNames.length; i++) {
+            name.reset();
+            if (prefix.length > 0 || i > 0) {
+                name.write('&');
+            }
+            Builder.encode(variableNames[i], charset, name);
+            name.write('=');
+            variables[i] = name.toByteArray();
+        }
+    }
+
+    public static Builder custom() {
+        return new Builder();
+    }
+
+    /**
+     * 带模板请求头的GET请求
+     */
+    public HttpGet get(String uri) {
+        return get(URI.create(uri));
+    }
+
+    public HttpGet get(URI uri) {
+        HttpGet get = new HttpGet(uri);
+        get.setHeaders(headers);
+        return get;
+    }
+
+    /**
+     * 提交表单的POST请求
+     * @param values 按addVariable的顺序传入变化字段的值
+     */
+    public HttpPost post(String uri, String... values) {
+        return post(URI.create(uri), values);
+    }
+
+    public HttpPost post(URI uri, String... values) {
+        Args.check(values.length == variables.length, "Expected %s values, got %s", variables.length, values.length);
+        // 实体在发送时才编码，复制一份，调用方之后修改数组不影响已经创建的请求
+        String[] copy = values.clone();
+        for (String value : copy) {
+            Args.notNull(value, "Form value");
+        }
+        HttpPost post = new HttpPost(uri);
+        post.setHeaders(headers);
+        post.setEntity(new PercentEncodedFormEntity(prefix, variables, copy, charset, contentType));
+        return post;
+    }
+
+    /**
+     * 模板的请求头，不包括表单的Content-Type
+     */
+    public Header[] getHeaders() {
+        return headers.clone();
+    }
+
+    public Header getContentType() {
+        return contentType;
+    }
+
+    public String[] getVariableNames() {
+        return variableNames.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "[headers=" + headers.length +
+                ", fields=" + new String(prefix, Consts.ASCII) +
+                ", variables=" + String.join(",", variableNames) +
+                ", charset=" + charset +
+                "]";
+    }
+
+    public static class Builder {
+        private final List<Header> headers = new ArrayList<>();
+        private final ByteArrayOutputStream fields = new ByteArrayOutputStream();
+        private final List<String> variables = new ArrayList<>();
+        private Charset charset = Consts.UTF_8;
+
+        Builder() {
+        }
+
+        public Builder addHeader(String name, String value) {
+            Args.notBlank(name, "Header name");
+            headers.add(new BasicHeader(name, value));
+            return this;
+        }
+
+        /**
+         * 固定的表单字段，build时编码
+         */
+        public Builder addField(String name, String value) {
+            Args.notNull(name, "Field name");
+            Args.notNull(value, "Field value");
+            if (fields.size() > 0) {
+                fields.write('&');
+            }
+            encode(name, charset, fields);
+            fields.write('=');
+            encode(value, charset, fields);
+            return this;
+        }
+
+        /**
+         * 每个请求变化的表单字段，位于固定字段之后，值在post时按添加顺序传入
+         */
+        public Builder addVariable(String name) {
+            variables.add(Args.notNull(name, "Field name"));
+            return this;
+        }
+
+        /**
+         * 表单编码，只支持UTF-8和ISO-8859-1，默认UTF-8；需要在addField之前设置
+         */
+        public Builder setCharset(Charset charset) {
+            Args.check(fields.size() == 0, "Charset must be set before fields are added");
+            Args.check(PercentEncodedFormEntity.isSupported(charset), "Unsupported charset: %s", charset);
+            this.charset = charset;
+            return this;
+        }
+
+        public FormRequestTemplate build() {
+            return new FormRequestTemplate(this);
+        }
+
+        private static void encode(String value, Charset charset, ByteArrayOutputStream out) {
+            try {
+                PercentEncodedFormEntity.encode(value, charset, out);
+            } catch (IOException e) {
+                // ByteArrayOutputStream不会抛出IOException
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
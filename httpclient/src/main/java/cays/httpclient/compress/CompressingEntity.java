@@ -0,0 +1,74 @@
+package cays.httpclient.compress;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.util.Args;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 写出时边写边压缩的请求体，长度未知，使用chunked编码发送
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 11:35
+ **/
+public class CompressingEntity extends HttpEntityWrapper {
+    private final CompressionCodec codec;
+    private final RouteCompressionStatistics statistics;
+
+    public CompressingEntity(HttpEntity entity, CompressionCodec codec) {
+        this(entity, codec, null);
+    }
+
+    /**
+     * @param statistics 记录压缩前后的字节数和耗时，为null时不记录
+     */
+    public CompressingEntity(HttpEntity entity, CompressionCodec codec, RouteCompressionStatistics statistics) {
+        super(entity);
+        this.codec = Args.notNull(codec, "Compression codec");
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Header getContentEncoding() {
+        return new BasicHeader(HttpHeaders.CONTENT_ENCODING, codec.getEncoding());
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public boolean isChunked() {
+        return true;
+    }
+
+    @Override
+    public InputStream getContent() {
+        throw new UnsupportedOperationException("Compressed content is only available through writeTo");
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        Args.notNull(out, "Output stream");
+        // wire统计压缩后写到连接的字节数和网络写入时间，raw统计压缩前的字节数和包含压缩在内的总时间
+        MeteredOutputStream wire = new MeteredOutputStream(out, false);
+        long start = System.nanoTime();
+        MeteredOutputStream raw = new MeteredOutputStream(codec.compress(wire), true);
+        long setup = System.nanoTime() - start;
+        try {
+            wrappedEntity.writeTo(raw);
+        } finally {
+            raw.close();
+        }
+        if (statistics != null) {
+            statistics.recordRequest(raw.getBytes(), wire.getBytes(), setup + raw.getNanos() - wire.getNanos());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package cays.httpclient.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 一种Content-Encoding的压缩和解压实现
+ * <p>
+ * 内置gzip和deflate，zstd、br等可以包装对应的库(例如zstd-jni、brotli4j)实现该接口，
+ * 再通过CompressionConfig.Builder#addCodec注册。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 11:00
+ **/
+public interface CompressionCodec {
+    /**
+     * Content-Encoding和Accept-Encoding中的名称，小写，例如gzip
+     */
+    String getEncoding();
+
+    /**
+     * 包装输出流，关闭返回的流时写完压缩数据，不能关闭传入的out
+     */
+    OutputStream compress(OutputStream out) throws IOException;
+
+    /**
+     * 包装输入流，边读边解压
+     */
+    InputStream decompress(InputStream in) throws IOException;
+}
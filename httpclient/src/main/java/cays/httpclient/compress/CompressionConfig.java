@@ -0,0 +1,134 @@
+package cays.httpclient.compress;
+
+import org.apache.http.util.Args;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 压缩配置，使用方式与PoolConfig一致：CompressionConfig.custom()...build()
+ * <p>
+ * 响应默认接受gzip和deflate，请求体压缩需要通过setRequestEncoding开启，服务端要能处理压缩的请求体。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 11:45
+ **/
+public final class CompressionConfig {
+    public static final CompressionConfig DEFAULT = custom().build();
+
+    private final String requestEncoding;
+    private final int minRequestSize;
+    private final int level;
+    private final int maxIdleDeflaters;
+    private final Map<String, CompressionCodec> codecs;
+
+    private CompressionConfig(Builder builder) {
+        this.requestEncoding = builder.requestEncoding;
+        this.minRequestSize = builder.minRequestSize;
+        this.level = builder.level;
+        this.maxIdleDeflaters = builder.maxIdleDeflaters;
+        Map<String, CompressionCodec> codecs = new LinkedHashMap<>(builder.codecs);
+        codecs.putIfAbsent("gzip", new GzipCodec(level, maxIdleDeflaters));
+        codecs.putIfAbsent("deflate", new DeflateCodec(level, maxIdleDeflaters));
+        this.codecs = Collections.unmodifiableMap(codecs);
+        Args.check(requestEncoding == null || codecs.containsKey(requestEncoding),
+                "No codec registered for request encoding " + requestEncoding);
+    }
+
+    public static Builder custom() {
+        return new Builder();
+    }
+
+    /**
+     * 请求体使用的编码，为null时不压缩请求体
+     */
+    public String getRequestEncoding() {
+        return requestEncoding;
+    }
+
+    /**
+     * 长度已知且小于该值(字节)的请求体不压缩，长度未知的总是压缩
+     */
+    public int getMinRequestSize() {
+        return minRequestSize;
+    }
+
+    /**
+     * 内置gzip和deflate的压缩级别
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * 每种编码最多保留的空闲Deflater数量
+     */
+    public int getMaxIdleDeflaters() {
+        return maxIdleDeflaters;
+    }
+
+    /**
+     * 支持的编码，key为编码名称，按Accept-Encoding中的顺序排列
+     */
+    public Map<String, CompressionCodec> getCodecs() {
+        return codecs;
+    }
+
+    @Override
+    public String toString() {
+        return "[requestEncoding=" + requestEncoding +
+                ", minRequestSize=" + minRequestSize +
+                ", level=" + level +
+                ", maxIdleDeflaters=" + maxIdleDeflaters +
+                ", codecs=" + codecs.keySet() +
+                "]";
+    }
+
+    public static class Builder {
+        private String requestEncoding;
+        private int minRequestSize = 1024;
+        // 对JSON这类文本，级别1的压缩比与默认级别6相差不多，CPU开销小很多
+        private int level = 1;
+        private int maxIdleDeflaters = Runtime.getRuntime().availableProcessors() * 2;
+        private final Map<String, CompressionCodec> codecs = new LinkedHashMap<>();
+
+        Builder() {
+        }
+
+        public Builder setRequestEncoding(String requestEncoding) {
+            this.requestEncoding = requestEncoding == null ? null : requestEncoding.toLowerCase(Locale.ROOT);
+            return this;
+        }
+
+        public Builder setMinRequestSize(int minRequestSize) {
+            this.minRequestSize = Args.notNegative(minRequestSize, "Min request size");
+            return this;
+        }
+
+        public Builder setLevel(int level) {
+            Args.check(level >= 0 && level <= 9, "Compression level must be between 0 and 9");
+            this.level = level;
+            return this;
+        }
+
+        public Builder setMaxIdleDeflaters(int maxIdleDeflaters) {
+            this.maxIdleDeflaters = Args.positive(maxIdleDeflaters, "Max idle deflaters");
+            return this;
+        }
+
+        /**
+         * 注册编码，例如zstd、br，与内置编码同名时替换内置的实现
+         */
+        public Builder addCodec(CompressionCodec codec) {
+            Args.notNull(codec, "Compression codec");
+            codecs.put(codec.getEncoding().toLowerCase(Locale.ROOT), codec);
+            return this;
+        }
+
+        public CompressionConfig build() {
+            return new CompressionConfig(this);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package cays.httpclient.compress;
+
+import org.apache.http.HttpHost;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按路由统计的压缩指标，可以通过PrometheusExporter导出
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 11:30
+ **/
+public class CompressionStatistics {
+    private final ConcurrentHashMap<HttpHost, RouteCompressionStatistics> routes = new ConcurrentHashMap<>();
+
+    /**
+     * 返回路由的统计，第一次访问时创建
+     */
+    public RouteCompressionStatistics forRoute(HttpHost target) {
+        RouteCompressionStatistics route = routes.get(target);
+        return route != null ? route : routes.computeIfAbsent(target, RouteCompressionStatistics::new);
+    }
+
+    public Collection<RouteCompressionStatistics> getRoutes() {
+        return Collections.unmodifiableCollection(routes.values());
+    }
+
+    @Override
+    public String toString() {
+        return routes.values().toString();
+    }
+}
@@ -0,0 +1,133 @@
+package cays.httpclient.compress;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import java.util.Locale;
+
+/**
+ * 请求体压缩和响应流式解压，替换HttpClient自带的ResponseContentEncoding
+ * <p>
+ * 自带的实现每个请求新建Inflater/Deflater且不统计。这里gzip和deflate的压缩使用池化的Deflater，
+ * 响应在读取时边读边解压，流式的ResponseHandler读到的就是解压后的数据。zstd、br等编码可以通过
+ * {@link CompressionConfig.Builder#addCodec}接入，Accept-Encoding按注册的编码生成。
+ * <pre>
+ * ContentCompression compression = new ContentCompression(CompressionConfig.custom()
+ *         .setRequestEncoding("gzip").build());
+ * CloseableHttpClient client = compression.configure(clientFactory.custom()).build();
+ * </pre>
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 11:50
+ **/
+public class ContentCompression implements HttpRequestInterceptor, HttpResponseInterceptor {
+    private final CompressionConfig config;
+    private final CompressionCodec requestCodec;
+    private final String acceptEncoding;
+    private final CompressionStatistics statistics = new CompressionStatistics();
+
+    public ContentCompression() {
+        this(CompressionConfig.DEFAULT);
+    }
+
+    public ContentCompression(CompressionConfig config) {
+        this.config = Args.notNull(config, "Compression config");
+        this.requestCodec = config.getRequestEncoding() != null
+                ? config.getCodecs().get(config.getRequestEncoding()) : null;
+        this.acceptEncoding = String.join(", ", config.getCodecs().keySet());
+    }
+
+    /**
+     * 关闭自带的解压，请求拦截器放在最前面，在设置Content-Length之前替换请求体
+     */
+    public <B extends HttpClientBuilder> B configure(B builder) {
+        builder.disableContentCompression()
+                .addInterceptorFirst((HttpRequestInterceptor) this)
+                .addInterceptorLast((HttpResponseInterceptor) this);
+        return builder;
+    }
+
+    @Override
+    public void process(HttpRequest request, HttpContext context) {
+        if (!request.containsHeader(HttpHeaders.ACCEPT_ENCODING)) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (requestCodec == null || !(request instanceof HttpEntityEnclosingRequest)
+                || request.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            return;
+        }
+        HttpEntityEnclosingRequest enclosingRequest = (HttpEntityEnclosingRequest) request;
+        HttpEntity entity = enclosingRequest.getEntity();
+        // 已经编码过的请求体不再压缩，重试时拦截器会再执行一次
+        if (entity == null || entity.getContentEncoding() != null) {
+            return;
+        }
+        long length = entity.getContentLength();
+        if (length >= 0 && length < config.getMinRequestSize()) {
+            return;
+        }
+        enclosingRequest.setEntity(new CompressingEntity(entity, requestCodec, routeOf(context)));
+    }
+
+    @Override
+    public void process(HttpResponse response, HttpContext context) {
+        HttpEntity entity = response.getEntity();
+        if (entity == null || entity.getContentLength() == 0) {
+            return;
+        }
+        Header contentEncoding = entity.getContentEncoding();
+        if (contentEncoding == null) {
+            return;
+        }
+        HeaderElement[] elements = contentEncoding.getElements();
+        // 多个编码按应用的顺序列出，解码时从最后一个开始；有不支持的编码时保持原样
+        CompressionCodec[] codecs = new CompressionCodec[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            String encoding = elements[i].getName().toLowerCase(Locale.ROOT);
+            if (!"identity".equals(encoding)) {
+                codecs[i] = config.getCodecs().get(encoding);
+                if (codecs[i] == null) {
+                    return;
+                }
+            }
+        }
+        RouteCompressionStatistics route = routeOf(context);
+        for (int i = codecs.length - 1; i >= 0; i--) {
+            if (codecs[i] != null) {
+                entity = new DecompressingEntity(entity, codecs[i], route);
+            }
+        }
+        response.setEntity(entity);
+        response.removeHeaders(HttpHeaders.CONTENT_LENGTH);
+        response.removeHeaders(HttpHeaders.CONTENT_ENCODING);
+        response.removeHeaders(HttpHeaders.CONTENT_MD5);
+    }
+
+    private RouteCompressionStatistics routeOf(HttpContext context) {
+        Object route = context.getAttribute(HttpClientContext.HTTP_ROUTE);
+        return route instanceof HttpRoute ? statistics.forRoute(((HttpRoute) route).getTargetHost()) : null;
+    }
+
+    public CompressionConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * 按路由统计的压缩比和压缩、解压的CPU耗时
+     */
+    public CompressionStatistics getStatistics() {
+        return statistics;
+    }
+}
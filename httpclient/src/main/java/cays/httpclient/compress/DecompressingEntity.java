@@ -0,0 +1,99 @@
+package cays.httpclient.compress;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.util.Args;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 边读边解压的响应体，不会把压缩或解压后的完整内容读入内存，流式的ResponseHandler直接读取解压后的数据
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 11:40
+ **/
+public class DecompressingEntity extends HttpEntityWrapper {
+    private final CompressionCodec codec;
+    private final RouteCompressionStatistics statistics;
+    private InputStream content;
+
+    /**
+     * @param statistics 记录解压前后的字节数和耗时，为null时不记录
+     */
+    public DecompressingEntity(HttpEntity entity, CompressionCodec codec, RouteCompressionStatistics statistics) {
+        super(entity);
+        this.codec = Args.notNull(codec, "Compression codec");
+        this.statistics = statistics;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        if (wrappedEntity.isStreaming()) {
+            // 流式的响应体只能读一次，多次调用返回同一个流
+            if (content == null) {
+                content = decode();
+            }
+            return content;
+        }
+        return decode();
+    }
+
+    private InputStream decode() throws IOException {
+        MeteredInputStream wire = new MeteredInputStream(wrappedEntity.getContent());
+        long start = System.nanoTime();
+        // gzip在创建时就会读取头部
+        InputStream decoder = codec.decompress(wire);
+        DecodedInputStream decoded = new DecodedInputStream(decoder, wire);
+        decoded.addNanos(System.nanoTime() - start);
+        return decoded;
+    }
+
+    @Override
+    public Header getContentEncoding() {
+        return null;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        Args.notNull(out, "Output stream");
+        try (InputStream in = getContent()) {
+            byte[] buffer = new byte[8192];
+            for (int n; (n = in.read(buffer)) != -1; ) {
+                out.write(buffer, 0, n);
+            }
+        }
+    }
+
+    /**
+     * 关闭时记录解压前后的字节数，解压耗时为读取解压数据的总时间减去读取网络数据的时间
+     */
+    private final class DecodedInputStream extends MeteredInputStream {
+        private final MeteredInputStream wire;
+        private boolean recorded;
+
+        private DecodedInputStream(InputStream decoder, MeteredInputStream wire) {
+            super(decoder);
+            this.wire = wire;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!recorded && statistics != null) {
+                    recorded = true;
+                    statistics.recordResponse(wire.getBytes(), getBytes(), getNanos() - wire.getNanos());
+                }
+            }
+        }
+    }
+}
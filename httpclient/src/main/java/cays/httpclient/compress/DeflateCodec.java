@@ -0,0 +1,46 @@
+package cays.httpclient.compress;
+
+import org.apache.http.client.entity.DeflateInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * deflate编码(zlib格式)，压缩使用池化的Deflater
+ * <p>
+ * 有些服务端的deflate响应不带zlib头，解压使用HttpClient的DeflateInputStream，两种格式都能处理。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 11:15
+ **/
+public class DeflateCodec implements CompressionCodec {
+    private final DeflaterPool deflaterPool;
+
+    /**
+     * @param level 压缩级别
+     * @param maxIdleDeflaters 最多保留的空闲Deflater数量
+     */
+    public DeflateCodec(int level, int maxIdleDeflaters) {
+        this.deflaterPool = new DeflaterPool(level, false, maxIdleDeflaters);
+    }
+
+    @Override
+    public String getEncoding() {
+        return "deflate";
+    }
+
+    @Override
+    public OutputStream compress(OutputStream out) {
+        return new PooledDeflaterOutputStream(out, deflaterPool);
+    }
+
+    @Override
+    public InputStream decompress(InputStream in) throws IOException {
+        return new DeflateInputStream(in);
+    }
+
+    public DeflaterPool getDeflaterPool() {
+        return deflaterPool;
+    }
+}
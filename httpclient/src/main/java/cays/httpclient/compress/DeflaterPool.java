@@ -0,0 +1,56 @@
+package cays.httpclient.compress;
+
+import org.apache.http.util.Args;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Deflater对象池
+ * <p>
+ * 每个Deflater都持有本地内存(zlib的压缩窗口和哈希表，默认级别下约256KB)，
+ * 每个请求新建再依赖finalize或end()释放开销较大。归还时reset()后复用，超过池大小的直接end()释放。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 11:05
+ **/
+public final class DeflaterPool {
+    private final int level;
+    private final boolean nowrap;
+    private final ArrayBlockingQueue<Deflater> idle;
+
+    /**
+     * @param level 压缩级别，0~9或Deflater.DEFAULT_COMPRESSION
+     * @param nowrap true时输出不带zlib头尾的原始deflate数据，用于gzip
+     * @param maxIdle 最多保留的空闲Deflater数量
+     */
+    public DeflaterPool(int level, boolean nowrap, int maxIdle) {
+        Args.check(level == Deflater.DEFAULT_COMPRESSION || (level >= 0 && level <= 9), "Invalid compression level");
+        this.level = level;
+        this.nowrap = nowrap;
+        this.idle = new ArrayBlockingQueue<>(Args.positive(maxIdle, "Max idle"));
+    }
+
+    public Deflater acquire() {
+        Deflater deflater = idle.poll();
+        return deflater != null ? deflater : new Deflater(level, nowrap);
+    }
+
+    public void release(Deflater deflater) {
+        deflater.reset();
+        if (!idle.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * 当前空闲的Deflater数量
+     */
+    public int getIdle() {
+        return idle.size();
+    }
+}
@@ -0,0 +1,43 @@
+package cays.httpclient.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * gzip编码，压缩使用池化的Deflater
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 11:15
+ **/
+public class GzipCodec implements CompressionCodec {
+    private final DeflaterPool deflaterPool;
+
+    /**
+     * @param level 压缩级别
+     * @param maxIdleDeflaters 最多保留的空闲Deflater数量
+     */
+    public GzipCodec(int level, int maxIdleDeflaters) {
+        this.deflaterPool = new DeflaterPool(level, true, maxIdleDeflaters);
+    }
+
+    @Override
+    public String getEncoding() {
+        return "gzip";
+    }
+
+    @Override
+    public OutputStream compress(OutputStream out) throws IOException {
+        return new PooledGzipOutputStream(out, deflaterPool);
+    }
+
+    @Override
+    public InputStream decompress(InputStream in) throws IOException {
+        return new GZIPInputStream(in, 8192);
+    }
+
+    public DeflaterPool getDeflaterPool() {
+        return deflaterPool;
+    }
+}
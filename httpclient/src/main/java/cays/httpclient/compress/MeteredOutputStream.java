@@ -0,0 +1,70 @@
+package cays.httpclient.compress;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 统计写入的字节数和花在写入上的时间
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 11:20
+ **/
+final class MeteredOutputStream extends FilterOutputStream {
+    private final boolean closeDelegate;
+    private long bytes;
+    private long nanos;
+
+    /**
+     * @param closeDelegate 关闭时是否关闭下层的流，连接的输出流不能由entity关闭
+     */
+    MeteredOutputStream(OutputStream out, boolean closeDelegate) {
+        super(out);
+        this.closeDelegate = closeDelegate;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        long start = System.nanoTime();
+        out.write(b);
+        nanos += System.nanoTime() - start;
+        bytes++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        long start = System.nanoTime();
+        out.write(b, off, len);
+        nanos += System.nanoTime() - start;
+        bytes += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        long start = System.nanoTime();
+        out.flush();
+        nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public void close() throws IOException {
+        long start = System.nanoTime();
+        try {
+            if (closeDelegate) {
+                out.close();
+            } else {
+                out.flush();
+            }
+        } finally {
+            nanos += System.nanoTime() - start;
+        }
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+
+    long getNanos() {
+        return nanos;
+    }
+}
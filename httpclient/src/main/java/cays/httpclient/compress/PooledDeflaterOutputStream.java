@@ -0,0 +1,35 @@
+package cays.httpclient.compress;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * 使用池中Deflater的DeflaterOutputStream，关闭时写完压缩数据并归还Deflater，不关闭下层的流
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 11:10
+ **/
+class PooledDeflaterOutputStream extends DeflaterOutputStream {
+    private final DeflaterPool pool;
+    private boolean released;
+
+    PooledDeflaterOutputStream(OutputStream out, DeflaterPool pool) {
+        super(out, pool.acquire(), 8192);
+        this.pool = pool;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (released) {
+            return;
+        }
+        try {
+            finish();
+            out.flush();
+        } finally {
+            released = true;
+            pool.release(def);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package cays.httpclient.compress;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+
+/**
+ * gzip格式的输出流，GZIPOutputStream不能传入Deflater，这里自己写gzip头尾，中间的deflate数据使用池中的Deflater
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 11:10
+ **/
+final class PooledGzipOutputStream extends PooledDeflaterOutputStream {
+    // 魔数、压缩方法deflate、无标志、无修改时间、无额外标志、操作系统未知
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final CRC32 crc = new CRC32();
+    private boolean trailerWritten;
+
+    PooledGzipOutputStream(OutputStream out, DeflaterPool pool) throws IOException {
+        super(out, pool);
+        out.write(HEADER);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        super.write(b, off, len);
+        crc.update(b, off, len);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (trailerWritten) {
+            return;
+        }
+        super.finish();
+        // CRC32和原始长度，都是小端序
+        byte[] trailer = new byte[8];
+        writeInt((int) crc.getValue(), trailer, 0);
+        writeInt((int) def.getBytesRead(), trailer, 4);
+        out.write(trailer);
+        trailerWritten = true;
+    }
+
+    private static void writeInt(int value, byte[] buffer, int offset) {
+        buffer[offset] = (byte) value;
+        buffer[offset + 1] = (byte) (value >> 8);
+        buffer[offset + 2] = (byte) (value >> 16);
+        buffer[offset + 3] = (byte) (value >> 24);
+    }
+}
@@ -0,0 +1,117 @@
+package cays.httpclient.compress;
+
+import org.apache.http.HttpHost;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个路由(目标主机)的压缩统计
+ * <p>
+ * 压缩比为原始字节数/传输字节数。耗时只包含压缩和解压本身，不包含生成请求体和网络读写，
+ * 用来估算开启压缩增加的CPU开销。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 11:25
+ **/
+public class RouteCompressionStatistics implements RouteCompressionStatisticsMXBean {
+    private final HttpHost target;
+    private final LongAdder compressedRequests = new LongAdder();
+    private final LongAdder requestRawBytes = new LongAdder();
+    private final LongAdder requestEncodedBytes = new LongAdder();
+    private final LongAdder compressionNanos = new LongAdder();
+    private final LongAdder decompressedResponses = new LongAdder();
+    private final LongAdder responseEncodedBytes = new LongAdder();
+    private final LongAdder responseDecodedBytes = new LongAdder();
+    private final LongAdder decompressionNanos = new LongAdder();
+
+    RouteCompressionStatistics(HttpHost target) {
+        this.target = target;
+    }
+
+    void recordRequest(long rawBytes, long encodedBytes, long nanos) {
+        compressedRequests.increment();
+        requestRawBytes.add(rawBytes);
+        requestEncodedBytes.add(encodedBytes);
+        compressionNanos.add(Math.max(0, nanos));
+    }
+
+    void recordResponse(long encodedBytes, long decodedBytes, long nanos) {
+        decompressedResponses.increment();
+        responseEncodedBytes.add(encodedBytes);
+        responseDecodedBytes.add(decodedBytes);
+        decompressionNanos.add(Math.max(0, nanos));
+    }
+
+    public HttpHost getHost() {
+        return target;
+    }
+
+    @Override
+    public String getTarget() {
+        return target.toURI();
+    }
+
+    @Override
+    public long getCompressedRequests() {
+        return compressedRequests.sum();
+    }
+
+    @Override
+    public long getRequestRawBytes() {
+        return requestRawBytes.sum();
+    }
+
+    @Override
+    public long getRequestEncodedBytes() {
+        return requestEncodedBytes.sum();
+    }
+
+    @Override
+    public double getRequestCompressionRatio() {
+        return ratio(getRequestRawBytes(), getRequestEncodedBytes());
+    }
+
+    @Override
+    public double getCompressionCpuMillis() {
+        return compressionNanos.sum() / 1000000.0;
+    }
+
+    @Override
+    public long getDecompressedResponses() {
+        return decompressedResponses.sum();
+    }
+
+    @Override
+    public long getResponseEncodedBytes() {
+        return responseEncodedBytes.sum();
+    }
+
+    @Override
+    public long getResponseDecodedBytes() {
+        return responseDecodedBytes.sum();
+    }
+
+    @Override
+    public double getResponseCompressionRatio() {
+        return ratio(getResponseDecodedBytes(), getResponseEncodedBytes());
+    }
+
+    @Override
+    public double getDecompressionCpuMillis() {
+        return decompressionNanos.sum() / 1000000.0;
+    }
+
+    private static double ratio(long raw, long encoded) {
+        return encoded == 0 ? 0 : (double) raw / encoded;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[target=%s, requests=%d, request %d->%d bytes (%.2fx, %.2fms), "
+                        + "responses=%d, response %d->%d bytes (%.2fx, %.2fms)]",
+                getTarget(), getCompressedRequests(), getRequestRawBytes(), getRequestEncodedBytes(),
+                getRequestCompressionRatio(), getCompressionCpuMillis(), getDecompressedResponses(),
+                getResponseEncodedBytes(), getResponseDecodedBytes(), getResponseCompressionRatio(),
+                getDecompressionCpuMillis());
+    }
+}
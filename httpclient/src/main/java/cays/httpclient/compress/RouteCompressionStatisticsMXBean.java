@@ -0,0 +1,31 @@
+package cays.httpclient.compress;
+
+/**
+ * 单个路由压缩统计的JMX接口
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 11:25
+ **/
+public interface RouteCompressionStatisticsMXBean {
+    String getTarget();
+
+    long getCompressedRequests();
+
+    long getRequestRawBytes();
+
+    long getRequestEncodedBytes();
+
+    double getRequestCompressionRatio();
+
+    double getCompressionCpuMillis();
+
+    long getDecompressedResponses();
+
+    long getResponseEncodedBytes();
+
+    long getResponseDecodedBytes();
+
+    double getResponseCompressionRatio();
+
+    double getDecompressionCpuMillis();
+}
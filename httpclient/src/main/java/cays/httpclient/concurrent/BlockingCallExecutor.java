@@ -0,0 +1,121 @@
+package cays.httpclient.concurrent;
+
+import cays.httpclient.pool.PoolConfig;
+import cays.httpclient.pool.PooledHttpClientFactory;
+import org.apache.http.util.Args;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在线程池(默认虚拟线程)上执行阻塞的HttpClient调用
+ * <p>
+ * 虚拟线程几乎没有数量限制，但连接池的连接是有限的。大量线程同时向连接池申请连接时，
+ * 超过connectionRequestTimeout会抛出ConnectionPoolTimeoutException。
+ * 这里用与连接池大小相同的信号量控制同时执行的调用数量，多余的线程在信号量上等待，
+ * 拿到许可后连接池一定有可用连接。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 11:25
+ **/
+public class BlockingCallExecutor implements AutoCloseable {
+    private final ExecutorService executorService;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    /**
+     * @param executorService 执行调用的线程池
+     * @param maxConcurrency 同时执行的最大调用数，应不超过连接池每个路由的最大连接数
+     */
+    public BlockingCallExecutor(ExecutorService executorService, int maxConcurrency) {
+        this.executorService = Args.notNull(executorService, "Executor service");
+        this.maxConcurrency = Args.positive(maxConcurrency, "Max concurrency");
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * 使用虚拟线程，并发数与连接池每个路由的最大连接数一致
+     * @param clientFactory 调用使用的连接池
+     */
+    public static BlockingCallExecutor ofVirtualThreads(PooledHttpClientFactory clientFactory) {
+        PoolConfig config = clientFactory.getConfig();
+        int maxConcurrency = Math.min(config.getMaxTotal(), config.getDefaultMaxPerRoute());
+        return new BlockingCallExecutor(VirtualThreads.newVirtualThreadPerTaskExecutor(), maxConcurrency);
+    }
+
+    /**
+     * 为指定并发数创建连接池配置，总连接数和每个路由的连接数都等于并发数
+     */
+    public static PoolConfig poolConfigFor(int maxConcurrency) {
+        return PoolConfig.custom()
+                .setMaxTotal(maxConcurrency)
+                .setDefaultMaxPerRoute(maxConcurrency)
+                .build();
+    }
+
+    /**
+     * 异步执行阻塞调用
+     * @param call 阻塞调用，例如 () -> example.getMethod(url)
+     */
+    public CompletableFuture<Void> execute(Runnable call) {
+        Args.notNull(call, "Call");
+        return submit(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * 异步执行有返回值的阻塞调用
+     * @param call 阻塞调用
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> call) {
+        Args.notNull(call, "Call");
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executorService.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(e);
+                return;
+            }
+            try {
+                result.complete(call.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                permits.release();
+            }
+        });
+        return result;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * 正在执行的调用数
+     */
+    public int getActive() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * 等待已提交的调用完成后关闭线程池，等待时被中断则立即停止，并保留中断状态
+     */
+    @Override
+    public void close() {
+        executorService.shutdown();
+        try {
+            executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
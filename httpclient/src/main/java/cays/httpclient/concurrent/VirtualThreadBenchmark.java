@@ -0,0 +1,110 @@
+package cays.httpclient.concurrent;
+
+import cays.httpclient.handler.ResponseHandlers;
+import cays.httpclient.pool.PooledHttpClientFactory;
+import cays.httpclient.server.ExampleServer;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 虚拟线程与平台线程池执行阻塞请求的吞吐量和p99延迟对比
+ * <p>
+ * 用法：VirtualThreadBenchmark [url] [请求数] [平台线程并发数] [虚拟线程并发数]，
+ * 不指定url时请求内置本地服务的/delay/1，每个请求阻塞调用线程约1秒。
+ * 平台线程受内存和调度开销限制，线程池通常只有几百个线程；虚拟线程阻塞时不占用平台线程，
+ * 默认以10倍的并发数(连接池同样放大)执行，吞吐量随并发数增长。延迟从提交任务开始计算，包含排队时间。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 11:40
+ **/
+public class VirtualThreadBenchmark {
+    private static final ResponseHandler<String> RESPONSE_HANDLER = ResponseHandlers.toStringHandler();
+
+    private final String url;
+    private final int requests;
+
+    public VirtualThreadBenchmark(String url, int requests) {
+        this.url = url;
+        this.requests = requests;
+    }
+
+    /**
+     * 执行一轮测试并打印结果
+     * @param name 测试名称
+     * @param executor 执行请求的线程池
+     * @param concurrency 同时执行的请求数，也是连接池大小
+     */
+    public void run(String name, ExecutorService executor, int concurrency) {
+        BlockingCallExecutor callExecutor = new BlockingCallExecutor(executor, concurrency);
+        try (PooledHttpClientFactory clientFactory =
+                     new PooledHttpClientFactory(BlockingCallExecutor.poolConfigFor(concurrency))) {
+            CloseableHttpClient httpClient = clientFactory.createClient();
+            // 预热，建立连接
+            runRound(callExecutor, httpClient, Math.min(requests, concurrency), new long[requests]);
+            long[] latencies = new long[requests];
+            long start = System.nanoTime();
+            int errors = runRound(callExecutor, httpClient, requests, latencies);
+            long elapsed = System.nanoTime() - start;
+            Arrays.sort(latencies);
+            System.out.println("=================================================================");
+            System.out.printf("%s: requests=%d, concurrency=%d, errors=%d%n", name, requests, concurrency, errors);
+            System.out.printf("throughput: %.1f req/s%n", requests * 1e9 / elapsed);
+            System.out.printf("p50: %.2f ms, p99: %.2f ms, max: %.2f ms%n",
+                    percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6,
+                    latencies[latencies.length - 1] / 1e6);
+        } finally {
+            callExecutor.close();
+        }
+    }
+
+    private int runRound(BlockingCallExecutor executor, CloseableHttpClient httpClient,
+                         int count, long[] latencies) {
+        AtomicInteger errors = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[count];
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+            final long submitted = System.nanoTime();
+            futures[i] = executor.execute(() -> {
+                try {
+                    httpClient.execute(new HttpGet(url), RESPONSE_HANDLER);
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                } finally {
+                    latencies[index] = System.nanoTime() - submitted;
+                }
+            });
+        }
+        CompletableFuture.allOf(futures).join();
+        return errors.get();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    public static void main(String[] args) throws IOException {
+        try (ExampleServer server = ExampleServer.start()) {
+            String url = args.length > 0 ? args[0] : server.url("/delay/1");
+            int requests = args.length > 1 ? Integer.parseInt(args[1]) : 4000;
+            int platformConcurrency = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+            int virtualConcurrency = args.length > 3 ? Integer.parseInt(args[3]) : platformConcurrency * 10;
+            VirtualThreadBenchmark benchmark = new VirtualThreadBenchmark(url, requests);
+            benchmark.run("platform threads", Executors.newFixedThreadPool(platformConcurrency), platformConcurrency);
+            if (VirtualThreads.isSupported()) {
+                benchmark.run("virtual threads", VirtualThreads.newVirtualThreadPerTaskExecutor(), virtualConcurrency);
+            } else {
+                System.out.println("virtual threads: skipped, JDK " + System.getProperty("java.version")
+                        + " does not support virtual threads, run with JDK 21 or later");
+            }
+        }
+    }
+}
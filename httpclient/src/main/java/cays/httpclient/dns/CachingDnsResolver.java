@@ -0,0 +1,243 @@
+package cays.httpclient.dns;
+
+import cays.httpclient.cache.ExpiringMap;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.util.Args;
+
+import java.io.Closeable;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 带缓存的DnsResolver，新建连接时不再每次阻塞查询DNS
+ * <p>
+ * 解析结果按配置的时间缓存，缓存时间过去一定比例后再次访问时在后台线程中提前刷新，
+ * 刷新期间和刷新失败时继续使用旧的结果，直到过期。解析失败的主机名也缓存一小段时间，
+ * 避免对不存在的主机反复查询。每次返回的地址列表轮换起始位置，连接分散到多个A/AAAA记录上，
+ * 第一个地址连接失败时连接池仍会依次尝试后面的地址。缓存时间为0时只缓存解析失败的结果。
+ * 缓存的主机数超过上限时移除最久没有访问的主机。
+ * <p>
+ * delegate通过InetAddress查询时，结果可能已经在JVM的缓存中存在了一段时间，与JVM缓存的叠加见{@link DnsCacheConfig}。
+ * <p>
+ * 测试时可以用InMemoryDnsResolver作为delegate，使用固定的主机映射。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 10:20
+ **/
+public class CachingDnsResolver implements DnsResolver, Closeable {
+    private final Log log = LogFactory.getLog(getClass());
+    private final DnsResolver delegate;
+    private final DnsCacheConfig config;
+    private final LongSupplier nanoClock;
+    private final ExpiringMap<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final ExecutorService refreshExecutor;
+
+    public CachingDnsResolver(DnsResolver delegate) {
+        this(delegate, DnsCacheConfig.DEFAULT);
+    }
+
+    public CachingDnsResolver(DnsResolver delegate, DnsCacheConfig config) {
+        this(delegate, config, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock 返回当前时间(纳秒)，测试时用来代替System.nanoTime()
+     */
+    CachingDnsResolver(DnsResolver delegate, DnsCacheConfig config, LongSupplier nanoClock) {
+        this.delegate = Args.notNull(delegate, "DNS resolver");
+        this.config = Args.notNull(config, "DNS cache config");
+        this.nanoClock = Args.notNull(nanoClock, "Clock");
+        this.entries = new ExpiringMap<>(config.getMaxEntries());
+        // 只有一个刷新线程，空闲时退出，不需要刷新时不占用线程
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "dns-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        this.refreshExecutor = executor;
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        // 主机名不区分大小写，缓存和查询都使用小写
+        String key = host.toLowerCase(Locale.ROOT);
+        long now = nanoClock.getAsLong();
+        Entry entry = entries.get(key, now);
+        if (entry != null) {
+            hits.increment();
+            if (entry.addresses == null) {
+                throw new UnknownHostException(entry.failure);
+            }
+            if (entry.refreshAt - now <= 0 && entry.refreshing.compareAndSet(false, true)) {
+                refreshAsync(key);
+            }
+            return entry.next();
+        }
+        misses.increment();
+        return lookup(key).next();
+    }
+
+    private Entry lookup(String host) throws UnknownHostException {
+        try {
+            Entry entry = positive(delegate.resolve(host), host);
+            if (config.getTimeToLive() > 0) {
+                put(host, entry);
+            }
+            return entry;
+        } catch (UnknownHostException e) {
+            if (config.getNegativeTimeToLive() > 0) {
+                String failure = e.getMessage() != null ? e.getMessage() : host;
+                long expires = expiresAt(config.getNegativeTimeToLive());
+                put(host, new Entry(null, failure, expires, expires));
+            }
+            throw e;
+        }
+    }
+
+    private Entry positive(InetAddress[] addresses, String host) throws UnknownHostException {
+        if (addresses == null || addresses.length == 0) {
+            throw new UnknownHostException(host);
+        }
+        long now = nanoClock.getAsLong();
+        long timeToLive = TimeUnit.MILLISECONDS.toNanos(config.getTimeToLive());
+        return new Entry(addresses.clone(), null, now + timeToLive,
+                now + (long) (timeToLive * config.getRefreshAhead()));
+    }
+
+    private void refreshAsync(String host) {
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    put(host, positive(delegate.resolve(host), host));
+                    refreshes.increment();
+                } catch (UnknownHostException e) {
+                    // 继续使用旧的结果直到过期，过期后重新同步查询
+                    refreshFailures.increment();
+                    if (log.isDebugEnabled()) {
+                        log.debug("DNS refresh of " + host + " failed: " + e.getMessage());
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 已经关闭
+        }
+    }
+
+    private void put(String key, Entry entry) {
+        entries.put(key, entry, entry.expires);
+    }
+
+    private long expiresAt(long millis) {
+        return nanoClock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * 移除主机的缓存，下次访问时重新查询
+     */
+    public void invalidate(String host) {
+        entries.remove(host.toLowerCase(Locale.ROOT));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public DnsCacheConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * 命中缓存的次数，包括命中解析失败的缓存
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * 同步查询DNS的次数
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 后台提前刷新成功的次数
+     */
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    public long getRefreshFailures() {
+        return refreshFailures.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public String toString() {
+        return "[hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", refreshes=" + getRefreshes() +
+                ", refreshFailures=" + getRefreshFailures() +
+                ", size=" + size() +
+                "]";
+    }
+
+    /**
+     * 停止后台刷新线程
+     */
+    @Override
+    public void close() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private static final class Entry {
+        // 为null表示解析失败
+        private final InetAddress[] addresses;
+        private final String failure;
+        private final long expires;
+        private final long refreshAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+        private final AtomicInteger next = new AtomicInteger();
+
+        private Entry(InetAddress[] addresses, String failure, long expires, long refreshAt) {
+            this.addresses = addresses;
+            this.failure = failure;
+            this.expires = expires;
+            this.refreshAt = refreshAt;
+        }
+
+        /**
+         * 轮换起始位置，返回新的数组
+         */
+        private InetAddress[] next() {
+            int length = addresses.length;
+            InetAddress[] result = new InetAddress[length];
+            int start = length == 1 ? 0 : (next.getAndIncrement() & Integer.MAX_VALUE) % length;
+            for (int i = 0; i < length; i++) {
+                result[i] = addresses[(start + i) % length];
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package cays.httpclient.dns;
+
+import org.apache.http.util.Args;
+
+import java.security.Security;
+
+/**
+ * DNS缓存配置，使用方式与PoolConfig一致：DnsCacheConfig.custom()...build()
+ * <p>
+ * InetAddress不返回记录的TTL，默认的缓存时间取JVM的networkaddress.cache.ttl和
+ * networkaddress.cache.negative.ttl设置，没有设置时与JDK的默认值相同(30秒和10秒)，设置为0时不缓存。
+ * <p>
+ * 通过InetAddress查询时，这里的缓存叠加在JVM自己的缓存之上：提前刷新可能拿到JVM缓存中已经存在了一段时间的结果，
+ * 再按完整的缓存时间保存，一条记录最多会被使用约两倍的缓存时间。需要严格按TTL过期时，
+ * 把networkaddress.cache.ttl设为0关闭JVM的缓存，再通过setTimeToLive显式设置这里的缓存时间。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 10:10
+ **/
+public final class DnsCacheConfig {
+    public static final DnsCacheConfig DEFAULT = custom().build();
+
+    private final long timeToLive;
+    private final long negativeTimeToLive;
+    private final double refreshAhead;
+    private final int maxEntries;
+
+    private DnsCacheConfig(Builder builder) {
+        this.timeToLive = builder.timeToLive;
+        this.negativeTimeToLive = builder.negativeTimeToLive;
+        this.refreshAhead = builder.refreshAhead;
+        this.maxEntries = builder.maxEntries;
+    }
+
+    public static Builder custom() {
+        return new Builder();
+    }
+
+    /**
+     * 解析结果的缓存时间(毫秒)，0表示不缓存
+     */
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * 解析失败(UnknownHostException)的缓存时间(毫秒)，0表示不缓存
+     */
+    public long getNegativeTimeToLive() {
+        return negativeTimeToLive;
+    }
+
+    /**
+     * 缓存时间过去该比例后，再次访问时在后台提前刷新，1表示不提前刷新
+     */
+    public double getRefreshAhead() {
+        return refreshAhead;
+    }
+
+    /**
+     * 最多缓存的主机数
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    @Override
+    public String toString() {
+        return "[timeToLive=" + timeToLive +
+                ", negativeTimeToLive=" + negativeTimeToLive +
+                ", refreshAhead=" + refreshAhead +
+                ", maxEntries=" + maxEntries +
+                "]";
+    }
+
+    private static long securityTtl(String property, long defaultMillis) {
+        String value = Security.getProperty(property);
+        if (value != null) {
+            try {
+                long seconds = Long.parseLong(value.trim());
+                if (seconds >= 0) {
+                    return seconds * 1000;
+                }
+            } catch (NumberFormatException ignore) {
+                // 使用默认值
+            }
+        }
+        return defaultMillis;
+    }
+
+    public static class Builder {
+        private long timeToLive = securityTtl("networkaddress.cache.ttl", 30000);
+        private long negativeTimeToLive = securityTtl("networkaddress.cache.negative.ttl", 10000);
+        private double refreshAhead = 0.8;
+        private int maxEntries = 1024;
+
+        Builder() {
+        }
+
+        public Builder setTimeToLive(long timeToLive) {
+            this.timeToLive = Args.notNegative(timeToLive, "Time to live");
+            return this;
+        }
+
+        public Builder setNegativeTimeToLive(long negativeTimeToLive) {
+            this.negativeTimeToLive = Args.notNegative(negativeTimeToLive, "Negative time to live");
+            return this;
+        }
+
+        public Builder setRefreshAhead(double refreshAhead) {
+            Args.check(refreshAhead > 0 && refreshAhead <= 1, "Refresh ahead must be between 0 and 1");
+            this.refreshAhead = refreshAhead;
+            return this;
+        }
+
+        public Builder setMaxEntries(int maxEntries) {
+            this.maxEntries = Args.positive(maxEntries, "Max entries");
+            return this;
+        }
+
+        public DnsCacheConfig build() {
+            return new DnsCacheConfig(this);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package cays.httpclient.entity;
+
+import cays.httpclient.io.ByteBufferPool;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.MIME;
+import org.apache.http.entity.mime.content.AbstractContentBody;
+import org.apache.http.util.Args;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 通过FileChannel按位置读取文件的分段上传内容，可以只发送文件的一段
+ * <p>
+ * FileBody使用FileInputStream和4KB缓冲区逐段复制。这里每次从指定位置读取1MB到池化的直接内存缓冲区再写入连接，
+ * 系统调用次数少得多，缓冲区在请求之间复用，多个线程上传同一文件的不同段时互不影响。
+ * 读到堆内存缓冲区时JDK会先读到每个线程缓存的临时直接内存缓冲区再复制，直接内存缓冲区省去了这次复制和临时缓冲区。
+ * 这不是零拷贝：阻塞方式的连接只提供OutputStream，只能写入byte[]，数据要经过一个64KB的线程本地数组写入连接，
+ * 无法使用FileChannel.transferTo。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 15:00
+ **/
+public class FileChannelBody extends AbstractContentBody {
+    // 默认的读缓冲区池，1MB一块
+    private static final ByteBufferPool DEFAULT_BUFFER_POOL = new ByteBufferPool(1024 * 1024, 32, true);
+    private static final int TRANSFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<byte[]> TRANSFER_BUFFER = ThreadLocal.withInitial(() -> new byte[TRANSFER_SIZE]);
+
+    private final File file;
+    private final long offset;
+    private final long length;
+    private final String filename;
+    private final ByteBufferPool bufferPool;
+
+    public FileChannelBody(File file) {
+        this(file, ContentType.DEFAULT_BINARY, file != null ? file.getName() : null);
+    }
+
+    public FileChannelBody(File file, ContentType contentType, String filename) {
+        this(file, 0, Args.notNull(file, "File").length(), contentType, filename, DEFAULT_BUFFER_POOL);
+    }
+
+    /**
+     * @param file 文件
+     * @param offset 发送的起始位置
+     * @param length 发送的字节数
+     * @param contentType 内容类型
+     * @param filename 分段中的文件名
+     * @param bufferPool 读缓冲区池，直接内存或堆内存缓冲区都可以
+     */
+    public FileChannelBody(File file, long offset, long length, ContentType contentType,
+                           String filename, ByteBufferPool bufferPool) {
+        super(contentType);
+        this.file = Args.notNull(file, "File");
+        this.offset = Args.notNegative(offset, "Offset");
+        this.length = Args.notNegative(length, "Length");
+        this.filename = filename;
+        this.bufferPool = Args.notNull(bufferPool, "Buffer pool");
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public String getFilename() {
+        return filename;
+    }
+
+    @Override
+    public String getTransferEncoding() {
+        return MIME.ENC_BINARY;
+    }
+
+    @Override
+    public long getContentLength() {
+        return length;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        Args.notNull(out, "Output stream");
+        ByteBuffer buffer = bufferPool.acquire();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (offset + length > channel.size()) {
+                throw new IOException("File " + file + " is shorter than the requested range "
+                        + offset + "+" + length);
+            }
+            long position = offset;
+            long end = offset + length;
+            while (position < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                int n = channel.read(buffer, position);
+                if (n < 0) {
+                    throw new IOException("File " + file + " was truncated while uploading");
+                }
+                buffer.flip();
+                write(buffer, out);
+                position += n;
+            }
+            out.flush();
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    private static void write(ByteBuffer buffer, OutputStream out) throws IOException {
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            return;
+        }
+        byte[] bytes = TRANSFER_BUFFER.get();
+        while (buffer.hasRemaining()) {
+            int n = Math.min(bytes.length, buffer.remaining());
+            buffer.get(bytes, 0, n);
+            out.write(bytes, 0, n);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package cays.httpclient.entity;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONWriter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import org.apache.http.Consts;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+import org.apache.http.util.Args;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 流式JSON数组请求体，fastjson直接把记录写到连接的输出流，使用chunked传输
+ * <p>
+ * 与JSON.toJSONString + StringEntity相比，不需要在内存中保存完整的JSON字符串和UTF-8字节数组。
+ * 记录可以由Iterator或Stream惰性产生，上传百万条记录时堆内存占用保持不变。
+ * 为了不保留已写出的记录，关闭了循环引用检测，记录内部不能有循环引用。
+ * <p>
+ * 异步客户端通过{@link HttpAsyncContentProducer}发送：连接可写时在I/O线程中序列化一批记录到复用的缓冲区，
+ * 写不完的部分留到下次可写时继续，不需要额外的写线程。同一个实体同一时间只能用于一个请求。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 13:10
+ **/
+public class JsonStreamingEntity extends AbstractHttpEntity implements HttpAsyncContentProducer {
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private final Iterable<?> records;
+    private Iterator<?> iterator;
+    private Stream<?> stream;
+    // 异步发送的状态，close时重置
+    private Iterator<?> producing;
+    private ChunkBuffer chunk;
+    private ByteBuffer pending;
+    private boolean lastChunk;
+
+    private JsonStreamingEntity(Iterable<?> records, Iterator<?> iterator, Stream<?> stream) {
+        this.records = records;
+        this.iterator = iterator;
+        this.stream = stream;
+        setContentType(ContentType.APPLICATION_JSON.toString());
+        setChunked(true);
+    }
+
+    /**
+     * 可重复发送的请求体，每次发送都重新遍历records，可以配合重试使用
+     * @param records 记录集合，也可以是每次返回新Iterator的惰性Iterable
+     */
+    public static JsonStreamingEntity of(Iterable<?> records) {
+        return new JsonStreamingEntity(Args.notNull(records, "Records"), null, null);
+    }
+
+    /**
+     * 只能发送一次的请求体
+     * @param records 惰性产生记录的Iterator
+     */
+    public static JsonStreamingEntity of(Iterator<?> records) {
+        return new JsonStreamingEntity(null, Args.notNull(records, "Records"), null);
+    }
+
+    /**
+     * 只能发送一次的请求体，写完后关闭Stream
+     * @param records 惰性产生记录的Stream
+     */
+    public static JsonStreamingEntity of(Stream<?> records) {
+        Args.notNull(records, "Records");
+        return new JsonStreamingEntity(null, records.iterator(), records);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return records != null;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return records == null && iterator != null;
+    }
+
+    /**
+     * 只支持通过{@link #writeTo(OutputStream)}写出
+     */
+    @Override
+    public InputStream getContent() {
+        throw new UnsupportedOperationException("Streaming JSON entity does not implement #getContent()");
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        Args.notNull(outStream, "Output stream");
+        Iterator<?> source = nextIterator();
+        try {
+            Writer writer = new OutputStreamWriter(outStream, Consts.UTF_8);
+            // JSONWriter缓冲区写满后直接刷到连接，close只归还缓冲区，不会关闭连接的输出流
+            try (JSONWriter jsonWriter = new JSONWriter(writer)) {
+                // 循环引用检测会记住写过的每个对象，记录越多占用内存越大，流式写出时关闭
+                jsonWriter.config(SerializerFeature.DisableCircularReferenceDetect, true);
+                jsonWriter.startArray();
+                while (source.hasNext()) {
+                    jsonWriter.writeValue(source.next());
+                }
+                jsonWriter.endArray();
+            }
+            writer.flush();
+        } catch (JSONException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        } finally {
+            closeStream();
+        }
+    }
+
+    /**
+     * 在I/O线程中执行，每次最多序列化{@value #CHUNK_SIZE}字节左右的记录
+     */
+    @Override
+    public void produceContent(ContentEncoder encoder, IOControl ioControl) throws IOException {
+        if (chunk == null) {
+            producing = nextIterator();
+            chunk = new ChunkBuffer(CHUNK_SIZE);
+            chunk.write('[');
+            fill(true);
+        } else if (!pending.hasRemaining()) {
+            chunk.reset();
+            fill(false);
+        }
+        encoder.write(pending);
+        if (lastChunk && !pending.hasRemaining()) {
+            encoder.complete();
+            closeStream();
+        }
+    }
+
+    private void fill(boolean first) throws IOException {
+        try {
+            while (chunk.size() < CHUNK_SIZE && producing.hasNext()) {
+                if (!first) {
+                    chunk.write(',');
+                }
+                first = false;
+                JSON.writeJSONString(chunk, producing.next(), SerializerFeature.DisableCircularReferenceDetect);
+            }
+        } catch (JSONException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+        if (!producing.hasNext()) {
+            chunk.write(']');
+            lastChunk = true;
+        }
+        pending = chunk.toByteBuffer();
+    }
+
+    /**
+     * 请求结束或重试前由异步客户端调用，可重复发送的实体下次重新遍历records
+     */
+    @Override
+    public void close() {
+        producing = null;
+        chunk = null;
+        pending = null;
+        lastChunk = false;
+        closeStream();
+    }
+
+    private void closeStream() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    private Iterator<?> nextIterator() {
+        if (records != null) {
+            return records.iterator();
+        }
+        if (iterator == null) {
+            throw new IllegalStateException("Streaming JSON entity has already been written");
+        }
+        Iterator<?> source = iterator;
+        iterator = null;
+        return source;
+    }
+
+    /**
+     * 复用内部数组的输出缓冲区，避免每批记录都复制一次
+     */
+    private static final class ChunkBuffer extends ByteArrayOutputStream {
+        private ChunkBuffer(int size) {
+            super(size);
+        }
+
+        private ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+}
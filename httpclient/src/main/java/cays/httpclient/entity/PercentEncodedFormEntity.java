@@ -0,0 +1,221 @@
+package cays.httpclient.entity;
+
+import org.apache.http.Consts;
+import org.apache.http.Header;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.util.Args;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+/**
+ * application/x-www-form-urlencoded请求体，发送时直接编码到线程本地的缓冲区再写出
+ * <p>
+ * 与UrlEncodedFormEntity相比，不需要NameValuePair列表，也不会先拼出完整的字符串再转成字节数组。
+ * 固定的字段由FormRequestTemplate预先编码，每个请求只编码变化的字段值，字符直接按UTF-8或ISO-8859-1转成字节，
+ * 编码结果与URLEncodedUtils.format相同(空格编码为+)。只有通过getContent读取时才会分配完整的字节数组。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 16:10
+ **/
+public class PercentEncodedFormEntity extends AbstractHttpEntity {
+    private static final int BUFFER_SIZE = 4096;
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(Consts.ASCII);
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+    private final byte[] prefix;
+    private final byte[][] names;
+    private final String[] values;
+    private final boolean utf8;
+    private long contentLength = -1;
+
+    /**
+     * @param prefix 预先编码的固定字段，例如"a=1&amp;b=2"
+     * @param names 预先编码的变化字段名，每个都包含分隔符，例如"&amp;c="
+     * @param values 与names对应的字段值，未编码
+     * @param charset UTF-8或ISO-8859-1
+     * @param contentType 共享的Content-Type请求头
+     */
+    public PercentEncodedFormEntity(byte[] prefix, byte[][] names, String[] values, Charset charset,
+                                    Header contentType) {
+        this.prefix = Args.notNull(prefix, "Prefix");
+        this.names = Args.notNull(names, "Names");
+        this.values = Args.notNull(values, "Values");
+        Args.check(names.length == values.length, "Expected %s values, got %s", names.length, values.length);
+        this.utf8 = isUtf8(charset);
+        setContentType(contentType);
+    }
+
+    /**
+     * 是否支持的表单编码
+     */
+    public static boolean isSupported(Charset charset) {
+        return Consts.UTF_8.equals(charset) || Consts.ISO_8859_1.equals(charset);
+    }
+
+    private static boolean isUtf8(Charset charset) {
+        Args.check(isSupported(charset), "Unsupported charset: %s", charset);
+        return Consts.UTF_8.equals(charset);
+    }
+
+    /**
+     * 编码一个字段名或字段值并写出，经过线程本地的缓冲区，不创建中间的字符串
+     */
+    public static void encode(CharSequence value, Charset charset, OutputStream outstream) throws IOException {
+        Args.notNull(value, "Value");
+        Args.notNull(outstream, "Output stream");
+        int position = encode(value, isUtf8(charset), BUFFER.get(), 0, outstream);
+        if (position > 0) {
+            outstream.write(BUFFER.get(), 0, position);
+        }
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    @Override
+    public long getContentLength() {
+        if (contentLength < 0) {
+            long length = prefix.length;
+            for (int i = 0; i < names.length; i++) {
+                length += names[i].length + encodedLength(values[i], utf8);
+            }
+            contentLength = length;
+        }
+        return contentLength;
+    }
+
+    /**
+     * 异步客户端通过这个方法读取请求体，需要分配完整的字节数组
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+        byte[] content = new byte[(int) getContentLength()];
+        int position = 0;
+        System.arraycopy(prefix, 0, content, 0, prefix.length);
+        position += prefix.length;
+        for (int i = 0; i < names.length; i++) {
+            System.arraycopy(names[i], 0, content, position, names[i].length);
+            position += names[i].length;
+            position = encode(values[i], utf8, content, position, null);
+        }
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public void writeTo(OutputStream outstream) throws IOException {
+        Args.notNull(outstream, "Output stream");
+        byte[] buffer = BUFFER.get();
+        outstream.write(prefix);
+        for (int i = 0; i < names.length; i++) {
+            outstream.write(names[i]);
+            int position = encode(values[i], utf8, buffer, 0, outstream);
+            if (position > 0) {
+                outstream.write(buffer, 0, position);
+            }
+        }
+        outstream.flush();
+    }
+
+    /**
+     * 编码后的字节数
+     */
+    private static int encodedLength(CharSequence value, boolean utf8) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (isUnreserved(c) || c == ' ') {
+                length++;
+            } else if (c < 0x80 || !utf8) {
+                length += 3;
+                if (!utf8 && isSurrogatePair(value, i)) {
+                    i++;
+                }
+            } else if (c < 0x800) {
+                length += 6;
+            } else if (isSurrogatePair(value, i)) {
+                length += 12;
+                i++;
+            } else {
+                // 不成对的代理字符按String.getBytes的方式编码为?
+                length += Character.isSurrogate(c) ? 3 : 9;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 把value编码到buffer，out不为null时缓冲区写满后写出并从头开始
+     * @return buffer中已写入的位置
+     */
+    private static int encode(CharSequence value, boolean utf8, byte[] buffer, int position, OutputStream out)
+            throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            // 最长的一个字符编码为12字节
+            if (out != null && position > buffer.length - 12) {
+                out.write(buffer, 0, position);
+                position = 0;
+            }
+            char c = value.charAt(i);
+            if (isUnreserved(c)) {
+                buffer[position++] = (byte) c;
+            } else if (c == ' ') {
+                buffer[position++] = '+';
+            } else if (c < 0x80) {
+                position = escape(c, buffer, position);
+            } else if (!utf8) {
+                // 与String.getBytes相同，无法表示的字符(包括成对的代理字符)编码为一个?
+                position = escape(c <= 0xFF ? c : '?', buffer, position);
+                if (isSurrogatePair(value, i)) {
+                    i++;
+                }
+            } else if (c < 0x800) {
+                position = escape(0xC0 | (c >> 6), buffer, position);
+                position = escape(0x80 | (c & 0x3F), buffer, position);
+            } else if (isSurrogatePair(value, i)) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                position = escape(0xF0 | (codePoint >> 18), buffer, position);
+                position = escape(0x80 | ((codePoint >> 12) & 0x3F), buffer, position);
+                position = escape(0x80 | ((codePoint >> 6) & 0x3F), buffer, position);
+                position = escape(0x80 | (codePoint & 0x3F), buffer, position);
+            } else if (Character.isSurrogate(c)) {
+                position = escape('?', buffer, position);
+            } else {
+                position = escape(0xE0 | (c >> 12), buffer, position);
+                position = escape(0x80 | ((c >> 6) & 0x3F), buffer, position);
+                position = escape(0x80 | (c & 0x3F), buffer, position);
+            }
+        }
+        return position;
+    }
+
+    private static boolean isSurrogatePair(CharSequence value, int index) {
+        return Character.isHighSurrogate(value.charAt(index)) && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1));
+    }
+
+    private static int escape(int b, byte[] buffer, int position) {
+        buffer[position] = '%';
+        buffer[position + 1] = HEX[(b >> 4) & 0x0F];
+        buffer[position + 2] = HEX[b & 0x0F];
+        return position + 3;
+    }
+
+    /**
+     * 与URLEncodedUtils的URLENCODER相同：字母、数字和-_.*不编码
+     */
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '_' || c == '.' || c == '*';
+    }
+}
@@ -0,0 +1,58 @@
+package cays.httpclient.handler;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.util.Args;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 把响应体直接写入文件的ResponseHandler
+ * <p>
+ * 通过FileChannel.transferFrom从连接读取数据写入文件，不经过字符串，
+ * 下载几百MB的响应也不会占用堆内存。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 14:20
+ **/
+public class FileTransferHandler extends StatusCheckingResponseHandler<Long> {
+    // 每次transferFrom最多传输的字节数
+    private static final long TRANSFER_CHUNK = 8 * 1024 * 1024;
+
+    private final Path target;
+
+    /**
+     * @param target 保存响应体的文件，已存在时覆盖
+     */
+    public FileTransferHandler(Path target) {
+        this.target = Args.notNull(target, "Target file");
+    }
+
+    /**
+     * @return 写入文件的字节数
+     */
+    @Override
+    protected Long handleEntity(HttpEntity entity) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (entity == null) {
+                return 0L;
+            }
+            long position = 0;
+            try (InputStream content = entity.getContent();
+                 ReadableByteChannel source = Channels.newChannel(content)) {
+                long transferred;
+                // 阻塞的源通道只有读到流末尾才会返回0
+                while ((transferred = fileChannel.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+                    position += transferred;
+                }
+            }
+            return position;
+        }
+    }
+}
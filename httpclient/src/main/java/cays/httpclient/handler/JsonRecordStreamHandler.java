@@ -0,0 +1,63 @@
+package cays.httpclient.handler;
+
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONReader;
+import org.apache.http.Consts;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.Args;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.function.Consumer;
+
+/**
+ * 逐条解析JSON数组响应的ResponseHandler
+ * <p>
+ * 使用fastjson的JSONReader边读边解析，每解析出一条记录就交给consumer，
+ * 不会把整个响应体读成字符串，内存占用只与单条记录大小有关。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 14:10
+ **/
+public class JsonRecordStreamHandler<T> extends StatusCheckingResponseHandler<Long> {
+    private final Class<T> recordType;
+    private final Consumer<? super T> consumer;
+
+    /**
+     * @param recordType 数组元素类型
+     * @param consumer 处理每条记录的回调
+     */
+    public JsonRecordStreamHandler(Class<T> recordType, Consumer<? super T> consumer) {
+        this.recordType = Args.notNull(recordType, "Record type");
+        this.consumer = Args.notNull(consumer, "Record consumer");
+    }
+
+    /**
+     * @return 处理的记录条数
+     */
+    @Override
+    protected Long handleEntity(HttpEntity entity) throws IOException {
+        if (entity == null) {
+            return 0L;
+        }
+        Charset charset = ContentType.getOrDefault(entity).getCharset();
+        long count = 0;
+        try (JSONReader reader = new JSONReader(new InputStreamReader(entity.getContent(),
+                charset != null ? charset : Consts.UTF_8))) {
+            reader.startArray();
+            while (reader.hasNext()) {
+                consumer.accept(reader.readObject(recordType));
+                count++;
+            }
+            reader.endArray();
+        } catch (JSONException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,76 @@
+package cays.httpclient.handler;
+
+import cays.httpclient.io.ByteBufferPool;
+import org.apache.http.HttpEntity;
+import org.apache.http.util.Args;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * 使用池化ByteBuffer分块读取响应体的ResponseHandler
+ * <p>
+ * 从池中借一个缓冲区，每读满一次交给consumer处理，处理完清空后继续读，
+ * 整个响应只使用一个可复用的缓冲区。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 14:30
+ **/
+public class PooledByteBufferHandler extends StatusCheckingResponseHandler<Long> {
+    private final ByteBufferPool bufferPool;
+    private final ChunkConsumer consumer;
+
+    /**
+     * @param bufferPool 缓冲区池
+     * @param consumer 处理每块数据的回调，返回后缓冲区会被复用，不能保留引用
+     */
+    public PooledByteBufferHandler(ByteBufferPool bufferPool, ChunkConsumer consumer) {
+        this.bufferPool = Args.notNull(bufferPool, "Buffer pool");
+        this.consumer = Args.notNull(consumer, "Chunk consumer");
+    }
+
+    /**
+     * @return 读取的字节数
+     */
+    @Override
+    protected Long handleEntity(HttpEntity entity) throws IOException {
+        if (entity == null) {
+            return 0L;
+        }
+        long total = 0;
+        ByteBuffer buffer = bufferPool.acquire();
+        try (InputStream content = entity.getContent();
+             ReadableByteChannel source = Channels.newChannel(content)) {
+            boolean eof = false;
+            while (!eof) {
+                // 尽量读满缓冲区，减少回调次数
+                while (buffer.hasRemaining()) {
+                    if (source.read(buffer) < 0) {
+                        eof = true;
+                        break;
+                    }
+                }
+                buffer.flip();
+                if (buffer.hasRemaining()) {
+                    total += buffer.remaining();
+                    consumer.accept(buffer);
+                }
+                buffer.clear();
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+        return total;
+    }
+
+    /**
+     * 处理一块响应数据，buffer处于可读状态
+     */
+    @FunctionalInterface
+    public interface ChunkConsumer {
+        void accept(ByteBuffer buffer) throws IOException;
+    }
+}
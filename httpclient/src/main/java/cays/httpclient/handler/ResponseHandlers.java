@@ -0,0 +1,67 @@
+package cays.httpclient.handler;
+
+import cays.httpclient.io.ByteBufferPool;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * 同步和异步请求共用的ResponseHandler
+ * <p>
+ * 所有handler都只接受2xx响应，其余状态码抛出带状态码的HttpResponseException。
+ * 响应体很大时使用流式handler，避免把整个响应读成字符串。
+ * 压缩的响应由HttpClient或ContentCompression在读取时解压，流式handler读到的是解压后的数据，不需要先缓冲。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 10:05
+ **/
+public final class ResponseHandlers {
+    // 2xx返回响应体字符串，其余状态码抛出异常
+    private static final ResponseHandler<String> STRING_HANDLER = new StatusCheckingResponseHandler<String>() {
+        @Override
+        protected String handleEntity(HttpEntity entity) throws IOException {
+            return entity != null ? EntityUtils.toString(entity) : null;
+        }
+    };
+
+    private ResponseHandlers() {
+    }
+
+    /**
+     * 校验状态码并把响应体读成字符串
+     */
+    public static ResponseHandler<String> toStringHandler() {
+        return STRING_HANDLER;
+    }
+
+    /**
+     * 逐条解析JSON数组，返回记录条数
+     * @param recordType 数组元素类型
+     * @param consumer 处理每条记录的回调
+     */
+    public static <T> ResponseHandler<Long> jsonRecords(Class<T> recordType, Consumer<? super T> consumer) {
+        return new JsonRecordStreamHandler<>(recordType, consumer);
+    }
+
+    /**
+     * 把响应体写入文件，返回写入的字节数
+     * @param target 保存的文件
+     */
+    public static ResponseHandler<Long> toFile(Path target) {
+        return new FileTransferHandler(target);
+    }
+
+    /**
+     * 使用池化缓冲区分块读取响应体，返回读取的字节数
+     * @param bufferPool 缓冲区池
+     * @param consumer 处理每块数据的回调
+     */
+    public static ResponseHandler<Long> toByteBuffers(ByteBufferPool bufferPool,
+                                                      PooledByteBufferHandler.ChunkConsumer consumer) {
+        return new PooledByteBufferHandler(bufferPool, consumer);
+    }
+}
@@ -0,0 +1,40 @@
+package cays.httpclient.handler;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+
+/**
+ * 先校验状态码再处理响应体的ResponseHandler
+ * <p>
+ * 2xx交给{@link #handleEntity(HttpEntity)}处理，其余状态码丢弃响应体并抛出HttpResponseException，
+ * 异常中带有状态码，调用方可以按状态码区分错误。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 14:00
+ **/
+public abstract class StatusCheckingResponseHandler<T> implements ResponseHandler<T> {
+
+    @Override
+    public T handleResponse(HttpResponse response) throws IOException {
+        int status = response.getStatusLine().getStatusCode();
+        HttpEntity entity = response.getEntity();
+        if (status >= 200 && status < 300) {
+            return handleEntity(entity);
+        } else {
+            // 读完响应体，连接才能归还连接池复用
+            EntityUtils.consume(entity);
+            throw new HttpResponseException(status, "Unexpected response code : " + status);
+        }
+    }
+
+    /**
+     * 处理2xx响应的响应体
+     * @param entity 响应体，没有响应体时为null
+     */
+    protected abstract T handleEntity(HttpEntity entity) throws IOException;
+}
@@ -0,0 +1,168 @@
+package cays.httpclient.hedge;
+
+import org.apache.http.util.Args;
+
+/**
+ * 对冲请求配置，使用方式与PoolConfig一致：HedgingConfig.custom()...build()
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 20:20
+ **/
+public final class HedgingConfig {
+    public static final HedgingConfig DEFAULT = custom().build();
+
+    private final double percentile;
+    private final long minDelay;
+    private final long maxDelay;
+    private final int minSamples;
+    private final int sampleWindow;
+    private final double maxExtraLoad;
+    private final int budgetMaxTokens;
+    private final int maxThreads;
+
+    private HedgingConfig(Builder builder) {
+        this.percentile = builder.percentile;
+        this.minDelay = builder.minDelay;
+        this.maxDelay = builder.maxDelay;
+        this.minSamples = builder.minSamples;
+        this.sampleWindow = builder.sampleWindow;
+        this.maxExtraLoad = builder.maxExtraLoad;
+        this.budgetMaxTokens = builder.budgetMaxTokens;
+        this.maxThreads = builder.maxThreads;
+    }
+
+    public static Builder custom() {
+        return new Builder();
+    }
+
+    /**
+     * 第一次请求超过最近响应时间的这个百分位仍未返回时发送对冲请求，例如0.95
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * 对冲等待时间的下限(毫秒)
+     */
+    public long getMinDelay() {
+        return minDelay;
+    }
+
+    /**
+     * 对冲等待时间的上限(毫秒)
+     */
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * 路由的响应时间样本达到这个数量后才开始对冲
+     */
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    /**
+     * 每个路由保留的最近响应时间样本数
+     */
+    public int getSampleWindow() {
+        return sampleWindow;
+    }
+
+    /**
+     * 对冲请求数占请求数的比例上限
+     */
+    public double getMaxExtraLoad() {
+        return maxExtraLoad;
+    }
+
+    /**
+     * 每个路由对冲预算的令牌桶容量
+     */
+    public int getBudgetMaxTokens() {
+        return budgetMaxTokens;
+    }
+
+    /**
+     * 内部线程池的线程数上限，一般与连接池的maxTotal相同，线程用完时请求在调用线程中直接执行，不再对冲
+     */
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    @Override
+    public String toString() {
+        return "[percentile=" + percentile +
+                ", minDelay=" + minDelay +
+                ", maxDelay=" + maxDelay +
+                ", minSamples=" + minSamples +
+                ", sampleWindow=" + sampleWindow +
+                ", maxExtraLoad=" + maxExtraLoad +
+                ", budgetMaxTokens=" + budgetMaxTokens +
+                ", maxThreads=" + maxThreads +
+                "]";
+    }
+
+    public static class Builder {
+        private double percentile = 0.95;
+        private long minDelay = 5;
+        private long maxDelay = 2000;
+        private int minSamples = 20;
+        private int sampleWindow = 1024;
+        private double maxExtraLoad = 0.05;
+        private int budgetMaxTokens = 10;
+        private int maxThreads = 200;
+
+        Builder() {
+        }
+
+        public Builder setPercentile(double percentile) {
+            Args.check(percentile > 0 && percentile < 1, "Percentile must be between 0 and 1");
+            this.percentile = percentile;
+            return this;
+        }
+
+        public Builder setMinDelay(long minDelay) {
+            this.minDelay = Args.notNegative(minDelay, "Min delay");
+            return this;
+        }
+
+        public Builder setMaxDelay(long maxDelay) {
+            this.maxDelay = Args.positive(maxDelay, "Max delay");
+            return this;
+        }
+
+        public Builder setMinSamples(int minSamples) {
+            this.minSamples = Args.positive(minSamples, "Min samples");
+            return this;
+        }
+
+        public Builder setSampleWindow(int sampleWindow) {
+            this.sampleWindow = Args.positive(sampleWindow, "Sample window");
+            return this;
+        }
+
+        public Builder setMaxExtraLoad(double maxExtraLoad) {
+            Args.check(maxExtraLoad >= 0 && maxExtraLoad <= 1, "Max extra load must be between 0 and 1");
+            this.maxExtraLoad = maxExtraLoad;
+            return this;
+        }
+
+        public Builder setBudgetMaxTokens(int budgetMaxTokens) {
+            this.budgetMaxTokens = Args.notNegative(budgetMaxTokens, "Budget max tokens");
+            return this;
+        }
+
+        public Builder setMaxThreads(int maxThreads) {
+            this.maxThreads = Args.positive(maxThreads, "Max threads");
+            return this;
+        }
+
+        public HedgingConfig build() {
+            Args.check(minDelay <= maxDelay, "Min delay must not exceed max delay");
+            Args.check(minSamples <= sampleWindow, "Min samples must not exceed sample window");
+            return new HedgingConfig(this);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package cays.httpclient.hedge;
+
+import cays.httpclient.client.DelegatingHttpClient;
+import cays.httpclient.retry.RetryBudget;
+import cays.httpclient.retry.RetryRequests;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对冲请求：幂等请求超过最近响应时间的百分位仍未返回时，再发送一个相同的请求，使用先返回的响应
+ * <p>
+ * 第一次请求占用着连接，对冲请求会从连接池取得另一个连接，通常也会落到服务端的另一个实例。
+ * 先返回的请求获胜，另一个通过HttpRequestBase.abort()中止并关闭连接。
+ * 对冲数量受每个路由的令牌桶限制，不超过请求数的maxExtraLoad比例。
+ * <p>
+ * 只对冲HttpRequestBase类型的幂等请求，其他请求直接执行。两个请求在内部线程池中执行，
+ * 调用线程等待结果；第一次请求使用调用方的请求对象，被中止后不能再重用。
+ * <p>
+ * 内部线程池的线程数不超过{@link HedgingConfig#getMaxThreads()}，不排队。线程用完时第一次请求在调用线程中直接执行，
+ * 不再对冲；对冲请求提交不了时只等待第一次请求。线程数与连接池的maxTotal相同时，
+ * 线程不会多于能拿到连接的请求数。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 20:30
+ **/
+public class HedgingHttpClient extends DelegatingHttpClient {
+    /**
+     * HttpContext中标记响应来自对冲请求的属性名，值为Boolean.TRUE
+     */
+    public static final String HEDGED_RESPONSE = "http.hedging.hedged-response";
+
+    private final HedgingConfig config;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final RetryBudget budget;
+    private final ConcurrentHashMap<HttpHost, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetRejections = new LongAdder();
+    private final LongAdder executorRejections = new LongAdder();
+
+    public HedgingHttpClient(CloseableHttpClient delegate, HedgingConfig config) {
+        this(delegate, config, newExecutor(config.getMaxThreads()), true);
+    }
+
+    /**
+     * @param executor 执行请求的线程池，由调用方负责关闭；拒绝任务时请求在调用线程中直接执行，不对冲
+     */
+    public HedgingHttpClient(CloseableHttpClient delegate, HedgingConfig config, ExecutorService executor) {
+        this(delegate, config, executor, false);
+    }
+
+    private HedgingHttpClient(CloseableHttpClient delegate, HedgingConfig config, ExecutorService executor,
+                              boolean ownsExecutor) {
+        super(delegate);
+        this.config = Args.notNull(config, "Hedging config");
+        this.executor = Args.notNull(executor, "Executor");
+        this.ownsExecutor = ownsExecutor;
+        this.budget = new RetryBudget(config.getMaxExtraLoad(), config.getBudgetMaxTokens());
+    }
+
+    /**
+     * 不排队的线程池，空闲线程60秒后退出，可以由多个HedgingHttpClient共用
+     * @param maxThreads 最大线程数，所有共用的客户端同时执行的请求数不超过这个数
+     */
+    public static ExecutorService newExecutor(int maxThreads) {
+        return new ThreadPoolExecutor(0, Args.positive(maxThreads, "Max threads"), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "hedging-request");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context)
+            throws IOException, ClientProtocolException {
+        if (target == null || !(request instanceof HttpRequestBase) || !RetryRequests.isIdempotent(request)) {
+            return super.doExecute(target, request, context);
+        }
+        requests.increment();
+        budget.deposit(target);
+        LatencyWindow window = latencies.computeIfAbsent(target,
+                host -> new LatencyWindow(config.getSampleWindow(), config.getPercentile()));
+        HttpRequestBase primaryRequest = (HttpRequestBase) request;
+        long start = System.nanoTime();
+        CompletableFuture<CloseableHttpResponse> primary = submit(target, primaryRequest, context);
+        if (primary == null) {
+            return record(window, start, super.doExecute(target, request, context));
+        }
+
+        long delay = hedgeDelay(window);
+        if (delay < 0) {
+            return record(window, start, await(primary, primaryRequest, null));
+        }
+        try {
+            return record(window, start, primary.get(delay, TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            // 超过对冲等待时间，继续往下发送对冲请求
+        } catch (InterruptedException e) {
+            primaryRequest.abort();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for response");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+        if (!budget.tryAcquire(target)) {
+            budgetRejections.increment();
+            return record(window, start, await(primary, primaryRequest, null));
+        }
+        // clone()得到的请求与原请求共用中止状态，中止一个会同时中止另一个，这里重新构造
+        HttpRequestBase hedgeRequest = (HttpRequestBase) RequestBuilder.copy(primaryRequest).build();
+        CompletableFuture<CloseableHttpResponse> hedge = submit(target, hedgeRequest, HttpClientContext.create());
+        if (hedge == null) {
+            return record(window, start, await(primary, primaryRequest, null));
+        }
+        hedges.increment();
+        return record(window, start, race(primary, primaryRequest, hedge, hedgeRequest, context));
+    }
+
+    /**
+     * 等待两个请求中先成功的一个，中止另一个；先返回的失败时继续等待另一个
+     */
+    private CloseableHttpResponse race(CompletableFuture<CloseableHttpResponse> primary, HttpRequestBase primaryRequest,
+                                       CompletableFuture<CloseableHttpResponse> hedge, HttpRequestBase hedgeRequest,
+                                       HttpContext context) throws IOException {
+        try {
+            CompletableFuture.anyOf(primary, hedge).get();
+        } catch (InterruptedException e) {
+            primaryRequest.abort();
+            hedgeRequest.abort();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for response");
+        } catch (ExecutionException e) {
+            // 先完成的请求失败，下面等待另一个
+        }
+        boolean primaryWon = primary.isDone() && !primary.isCompletedExceptionally();
+        boolean hedgeWon = !primaryWon && hedge.isDone() && !hedge.isCompletedExceptionally();
+        if (primaryWon) {
+            discard(hedge, hedgeRequest);
+            return primary.join();
+        }
+        if (hedgeWon) {
+            discard(primary, primaryRequest);
+            hedgeWins.increment();
+            if (context != null) {
+                context.setAttribute(HEDGED_RESPONSE, Boolean.TRUE);
+            }
+            return hedge.join();
+        }
+        // 先完成的失败了，另一个成为唯一的机会
+        if (primary.isCompletedExceptionally()) {
+            CloseableHttpResponse response = await(hedge, hedgeRequest, primary);
+            hedgeWins.increment();
+            if (context != null) {
+                context.setAttribute(HEDGED_RESPONSE, Boolean.TRUE);
+            }
+            return response;
+        }
+        return await(primary, primaryRequest, hedge);
+    }
+
+    /**
+     * 等待请求完成
+     * @param failed 已经失败的另一个请求，异常作为suppressed附加
+     */
+    private static CloseableHttpResponse await(CompletableFuture<CloseableHttpResponse> future, HttpRequestBase request,
+                                               CompletableFuture<CloseableHttpResponse> failed) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            request.abort();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for response");
+        } catch (ExecutionException e) {
+            IOException cause = unwrap(e);
+            if (failed != null) {
+                try {
+                    failed.join();
+                } catch (RuntimeException other) {
+                    cause.addSuppressed(other.getCause() != null ? other.getCause() : other);
+                }
+            }
+            throw cause;
+        }
+    }
+
+    /**
+     * 中止落后的请求，已经返回的响应直接关闭
+     */
+    private static void discard(CompletableFuture<CloseableHttpResponse> future, HttpRequestBase request) {
+        request.abort();
+        future.whenComplete((response, throwable) -> {
+            if (response != null) {
+                try {
+                    response.close();
+                } catch (IOException ignored) {
+                    // 连接已经中止
+                }
+            }
+        });
+    }
+
+    /**
+     * 在内部线程池中执行请求，线程池拒绝时返回null
+     */
+    private CompletableFuture<CloseableHttpResponse> submit(HttpHost target, HttpRequestBase request,
+                                                            HttpContext context) {
+        CompletableFuture<CloseableHttpResponse> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(delegate.execute(target, request, context));
+                } catch (IOException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            executorRejections.increment();
+            return null;
+        }
+        return future;
+    }
+
+    /**
+     * 根据路由最近的响应时间计算对冲等待时间(纳秒)，样本不足时返回-1，不对冲
+     */
+    private long hedgeDelay(LatencyWindow window) {
+        if (window.samples() < config.getMinSamples()) {
+            return -1;
+        }
+        long percentile = window.percentile();
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(config.getMinDelay()),
+                Math.min(TimeUnit.MILLISECONDS.toNanos(config.getMaxDelay()), percentile));
+    }
+
+    private static CloseableHttpResponse record(LatencyWindow window, long start, CloseableHttpResponse response) {
+        window.record(System.nanoTime() - start);
+        return response;
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        return new IOException(cause);
+    }
+
+    /**
+     * 路由当前的对冲等待时间(毫秒)，样本不足时返回-1
+     */
+    public long getHedgeDelay(HttpHost target) {
+        LatencyWindow window = latencies.get(target);
+        long delay = window != null ? hedgeDelay(window) : -1;
+        return delay < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(delay);
+    }
+
+    /**
+     * 可以对冲的请求数
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * 发送的对冲请求数
+     */
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    /**
+     * 对冲请求先返回的次数
+     */
+    public long getHedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    /**
+     * 超过额外负载上限没有发送对冲请求的次数
+     */
+    public long getBudgetRejections() {
+        return budgetRejections.sum();
+    }
+
+    /**
+     * 线程池用完，请求直接执行或没有发送对冲请求的次数
+     */
+    public long getExecutorRejections() {
+        return executorRejections.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+        super.close();
+    }
+
+    @Override
+    public String toString() {
+        return "[requests=" + getRequests() + ", hedges=" + getHedges() + ", hedgeWins=" + getHedgeWins()
+                + ", budgetRejections=" + getBudgetRejections()
+                + ", executorRejections=" + getExecutorRejections() + "]";
+    }
+}
@@ -0,0 +1,60 @@
+package cays.httpclient.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 保存最近N次响应时间的环形缓冲区，无锁写入
+ * <p>
+ * 百分位每写入RECOMPUTE_INTERVAL个样本重新计算一次，读取时直接返回缓存的值。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 20:25
+ **/
+class LatencyWindow {
+    private static final int RECOMPUTE_INTERVAL = 32;
+
+    private final AtomicLongArray samples;
+    private final AtomicLong count = new AtomicLong();
+    private final double percentile;
+    private volatile long cachedPercentile = -1;
+
+    LatencyWindow(int size, double percentile) {
+        this.samples = new AtomicLongArray(size);
+        this.percentile = percentile;
+    }
+
+    void record(long latencyNanos) {
+        long index = count.getAndIncrement();
+        samples.set((int) (index % samples.length()), latencyNanos);
+        if (index < RECOMPUTE_INTERVAL || (index + 1) % RECOMPUTE_INTERVAL == 0) {
+            cachedPercentile = compute();
+        }
+    }
+
+    /**
+     * 最近样本的百分位(纳秒)，没有样本时返回-1
+     */
+    long percentile() {
+        return cachedPercentile;
+    }
+
+    long samples() {
+        return Math.min(count.get(), samples.length());
+    }
+
+    private long compute() {
+        int size = (int) samples();
+        if (size == 0) {
+            return -1;
+        }
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * size) - 1;
+        return sorted[Math.max(0, Math.min(index, size - 1))];
+    }
+}
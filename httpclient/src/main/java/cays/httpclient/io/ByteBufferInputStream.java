@@ -0,0 +1,50 @@
+package cays.httpclient.io;
+
+import org.apache.http.util.Args;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * 从ByteBuffer读取数据的InputStream，可以直接读取内存映射的文件
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 16:10
+ **/
+public class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        this.buffer = Args.notNull(buffer, "Buffer");
+    }
+
+    @Override
+    public int read() {
+        return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+        buffer.position(buffer.position() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+}
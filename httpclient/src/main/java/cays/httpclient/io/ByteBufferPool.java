@@ -0,0 +1,76 @@
+package cays.httpclient.io;
+
+import org.apache.http.util.Args;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 固定大小ByteBuffer的对象池，避免大块缓冲区反复分配给GC带来压力
+ * <p>
+ * 池中最多保留maxPooled个空闲缓冲区，超过的直接丢弃，池为空时新分配。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 13:50
+ **/
+public class ByteBufferPool {
+    private final ConcurrentLinkedQueue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final int bufferSize;
+    private final int maxPooled;
+    private final boolean direct;
+
+    /**
+     * @param bufferSize 每个缓冲区的字节数
+     * @param maxPooled 最多保留的空闲缓冲区数量
+     * @param direct 是否使用堆外内存
+     */
+    public ByteBufferPool(int bufferSize, int maxPooled, boolean direct) {
+        this.bufferSize = Args.positive(bufferSize, "Buffer size");
+        this.maxPooled = Args.notNegative(maxPooled, "Max pooled buffers");
+        this.direct = direct;
+    }
+
+    /**
+     * 获取一个已清空的缓冲区，用完后必须调用{@link #release(ByteBuffer)}归还
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer != null) {
+            pooled.decrementAndGet();
+            return buffer;
+        }
+        return direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * 归还缓冲区
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != bufferSize || buffer.isDirect() != direct) {
+            return;
+        }
+        buffer.clear();
+        if (pooled.incrementAndGet() <= maxPooled) {
+            buffers.offer(buffer);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * 当前空闲的缓冲区数量
+     */
+    public int getPooled() {
+        return pooled.get();
+    }
+}
@@ -0,0 +1,65 @@
+package cays.httpclient.io;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ * 立即释放内存映射
+ * <p>
+ * MappedByteBuffer要等GC回收后才解除映射，Windows上映射中的文件不能被替换或删除。
+ * JDK 9及以上通过Unsafe.invokeCleaner，JDK 8通过DirectBuffer.cleaner()释放，都不可用时只能等待GC。
+ * 释放后不能再访问该缓冲区及其派生的缓冲区。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 18:40
+ **/
+public final class MappedBuffers {
+    private static final MethodHandle UNMAP = findUnmapper();
+
+    private MappedBuffers() {
+    }
+
+    /**
+     * @return 是否已经释放，false表示当前JDK不支持，映射在GC时释放
+     */
+    public static boolean unmap(MappedByteBuffer buffer) {
+        if (buffer == null || UNMAP == null) {
+            return false;
+        }
+        try {
+            UNMAP.invokeExact((ByteBuffer) buffer);
+            return true;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    private static MethodHandle findUnmapper() {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            MethodHandle invokeCleaner = lookup.findVirtual(unsafeClass, "invokeCleaner",
+                    MethodType.methodType(void.class, ByteBuffer.class));
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return invokeCleaner.bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // JDK 8
+        }
+        try {
+            Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            MethodHandle cleanerHandle = lookup.unreflect(cleaner);
+            MethodHandle cleanHandle = lookup.unreflect(clean);
+            return MethodHandles.filterReturnValue(cleanerHandle, cleanHandle)
+                    .asType(MethodType.methodType(void.class, ByteBuffer.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
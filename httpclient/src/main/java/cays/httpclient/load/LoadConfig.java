@@ -0,0 +1,144 @@
+package cays.httpclient.load;
+
+import org.apache.http.util.Args;
+
+/**
+ * 压测配置，使用方式与PoolConfig一致：LoadConfig.custom()...build()
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 23:20
+ **/
+public final class LoadConfig {
+    public static final LoadConfig DEFAULT = custom().build();
+
+    /**
+     * 请求的到达方式
+     */
+    public enum Arrivals {
+        /**
+         * 固定间隔
+         */
+        CONSTANT,
+        /**
+         * 泊松过程，间隔服从指数分布，平均速率相同，更接近真实流量的突发
+         */
+        POISSON
+    }
+
+    private final double rate;
+    private final long duration;
+    private final long warmup;
+    private final int concurrency;
+    private final Arrivals arrivals;
+    private final long drainTimeout;
+
+    private LoadConfig(Builder builder) {
+        this.rate = builder.rate;
+        this.duration = builder.duration;
+        this.warmup = builder.warmup;
+        this.concurrency = builder.concurrency;
+        this.arrivals = builder.arrivals;
+        this.drainTimeout = builder.drainTimeout;
+    }
+
+    public static Builder custom() {
+        return new Builder();
+    }
+
+    /**
+     * 目标速率(请求/秒)
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * 统计阶段的时长(毫秒)
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * 预热时长(毫秒)，预热阶段的结果不统计
+     */
+    public long getWarmup() {
+        return warmup;
+    }
+
+    /**
+     * 执行请求的线程数，所有线程都忙时请求排队，排队时间计入延迟
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public Arrivals getArrivals() {
+        return arrivals;
+    }
+
+    /**
+     * 统计阶段结束后等待未完成请求的最长时间(毫秒)，超时的请求记为未完成
+     */
+    public long getDrainTimeout() {
+        return drainTimeout;
+    }
+
+    @Override
+    public String toString() {
+        return "[rate=" + rate +
+                ", duration=" + duration +
+                ", warmup=" + warmup +
+                ", concurrency=" + concurrency +
+                ", arrivals=" + arrivals +
+                ", drainTimeout=" + drainTimeout +
+                "]";
+    }
+
+    public static class Builder {
+        private double rate = 100;
+        private long duration = 10000;
+        private long warmup = 2000;
+        private int concurrency = 64;
+        private Arrivals arrivals = Arrivals.CONSTANT;
+        private long drainTimeout = 30000;
+
+        Builder() {
+        }
+
+        public Builder setRate(double rate) {
+            Args.check(rate > 0, "Rate must be positive");
+            this.rate = rate;
+            return this;
+        }
+
+        public Builder setDuration(long duration) {
+            this.duration = Args.positive(duration, "Duration");
+            return this;
+        }
+
+        public Builder setWarmup(long warmup) {
+            this.warmup = Args.notNegative(warmup, "Warmup");
+            return this;
+        }
+
+        public Builder setConcurrency(int concurrency) {
+            this.concurrency = Args.positive(concurrency, "Concurrency");
+            return this;
+        }
+
+        public Builder setArrivals(Arrivals arrivals) {
+            this.arrivals = Args.notNull(arrivals, "Arrivals");
+            return this;
+        }
+
+        public Builder setDrainTimeout(long drainTimeout) {
+            this.drainTimeout = Args.notNegative(drainTimeout, "Drain timeout");
+            return this;
+        }
+
+        public LoadConfig build() {
+            return new LoadConfig(this);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package cays.httpclient.load;
+
+import cays.httpclient.metrics.LatencyRecorder;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.util.Args;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 开放模型的压测：请求按计划的时间点发出，不等待前一个请求完成
+ * <p>
+ * 每个请求的延迟从计划发出的时间开始计算，而不是实际开始执行的时间。服务变慢、线程都被占满时，
+ * 排队等待的时间也计入延迟，避免闭环压测的coordinated omission(慢请求让压测端少发请求，百分位被低估)。
+ * 同时单独统计实际执行的耗时(service time)，两者的差就是客户端排队的时间。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 23:25
+ **/
+public class LoadGenerator {
+    private final LoadConfig config;
+
+    public LoadGenerator(LoadConfig config) {
+        this.config = Args.notNull(config, "Load config");
+    }
+
+    /**
+     * 先预热再按配置的速率执行operation，返回统计阶段的结果
+     * @param name 操作名称，用于输出
+     */
+    public LoadResult run(String name, LoadOperation operation) throws InterruptedException {
+        Args.notNull(operation, "Operation");
+        if (config.getWarmup() > 0) {
+            runPhase(name, operation, config.getWarmup());
+        }
+        return runPhase(name, operation, config.getDuration());
+    }
+
+    private LoadResult runPhase(String name, LoadOperation operation, long durationMillis)
+            throws InterruptedException {
+        AtomicInteger threadNumber = new AtomicInteger();
+        LinkedBlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(config.getConcurrency(), config.getConcurrency(),
+                0, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "load-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        workers.prestartAllCoreThreads();
+        Phase phase = new Phase();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.getRate());
+        long start = System.nanoTime();
+        long end = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        long scheduled = start;
+        long submitted = 0;
+        int maxBacklog = 0;
+        try {
+            while (scheduled < end) {
+                waitUntil(scheduled);
+                final long intendedStart = scheduled;
+                workers.execute(() -> phase.execute(operation, intendedStart));
+                submitted++;
+                maxBacklog = Math.max(maxBacklog, queue.size());
+                scheduled += nextInterval(intervalNanos);
+            }
+        } finally {
+            workers.shutdown();
+        }
+        boolean drained = workers.awaitTermination(config.getDrainTimeout(), TimeUnit.MILLISECONDS);
+        long elapsed = System.nanoTime() - start;
+        if (!drained) {
+            workers.shutdownNow();
+        }
+        return new LoadResult(name, config, submitted, phase.succeeded.sum(), phase.errors(),
+                elapsed, phase.latency.snapshot(), phase.serviceTime.snapshot(), maxBacklog);
+    }
+
+    private long nextInterval(long intervalNanos) {
+        if (config.getArrivals() == LoadConfig.Arrivals.POISSON) {
+            // 指数分布的间隔，平均值为intervalNanos
+            return (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * intervalNanos);
+        }
+        return intervalNanos;
+    }
+
+    private static void waitUntil(long deadline) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    /**
+     * 错误分类：非2xx响应按状态码，其他按异常类型
+     */
+    static String classify(Throwable e) {
+        if (e instanceof HttpResponseException) {
+            return "HTTP " + ((HttpResponseException) e).getStatusCode();
+        }
+        return e.getClass().getSimpleName();
+    }
+
+    /**
+     * 一个阶段(预热或统计)的计数
+     */
+    private static final class Phase {
+        private final LatencyRecorder latency = new LatencyRecorder();
+        private final LatencyRecorder serviceTime = new LatencyRecorder();
+        private final LongAdder succeeded = new LongAdder();
+        private final ConcurrentHashMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        private void execute(LoadOperation operation, long intendedStart) {
+            long actualStart = System.nanoTime();
+            try {
+                operation.execute();
+                succeeded.increment();
+            } catch (Exception e) {
+                errors.computeIfAbsent(classify(e), type -> new LongAdder()).increment();
+            } finally {
+                long now = System.nanoTime();
+                latency.record(now - intendedStart);
+                serviceTime.record(now - actualStart);
+            }
+        }
+
+        private Map<String, Long> errors() {
+            Map<String, Long> result = new TreeMap<>();
+            errors.forEach((type, count) -> result.put(type, count.sum()));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package cays.httpclient.load;
+
+/**
+ * 压测执行的一次操作，失败时抛出异常，由LoadGenerator按异常类型统计错误
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 23:20
+ **/
+@FunctionalInterface
+public interface LoadOperation {
+    void execute() throws Exception;
+}
@@ -0,0 +1,178 @@
+package cays.httpclient.load;
+
+import cays.httpclient.metrics.LatencySnapshot;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次压测的结果，toString()为便于阅读的文本，{@link #toJson()}用于保存和比较不同的客户端配置
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 23:30
+ **/
+public class LoadResult {
+    private final String name;
+    private final LoadConfig config;
+    private final long scheduled;
+    private final long succeeded;
+    private final Map<String, Long> errors;
+    private final long elapsedNanos;
+    private final LatencySnapshot latency;
+    private final LatencySnapshot serviceTime;
+    private final int maxBacklog;
+
+    LoadResult(String name, LoadConfig config, long scheduled, long succeeded, Map<String, Long> errors,
+               long elapsedNanos, LatencySnapshot latency, LatencySnapshot serviceTime, int maxBacklog) {
+        this.name = name;
+        this.config = config;
+        this.scheduled = scheduled;
+        this.succeeded = succeeded;
+        this.errors = Collections.unmodifiableMap(errors);
+        this.elapsedNanos = elapsedNanos;
+        this.latency = latency;
+        this.serviceTime = serviceTime;
+        this.maxBacklog = maxBacklog;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LoadConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * 计划发出的请求数
+     */
+    public long getScheduled() {
+        return scheduled;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        long failed = 0;
+        for (long count : errors.values()) {
+            failed += count;
+        }
+        return failed;
+    }
+
+    /**
+     * 等待超时仍未完成的请求数
+     */
+    public long getIncomplete() {
+        return scheduled - succeeded - getFailed();
+    }
+
+    /**
+     * 按类型统计的错误数，HTTP状态码错误为"HTTP 503"的形式，其他为异常类名
+     */
+    public Map<String, Long> getErrors() {
+        return errors;
+    }
+
+    public double getElapsedSeconds() {
+        return elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * 实际完成的请求数/秒，明显低于目标速率说明客户端或服务端已经饱和
+     */
+    public double getThroughput() {
+        return (succeeded + getFailed()) / getElapsedSeconds();
+    }
+
+    /**
+     * 从计划发出时间开始计算的延迟，包含客户端排队时间
+     */
+    public LatencySnapshot getLatency() {
+        return latency;
+    }
+
+    /**
+     * 实际执行的耗时，不包含排队时间
+     */
+    public LatencySnapshot getServiceTime() {
+        return serviceTime;
+    }
+
+    /**
+     * 等待执行线程的最大请求数
+     */
+    public int getMaxBacklog() {
+        return maxBacklog;
+    }
+
+    public String toJson() {
+        JSONObject json = new JSONObject(true);
+        json.put("name", name);
+        JSONObject configJson = new JSONObject(true);
+        configJson.put("rate", config.getRate());
+        configJson.put("durationMillis", config.getDuration());
+        configJson.put("warmupMillis", config.getWarmup());
+        configJson.put("concurrency", config.getConcurrency());
+        configJson.put("arrivals", config.getArrivals().name());
+        json.put("config", configJson);
+        json.put("scheduled", scheduled);
+        json.put("succeeded", succeeded);
+        json.put("failed", getFailed());
+        json.put("incomplete", getIncomplete());
+        json.put("elapsedSeconds", getElapsedSeconds());
+        json.put("throughput", getThroughput());
+        json.put("maxBacklog", maxBacklog);
+        json.put("latencyMillis", latencyJson(latency));
+        json.put("serviceTimeMillis", latencyJson(serviceTime));
+        json.put("errors", errors);
+        return JSON.toJSONString(json, SerializerFeature.PrettyFormat);
+    }
+
+    private static JSONObject latencyJson(LatencySnapshot snapshot) {
+        JSONObject json = new JSONObject(true);
+        json.put("mean", snapshot.getMeanMillis());
+        json.put("p50", snapshot.getP50Millis());
+        json.put("p90", snapshot.getP90Millis());
+        json.put("p99", snapshot.getP99Millis());
+        json.put("p999", snapshot.getP999Millis());
+        json.put("max", snapshot.getMaxMillis());
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%s: rate=%.1f/s, duration=%ds, concurrency=%d, arrivals=%s%n",
+                name, config.getRate(), TimeUnit.MILLISECONDS.toSeconds(config.getDuration()),
+                config.getConcurrency(), config.getArrivals()));
+        report.append(String.format(Locale.ROOT,
+                "requests: scheduled=%d, succeeded=%d, failed=%d, incomplete=%d, max backlog=%d%n",
+                scheduled, succeeded, getFailed(), getIncomplete(), maxBacklog));
+        report.append(String.format(Locale.ROOT, "throughput: %.1f req/s in %.2f s%n",
+                getThroughput(), getElapsedSeconds()));
+        report.append(String.format(Locale.ROOT, "%-14s %9s %9s %9s %9s %9s %9s%n",
+                "(ms)", "mean", "p50", "p90", "p99", "p99.9", "max"));
+        appendLatency(report, "latency", latency);
+        appendLatency(report, "service time", serviceTime);
+        if (!errors.isEmpty()) {
+            report.append("errors:");
+            errors.forEach((type, count) -> report.append(' ').append(type).append('=').append(count));
+            report.append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    private static void appendLatency(StringBuilder report, String label, LatencySnapshot snapshot) {
+        report.append(String.format(Locale.ROOT, "%-14s %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", label,
+                snapshot.getMeanMillis(), snapshot.getP50Millis(), snapshot.getP90Millis(),
+                snapshot.getP99Millis(), snapshot.getP999Millis(), snapshot.getMaxMillis()));
+    }
+}
@@ -0,0 +1,55 @@
+package cays.httpclient.metrics;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * 读取连接池当前的租用、可用、等待连接数
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 21:30
+ **/
+public class ConnectionPoolMetrics implements ConnectionPoolMetricsMXBean {
+    private final String name;
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    ConnectionPoolMetrics(String name, PoolingHttpClientConnectionManager connectionManager) {
+        this.name = name;
+        this.connectionManager = connectionManager;
+    }
+
+    public PoolingHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getLeased() {
+        return connectionManager.getTotalStats().getLeased();
+    }
+
+    @Override
+    public int getAvailable() {
+        return connectionManager.getTotalStats().getAvailable();
+    }
+
+    @Override
+    public int getPending() {
+        return connectionManager.getTotalStats().getPending();
+    }
+
+    @Override
+    public int getMax() {
+        return connectionManager.getTotalStats().getMax();
+    }
+
+    @Override
+    public String toString() {
+        PoolStats stats = connectionManager.getTotalStats();
+        return "[name=" + name + ", " + stats.toString().substring(1);
+    }
+}
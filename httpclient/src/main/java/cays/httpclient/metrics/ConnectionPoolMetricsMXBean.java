@@ -0,0 +1,19 @@
+package cays.httpclient.metrics;
+
+/**
+ * 连接池的连接数，通过JMX导出
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 21:30
+ **/
+public interface ConnectionPoolMetricsMXBean {
+    String getName();
+
+    int getLeased();
+
+    int getAvailable();
+
+    int getPending();
+
+    int getMax();
+}
@@ -0,0 +1,169 @@
+package cays.httpclient.metrics;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.Args;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * HttpClient的请求指标，按路由(目标主机)分别统计
+ * <p>
+ * 指标通过以下扩展点采集，记录时只做原子加，不创建对象：
+ * <ul>
+ * <li>DnsResolver：域名解析耗时</li>
+ * <li>ConnectionSocketFactory：TCP连接和TLS握手耗时</li>
+ * <li>HttpClientConnectionManager：获取连接的等待时间、整个请求耗时、收发字节数</li>
+ * <li>HttpRequestExecutor：time to first byte、请求数和失败数</li>
+ * <li>HttpResponseInterceptor：按状态码统计响应数</li>
+ * </ul>
+ * 前三项在创建连接池时接入，见PooledHttpClientFactory；后两项通过{@link #configure}配置到HttpClientBuilder。
+ * 指标可以通过MetricsJmxExporter和PrometheusExporter导出。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 21:35
+ **/
+public class HttpClientMetrics {
+    private static final String[] SCHEMES = {"http", "https"};
+
+    private final LatencyRecorder dnsLookup = new LatencyRecorder();
+    private final LongAdder dnsFailures = new LongAdder();
+    private final ConcurrentHashMap<HttpHost, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConnectionPoolMetrics> pools = new ConcurrentHashMap<>();
+    private final List<Consumer<RouteMetrics>> routeListeners = new CopyOnWriteArrayList<>();
+    private final AtomicInteger poolSequence = new AtomicInteger();
+    private final MetricsInterceptor interceptor = new MetricsInterceptor(this);
+    private final MeteredHttpRequestExecutor requestExecutor = new MeteredHttpRequestExecutor(this);
+
+    /**
+     * 进程内默认的指标，PooledHttpClientFactory.getDefault()使用
+     */
+    public static HttpClientMetrics getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * 给HttpClientBuilder设置统计请求的HttpRequestExecutor和拦截器
+     * @return 传入的builder
+     */
+    public <B extends HttpClientBuilder> B configure(B builder) {
+        builder.setRequestExecutor(requestExecutor)
+                .addInterceptorFirst((HttpRequestInterceptor) interceptor)
+                .addInterceptorLast((HttpResponseInterceptor) interceptor);
+        return builder;
+    }
+
+    /**
+     * 包装http和https的Socket工厂，记录连接和握手耗时，其他协议的工厂不会保留
+     */
+    public Registry<ConnectionSocketFactory> instrument(Registry<ConnectionSocketFactory> registry) {
+        RegistryBuilder<ConnectionSocketFactory> builder = RegistryBuilder.create();
+        for (String scheme : SCHEMES) {
+            ConnectionSocketFactory socketFactory = registry.lookup(scheme);
+            if (socketFactory != null) {
+                builder.register(scheme, new TimingConnectionSocketFactory(socketFactory, this));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 包装DnsResolver，记录解析耗时
+     */
+    public DnsResolver instrument(DnsResolver dnsResolver) {
+        return new TimingDnsResolver(dnsResolver, dnsLookup, dnsFailures);
+    }
+
+    /**
+     * 包装连接管理器，记录获取连接的等待时间、请求耗时和字节数
+     */
+    public HttpClientConnectionManager instrument(HttpClientConnectionManager connectionManager) {
+        return new MeteredConnectionManager(connectionManager, this);
+    }
+
+    /**
+     * 导出连接池的连接数
+     * @return 连接池的名称
+     */
+    public String addPool(PoolingHttpClientConnectionManager connectionManager) {
+        Args.notNull(connectionManager, "Connection manager");
+        String name = "pool-" + poolSequence.incrementAndGet();
+        pools.put(name, new ConnectionPoolMetrics(name, connectionManager));
+        return name;
+    }
+
+    public void removePool(String name) {
+        pools.remove(name);
+    }
+
+    /**
+     * 路由第一次出现时回调，用于注册JMX等
+     */
+    public void addRouteListener(Consumer<RouteMetrics> listener) {
+        routeListeners.add(Args.notNull(listener, "Route listener"));
+    }
+
+    public void removeRouteListener(Consumer<RouteMetrics> listener) {
+        routeListeners.remove(listener);
+    }
+
+    /**
+     * 返回路由的指标，第一次访问时创建
+     */
+    public RouteMetrics forRoute(HttpHost target) {
+        RouteMetrics route = routes.get(target);
+        if (route != null) {
+            return route;
+        }
+        RouteMetrics created = new RouteMetrics(target);
+        route = routes.putIfAbsent(target, created);
+        if (route != null) {
+            return route;
+        }
+        for (Consumer<RouteMetrics> listener : routeListeners) {
+            listener.accept(created);
+        }
+        return created;
+    }
+
+    public Collection<RouteMetrics> getRoutes() {
+        return Collections.unmodifiableCollection(routes.values());
+    }
+
+    public Collection<ConnectionPoolMetrics> getPools() {
+        return Collections.unmodifiableCollection(pools.values());
+    }
+
+    /**
+     * 域名解析耗时
+     */
+    public LatencySnapshot getDnsLookup() {
+        return dnsLookup.snapshot();
+    }
+
+    /**
+     * 域名解析失败数
+     */
+    public long getDnsFailures() {
+        return dnsFailures.sum();
+    }
+
+    private static class DefaultHolder {
+        private static final HttpClientMetrics INSTANCE = new HttpClientMetrics();
+    }
+}
@@ -0,0 +1,67 @@
+package cays.httpclient.metrics;
+
+/**
+ * 直方图在某一时刻的统计结果，时间单位为毫秒，可以作为JMX的CompositeData导出
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 21:05
+ **/
+public class LatencySnapshot {
+    private final long count;
+    private final double mean;
+    private final long sum;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    LatencySnapshot(long count, double mean, long sum, long p50, long p90, long p99, long p999, long max) {
+        this.count = count;
+        this.mean = mean;
+        this.sum = sum;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMillis() {
+        return LatencyRecorder.toMillis(mean);
+    }
+
+    public double getSumMillis() {
+        return LatencyRecorder.toMillis(sum);
+    }
+
+    public double getP50Millis() {
+        return LatencyRecorder.toMillis(p50);
+    }
+
+    public double getP90Millis() {
+        return LatencyRecorder.toMillis(p90);
+    }
+
+    public double getP99Millis() {
+        return LatencyRecorder.toMillis(p99);
+    }
+
+    public double getP999Millis() {
+        return LatencyRecorder.toMillis(p999);
+    }
+
+    public double getMaxMillis() {
+        return LatencyRecorder.toMillis(max);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[count=%d, mean=%.2fms, p50=%.2fms, p90=%.2fms, p99=%.2fms, max=%.2fms]",
+                count, getMeanMillis(), getP50Millis(), getP90Millis(), getP99Millis(), getMaxMillis());
+    }
+}
@@ -0,0 +1,147 @@
+package cays.httpclient.metrics;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpConnectionMetrics;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 包装连接管理器，记录获取连接的等待时间、整个请求的耗时和每个连接收发的字节数
+ * <p>
+ * 每个物理连接上保存一个Exchange对象记录当前请求的开始时间，连接复用时重复使用，
+ * 不会为每个请求创建对象。字节数来自连接自身的统计，在连接归还时累加到路由上并清零。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 21:20
+ **/
+class MeteredConnectionManager implements HttpClientConnectionManager {
+    private static final String EXCHANGE = "http.metrics.exchange";
+
+    private final HttpClientConnectionManager delegate;
+    private final HttpClientMetrics metrics;
+
+    MeteredConnectionManager(HttpClientConnectionManager delegate, HttpClientMetrics metrics) {
+        this.delegate = Args.notNull(delegate, "Connection manager");
+        this.metrics = metrics;
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        RouteMetrics routeMetrics = metrics.forRoute(route.getTargetHost());
+        long start = System.nanoTime();
+        ConnectionRequest request = delegate.requestConnection(route, state);
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                HttpClientConnection connection = request.get(timeout, timeUnit);
+                routeMetrics.leaseWait.recordSince(start);
+                Exchange exchange = exchange(connection);
+                if (exchange != null) {
+                    exchange.begin(routeMetrics, start);
+                }
+                return connection;
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void releaseConnection(HttpClientConnection connection, Object newState, long validDuration,
+                                  TimeUnit timeUnit) {
+        Exchange exchange = exchange(connection);
+        if (exchange != null) {
+            exchange.end(connection);
+        }
+        delegate.releaseConnection(connection, newState, validDuration, timeUnit);
+    }
+
+    /**
+     * 连接池返回的连接同时实现了HttpContext，属性保存在底层的物理连接上
+     */
+    private static Exchange exchange(HttpClientConnection connection) {
+        if (!(connection instanceof HttpContext)) {
+            return null;
+        }
+        HttpContext attributes = (HttpContext) connection;
+        Exchange exchange = (Exchange) attributes.getAttribute(EXCHANGE);
+        if (exchange == null) {
+            exchange = new Exchange();
+            attributes.setAttribute(EXCHANGE, exchange);
+        }
+        return exchange;
+    }
+
+    @Override
+    public void connect(HttpClientConnection connection, HttpRoute route, int connectTimeout, HttpContext context)
+            throws IOException {
+        delegate.connect(connection, route, connectTimeout, context);
+    }
+
+    @Override
+    public void upgrade(HttpClientConnection connection, HttpRoute route, HttpContext context) throws IOException {
+        delegate.upgrade(connection, route, context);
+    }
+
+    @Override
+    public void routeComplete(HttpClientConnection connection, HttpRoute route, HttpContext context)
+            throws IOException {
+        delegate.routeComplete(connection, route, context);
+    }
+
+    @Override
+    public void closeIdleConnections(long idletime, TimeUnit timeUnit) {
+        delegate.closeIdleConnections(idletime, timeUnit);
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        delegate.closeExpiredConnections();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    /**
+     * 物理连接上当前请求的状态，同一时刻一个连接只被一个线程租用
+     */
+    private static final class Exchange {
+        private RouteMetrics route;
+        private long start;
+
+        private void begin(RouteMetrics route, long start) {
+            this.route = route;
+            this.start = start;
+        }
+
+        private void end(HttpClientConnection connection) {
+            if (route == null) {
+                return;
+            }
+            route.total.recordSince(start);
+            try {
+                HttpConnectionMetrics connectionMetrics = connection.getMetrics();
+                route.bytesSent.add(connectionMetrics.getSentBytesCount());
+                route.bytesReceived.add(connectionMetrics.getReceivedBytesCount());
+                connectionMetrics.reset();
+            } catch (RuntimeException e) {
+                // 连接已经关闭，字节数无法读取
+            }
+            route = null;
+        }
+    }
+}
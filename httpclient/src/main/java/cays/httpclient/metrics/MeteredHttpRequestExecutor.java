@@ -0,0 +1,53 @@
+package cays.httpclient.metrics;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import java.io.IOException;
+
+/**
+ * 记录从开始发送请求到收到响应头的时间(time to first byte)和请求失败数
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 21:25
+ **/
+class MeteredHttpRequestExecutor extends HttpRequestExecutor {
+    private final HttpClientMetrics metrics;
+
+    MeteredHttpRequestExecutor(HttpClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public HttpResponse execute(HttpRequest request, HttpClientConnection connection, HttpContext context)
+            throws IOException, HttpException {
+        RouteMetrics route = routeOf(metrics, context);
+        if (route == null) {
+            return super.execute(request, connection, context);
+        }
+        route.requests.increment();
+        long start = System.nanoTime();
+        try {
+            HttpResponse response = super.execute(request, connection, context);
+            route.timeToFirstByte.recordSince(start);
+            return response;
+        } catch (IOException | HttpException | RuntimeException e) {
+            route.errors.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * 直接读取属性，HttpClientContext.adapt()会为普通的HttpContext创建包装对象
+     */
+    static RouteMetrics routeOf(HttpClientMetrics metrics, HttpContext context) {
+        Object route = context.getAttribute(HttpClientContext.HTTP_ROUTE);
+        return route instanceof HttpRoute ? metrics.forRoute(((HttpRoute) route).getTargetHost()) : null;
+    }
+}
@@ -0,0 +1,42 @@
+package cays.httpclient.metrics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * 按状态码统计响应数，DEBUG级别时输出每个请求和响应的跟踪日志
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 21:25
+ **/
+class MetricsInterceptor implements HttpRequestInterceptor, HttpResponseInterceptor {
+    private final Log log = LogFactory.getLog(getClass());
+    private final HttpClientMetrics metrics;
+
+    MetricsInterceptor(HttpClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void process(HttpRequest request, HttpContext context) {
+        if (log.isDebugEnabled()) {
+            log.debug("-> " + request.getRequestLine());
+        }
+    }
+
+    @Override
+    public void process(HttpResponse response, HttpContext context) {
+        RouteMetrics route = MeteredHttpRequestExecutor.routeOf(metrics, context);
+        if (route != null) {
+            route.recordStatus(response.getStatusLine().getStatusCode());
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("<- " + response.getStatusLine() + (route != null ? " from " + route.getTarget() : ""));
+        }
+    }
+}
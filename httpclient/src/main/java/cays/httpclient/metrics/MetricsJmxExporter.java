@@ -0,0 +1,91 @@
+package cays.httpclient.metrics;
+
+import org.apache.http.util.Args;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 把请求指标注册到JMX，域名为cays.httpclient
+ * <p>
+ * 每个路由注册为type=Route，连接池为type=ConnectionPool，之后出现的路由自动注册。
+ * 其他MXBean(例如CacheStatistics)可以通过{@link #register(String, String, Object)}一起注册，关闭时全部注销。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 21:40
+ **/
+public class MetricsJmxExporter implements Closeable {
+    public static final String DOMAIN = "cays.httpclient";
+
+    private final HttpClientMetrics metrics;
+    private final MBeanServer mBeanServer;
+    private final List<ObjectName> registered = new CopyOnWriteArrayList<>();
+    private final Consumer<RouteMetrics> routeListener = this::registerRoute;
+
+    public MetricsJmxExporter(HttpClientMetrics metrics) {
+        this(metrics, ManagementFactory.getPlatformMBeanServer());
+    }
+
+    public MetricsJmxExporter(HttpClientMetrics metrics, MBeanServer mBeanServer) {
+        this.metrics = Args.notNull(metrics, "Metrics");
+        this.mBeanServer = Args.notNull(mBeanServer, "MBean server");
+    }
+
+    /**
+     * 注册已有的路由和连接池，并监听新出现的路由
+     */
+    public MetricsJmxExporter start() {
+        metrics.addRouteListener(routeListener);
+        for (RouteMetrics route : metrics.getRoutes()) {
+            registerRoute(route);
+        }
+        for (ConnectionPoolMetrics pool : metrics.getPools()) {
+            register("ConnectionPool", pool.getName(), pool);
+        }
+        return this;
+    }
+
+    /**
+     * 注册任意MXBean
+     * @param type ObjectName中的type
+     * @param name ObjectName中的name
+     */
+    public void register(String type, String name, Object mxBean) {
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            mBeanServer.registerMBean(mxBean, objectName);
+            registered.add(objectName);
+        } catch (InstanceAlreadyExistsException e) {
+            // 已经注册过
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Cannot register " + type + " " + name, e);
+        }
+    }
+
+    private void registerRoute(RouteMetrics route) {
+        register("Route", route.getTarget(), route);
+    }
+
+    @Override
+    public void close() {
+        metrics.removeRouteListener(routeListener);
+        for (ObjectName objectName : registered) {
+            try {
+                mBeanServer.unregisterMBean(objectName);
+            } catch (InstanceNotFoundException e) {
+                // 已经被注销
+            } catch (JMException e) {
+                throw new IllegalStateException("Cannot unregister " + objectName, e);
+            }
+        }
+        registered.clear();
+    }
+}
@@ -0,0 +1,307 @@
+package cays.httpclient.metrics;
+
+import cays.httpclient.cache.CacheStatistics;
+import cays.httpclient.compress.CompressionStatistics;
+import cays.httpclient.compress.RouteCompressionStatistics;
+import cays.httpclient.tls.TlsStatistics;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.util.Args;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 以Prometheus文本格式导出请求指标，可以启动一个HTTP端点供Prometheus抓取
+ * <p>
+ * 耗时以summary类型导出，单位为秒，包含0.5、0.9、0.99、0.999分位。
+ * <pre>
+ * PrometheusExporter exporter = new PrometheusExporter(HttpClientMetrics.getDefault());
+ * exporter.start(9464); // http://localhost:9464/metrics
+ * </pre>
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 21:45
+ **/
+public class PrometheusExporter implements Closeable {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpClientMetrics metrics;
+    private final Map<String, CacheStatistics> caches = new ConcurrentHashMap<>();
+    private final Map<String, TlsStatistics> tlsFactories = new ConcurrentHashMap<>();
+    private final Map<String, CompressionStatistics> compressions = new ConcurrentHashMap<>();
+    private HttpServer server;
+
+    public PrometheusExporter(HttpClientMetrics metrics) {
+        this.metrics = Args.notNull(metrics, "Metrics");
+    }
+
+    /**
+     * 同时导出缓存命中统计
+     * @param name 缓存名称，作为cache标签
+     */
+    public PrometheusExporter addCacheStatistics(String name, CacheStatistics cacheStatistics) {
+        caches.put(Args.notNull(name, "Cache name"), Args.notNull(cacheStatistics, "Cache statistics"));
+        return this;
+    }
+
+    /**
+     * 同时导出TLS握手统计
+     * @param name Socket工厂名称，作为factory标签
+     */
+    public PrometheusExporter addTlsStatistics(String name, TlsStatistics tlsStatistics) {
+        tlsFactories.put(Args.notNull(name, "TLS factory name"), Args.notNull(tlsStatistics, "TLS statistics"));
+        return this;
+    }
+
+    /**
+     * 同时导出按路由统计的压缩字节数和耗时
+     * @param name 压缩配置名称，作为compression标签
+     */
+    public PrometheusExporter addCompressionStatistics(String name, CompressionStatistics compressionStatistics) {
+        compressions.put(Args.notNull(name, "Compression name"),
+                Args.notNull(compressionStatistics, "Compression statistics"));
+        return this;
+    }
+
+    /**
+     * 在指定端口启动/metrics端点
+     */
+    public synchronized PrometheusExporter start(int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Already started");
+        }
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", exchange -> {
+            try {
+                byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        return this;
+    }
+
+    /**
+     * 实际监听的端口，端口传0时由系统分配
+     */
+    public synchronized int getPort() {
+        return server != null ? server.getAddress().getPort() : -1;
+    }
+
+    /**
+     * 生成当前所有指标的文本
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        writeSummary(out, "httpclient_dns_lookup_seconds", "DNS lookup time", null, null, metrics.getDnsLookup());
+        writeType(out, "httpclient_dns_failures_total", "DNS lookup failures", "counter");
+        writeSample(out, "httpclient_dns_failures_total", null, null, metrics.getDnsFailures());
+
+        writeType(out, "httpclient_requests_total", "Requests sent", "counter");
+        for (RouteMetrics route : metrics.getRoutes()) {
+            writeSample(out, "httpclient_requests_total", "route", route.getTarget(), route.getRequests());
+        }
+        writeType(out, "httpclient_errors_total", "Requests failed with an exception", "counter");
+        for (RouteMetrics route : metrics.getRoutes()) {
+            writeSample(out, "httpclient_errors_total", "route", route.getTarget(), route.getErrors());
+        }
+        writeType(out, "httpclient_responses_total", "Responses by status class", "counter");
+        for (RouteMetrics route : metrics.getRoutes()) {
+            for (int statusClass = 1; statusClass <= 5; statusClass++) {
+                out.append("httpclient_responses_total{route=\"").append(escape(route.getTarget()))
+                        .append("\",status=\"").append(statusClass).append("xx\"} ")
+                        .append(route.getResponses(statusClass)).append('\n');
+            }
+        }
+        writeType(out, "httpclient_sent_bytes_total", "Bytes sent", "counter");
+        for (RouteMetrics route : metrics.getRoutes()) {
+            writeSample(out, "httpclient_sent_bytes_total", "route", route.getTarget(), route.getBytesSent());
+        }
+        writeType(out, "httpclient_received_bytes_total", "Bytes received", "counter");
+        for (RouteMetrics route : metrics.getRoutes()) {
+            writeSample(out, "httpclient_received_bytes_total", "route", route.getTarget(), route.getBytesReceived());
+        }
+        writeRouteSummaries(out, "httpclient_connect_seconds", "TCP connect time", RouteMetrics::getConnect);
+        writeRouteSummaries(out, "httpclient_tls_handshake_seconds", "TLS handshake time",
+                RouteMetrics::getTlsHandshake);
+        writeRouteSummaries(out, "httpclient_lease_wait_seconds", "Connection pool lease wait time",
+                RouteMetrics::getLeaseWait);
+        writeRouteSummaries(out, "httpclient_time_to_first_byte_seconds", "Request sent to response headers",
+                RouteMetrics::getTimeToFirstByte);
+        writeRouteSummaries(out, "httpclient_total_seconds", "Connection lease to release", RouteMetrics::getTotal);
+
+        writePools(out);
+        writeCaches(out);
+        writeTls(out);
+        writeCompressions(out);
+        return out.toString();
+    }
+
+    private void writePools(StringBuilder out) {
+        writeType(out, "httpclient_pool_leased", "Leased connections", "gauge");
+        for (ConnectionPoolMetrics pool : metrics.getPools()) {
+            writeSample(out, "httpclient_pool_leased", "pool", pool.getName(), pool.getLeased());
+        }
+        writeType(out, "httpclient_pool_available", "Idle connections", "gauge");
+        for (ConnectionPoolMetrics pool : metrics.getPools()) {
+            writeSample(out, "httpclient_pool_available", "pool", pool.getName(), pool.getAvailable());
+        }
+        writeType(out, "httpclient_pool_pending", "Threads waiting for a connection", "gauge");
+        for (ConnectionPoolMetrics pool : metrics.getPools()) {
+            writeSample(out, "httpclient_pool_pending", "pool", pool.getName(), pool.getPending());
+        }
+        writeType(out, "httpclient_pool_max", "Maximum connections", "gauge");
+        for (ConnectionPoolMetrics pool : metrics.getPools()) {
+            writeSample(out, "httpclient_pool_max", "pool", pool.getName(), pool.getMax());
+        }
+    }
+
+    private void writeCaches(StringBuilder out) {
+        if (caches.isEmpty()) {
+            return;
+        }
+        writeType(out, "httpclient_cache_responses_total", "Cache response status", "counter");
+        for (Map.Entry<String, CacheStatistics> entry : caches.entrySet()) {
+            CacheStatistics statistics = entry.getValue();
+            writeCache(out, entry.getKey(), "hit", statistics.getHits());
+            writeCache(out, entry.getKey(), "miss", statistics.getMisses());
+            writeCache(out, entry.getKey(), "validated", statistics.getValidated());
+            writeCache(out, entry.getKey(), "module_response", statistics.getModuleResponses());
+        }
+    }
+
+    private void writeTls(StringBuilder out) {
+        if (tlsFactories.isEmpty()) {
+            return;
+        }
+        writeType(out, "httpclient_tls_handshakes_total", "TLS handshakes by result", "counter");
+        for (Map.Entry<String, TlsStatistics> entry : tlsFactories.entrySet()) {
+            TlsStatistics statistics = entry.getValue();
+            writeHandshakes(out, entry.getKey(), "full", statistics.getFullHandshakes());
+            writeHandshakes(out, entry.getKey(), "resumed", statistics.getResumedHandshakes());
+            writeHandshakes(out, entry.getKey(), "failed", statistics.getFailedHandshakes());
+        }
+        writeType(out, "httpclient_tls_full_handshake_seconds", "Full TLS handshake time", "summary");
+        for (Map.Entry<String, TlsStatistics> entry : tlsFactories.entrySet()) {
+            writeSummaryValues(out, "httpclient_tls_full_handshake_seconds", "factory", entry.getKey(),
+                    entry.getValue().getFullHandshakeTime());
+        }
+        writeType(out, "httpclient_tls_resumed_handshake_seconds", "Resumed TLS session handshake time", "summary");
+        for (Map.Entry<String, TlsStatistics> entry : tlsFactories.entrySet()) {
+            writeSummaryValues(out, "httpclient_tls_resumed_handshake_seconds", "factory", entry.getKey(),
+                    entry.getValue().getResumedHandshakeTime());
+        }
+    }
+
+    private void writeCompressions(StringBuilder out) {
+        if (compressions.isEmpty()) {
+            return;
+        }
+        writeCompression(out, "httpclient_compression_request_raw_bytes_total", "Request bytes before compression",
+                RouteCompressionStatistics::getRequestRawBytes);
+        writeCompression(out, "httpclient_compression_request_encoded_bytes_total",
+                "Request bytes after compression", RouteCompressionStatistics::getRequestEncodedBytes);
+        writeCompression(out, "httpclient_compression_seconds_total", "Time spent compressing request bodies",
+                route -> route.getCompressionCpuMillis() / 1000);
+        writeCompression(out, "httpclient_compression_response_encoded_bytes_total",
+                "Response bytes before decompression", RouteCompressionStatistics::getResponseEncodedBytes);
+        writeCompression(out, "httpclient_compression_response_decoded_bytes_total",
+                "Response bytes after decompression", RouteCompressionStatistics::getResponseDecodedBytes);
+        writeCompression(out, "httpclient_decompression_seconds_total", "Time spent decompressing response bodies",
+                route -> route.getDecompressionCpuMillis() / 1000);
+    }
+
+    private void writeCompression(StringBuilder out, String name, String help,
+                                  Function<RouteCompressionStatistics, Number> value) {
+        writeType(out, name, help, "counter");
+        for (Map.Entry<String, CompressionStatistics> entry : compressions.entrySet()) {
+            for (RouteCompressionStatistics route : entry.getValue().getRoutes()) {
+                out.append(name).append("{compression=\"").append(escape(entry.getKey()))
+                        .append("\",route=\"").append(escape(route.getTarget())).append("\"} ")
+                        .append(value.apply(route)).append('\n');
+            }
+        }
+    }
+
+    private static void writeHandshakes(StringBuilder out, String factory, String result, long value) {
+        out.append("httpclient_tls_handshakes_total{factory=\"").append(escape(factory))
+                .append("\",result=\"").append(result).append("\"} ").append(value).append('\n');
+    }
+
+    private static void writeCache(StringBuilder out, String cache, String status, long value) {
+        out.append("httpclient_cache_responses_total{cache=\"").append(escape(cache))
+                .append("\",status=\"").append(status).append("\"} ").append(value).append('\n');
+    }
+
+    private void writeRouteSummaries(StringBuilder out, String name, String help,
+                                     Function<RouteMetrics, LatencySnapshot> latency) {
+        writeType(out, name, help, "summary");
+        for (RouteMetrics route : metrics.getRoutes()) {
+            writeSummaryValues(out, name, "route", route.getTarget(), latency.apply(route));
+        }
+    }
+
+    private static void writeSummary(StringBuilder out, String name, String help, String labelName,
+                                     String labelValue, LatencySnapshot snapshot) {
+        writeType(out, name, help, "summary");
+        writeSummaryValues(out, name, labelName, labelValue, snapshot);
+    }
+
+    private static void writeSummaryValues(StringBuilder out, String name, String labelName, String labelValue,
+                                           LatencySnapshot snapshot) {
+        String labels = labelName != null ? labelName + "=\"" + escape(labelValue) + "\"," : "";
+        writeQuantile(out, name, labels, "0.5", snapshot.getP50Millis());
+        writeQuantile(out, name, labels, "0.9", snapshot.getP90Millis());
+        writeQuantile(out, name, labels, "0.99", snapshot.getP99Millis());
+        writeQuantile(out, name, labels, "0.999", snapshot.getP999Millis());
+        String plainLabels = labelName != null ? "{" + labels.substring(0, labels.length() - 1) + "}" : "";
+        out.append(name).append("_sum").append(plainLabels).append(' ')
+                .append(snapshot.getSumMillis() / 1000).append('\n');
+        out.append(name).append("_count").append(plainLabels).append(' ').append(snapshot.getCount()).append('\n');
+    }
+
+    private static void writeQuantile(StringBuilder out, String name, String labels, String quantile, double millis) {
+        out.append(name).append('{').append(labels).append("quantile=\"").append(quantile).append("\"} ")
+                .append(millis / 1000).append('\n');
+    }
+
+    private static void writeType(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void writeSample(StringBuilder out, String name, String labelName, String labelValue, long value) {
+        out.append(name);
+        if (labelName != null) {
+            out.append('{').append(labelName).append("=\"").append(escape(labelValue)).append("\"}");
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * 停止HTTP端点
+     */
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package cays.httpclient.metrics;
+
+import org.apache.http.HttpHost;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个路由(目标主机)的请求指标
+ * <ul>
+ * <li>connect：TCP连接耗时</li>
+ * <li>tlsHandshake：TLS握手耗时</li>
+ * <li>leaseWait：从连接池获取连接的等待时间</li>
+ * <li>timeToFirstByte：开始发送请求到收到响应头</li>
+ * <li>total：从申请连接到响应体读完、连接归还连接池</li>
+ * </ul>
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 21:10
+ **/
+public class RouteMetrics implements RouteMetricsMXBean {
+    private final HttpHost target;
+    final LatencyRecorder connect = new LatencyRecorder();
+    final LatencyRecorder tlsHandshake = new LatencyRecorder();
+    final LatencyRecorder leaseWait = new LatencyRecorder();
+    final LatencyRecorder timeToFirstByte = new LatencyRecorder();
+    final LatencyRecorder total = new LatencyRecorder();
+    final LongAdder requests = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    final LongAdder bytesSent = new LongAdder();
+    final LongAdder bytesReceived = new LongAdder();
+    // 按状态码首位统计，下标1~5
+    private final LongAdder[] responses = new LongAdder[6];
+
+    RouteMetrics(HttpHost target) {
+        this.target = target;
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = new LongAdder();
+        }
+    }
+
+    void recordStatus(int statusCode) {
+        int statusClass = statusCode / 100;
+        if (statusClass > 0 && statusClass < responses.length) {
+            responses[statusClass].increment();
+        }
+    }
+
+    public HttpHost getHost() {
+        return target;
+    }
+
+    @Override
+    public String getTarget() {
+        return target.toURI();
+    }
+
+    @Override
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    @Override
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    @Override
+    public long getResponses2xx() {
+        return responses[2].sum();
+    }
+
+    @Override
+    public long getResponses3xx() {
+        return responses[3].sum();
+    }
+
+    @Override
+    public long getResponses4xx() {
+        return responses[4].sum();
+    }
+
+    @Override
+    public long getResponses5xx() {
+        return responses[5].sum();
+    }
+
+    /**
+     * 指定状态码首位的响应数
+     * @param statusClass 1~5
+     */
+    public long getResponses(int statusClass) {
+        return statusClass > 0 && statusClass < responses.length ? responses[statusClass].sum() : 0;
+    }
+
+    @Override
+    public LatencySnapshot getConnect() {
+        return connect.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getTlsHandshake() {
+        return tlsHandshake.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getLeaseWait() {
+        return leaseWait.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getTimeToFirstByte() {
+        return timeToFirstByte.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getTotal() {
+        return total.snapshot();
+    }
+
+    @Override
+    public String toString() {
+        return "[target=" + getTarget() + ", requests=" + getRequests() + ", errors=" + getErrors()
+                + ", bytesSent=" + getBytesSent() + ", bytesReceived=" + getBytesReceived()
+                + ", timeToFirstByte=" + getTimeToFirstByte() + ", total=" + getTotal() + "]";
+    }
+}
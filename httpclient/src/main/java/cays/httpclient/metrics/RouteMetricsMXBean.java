@@ -0,0 +1,37 @@
+package cays.httpclient.metrics;
+
+/**
+ * 单个路由的请求指标，通过JMX导出
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 21:10
+ **/
+public interface RouteMetricsMXBean {
+    String getTarget();
+
+    long getRequests();
+
+    long getErrors();
+
+    long getBytesSent();
+
+    long getBytesReceived();
+
+    long getResponses2xx();
+
+    long getResponses3xx();
+
+    long getResponses4xx();
+
+    long getResponses5xx();
+
+    LatencySnapshot getConnect();
+
+    LatencySnapshot getTlsHandshake();
+
+    LatencySnapshot getLeaseWait();
+
+    LatencySnapshot getTimeToFirstByte();
+
+    LatencySnapshot getTotal();
+}
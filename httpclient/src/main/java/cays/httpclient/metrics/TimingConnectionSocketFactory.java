@@ -0,0 +1,92 @@
+package cays.httpclient.metrics;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import javax.net.ssl.SSLSocket;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * 包装Socket工厂，分别记录TCP连接和TLS握手的耗时
+ * <p>
+ * SSL工厂的connectSocket把连接和握手放在一起，这里按相同的步骤拆开执行：
+ * 先建立普通Socket连接，再调用createLayeredSocket完成握手。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 21:15
+ **/
+class TimingConnectionSocketFactory implements LayeredConnectionSocketFactory {
+    private final ConnectionSocketFactory delegate;
+    private final HttpClientMetrics metrics;
+
+    TimingConnectionSocketFactory(ConnectionSocketFactory delegate, HttpClientMetrics metrics) {
+        this.delegate = Args.notNull(delegate, "Socket factory");
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Socket createSocket(HttpContext context) throws IOException {
+        return delegate.createSocket(context);
+    }
+
+    @Override
+    public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                InetSocketAddress localAddress, HttpContext context) throws IOException {
+        RouteMetrics route = metrics.forRoute(host);
+        Socket sock = socket != null ? socket : delegate.createSocket(context);
+        if (!(delegate instanceof LayeredConnectionSocketFactory) || sock instanceof SSLSocket) {
+            long start = System.nanoTime();
+            Socket connected = delegate.connectSocket(connectTimeout, sock, host, remoteAddress, localAddress, context);
+            route.connect.recordSince(start);
+            return connected;
+        }
+        if (localAddress != null) {
+            sock.bind(localAddress);
+        }
+        long start = System.nanoTime();
+        try {
+            // 与SSLConnectionSocketFactory相同，握手期间使用连接超时作为读超时
+            if (connectTimeout > 0 && sock.getSoTimeout() == 0) {
+                sock.setSoTimeout(connectTimeout);
+            }
+            sock.connect(remoteAddress, connectTimeout);
+        } catch (IOException e) {
+            try {
+                sock.close();
+            } catch (IOException ignore) {
+                // 忽略关闭时的异常
+            }
+            throw e;
+        }
+        route.connect.recordSince(start);
+        long handshakeStart = System.nanoTime();
+        Socket layered = ((LayeredConnectionSocketFactory) delegate).createLayeredSocket(
+                sock, host.getHostName(), remoteAddress.getPort(), context);
+        route.tlsHandshake.recordSince(handshakeStart);
+        return layered;
+    }
+
+    /**
+     * 通过代理隧道连接HTTPS时调用
+     */
+    @Override
+    public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+        if (!(delegate instanceof LayeredConnectionSocketFactory)) {
+            throw new IOException("Socket factory does not support layering: " + delegate);
+        }
+        long start = System.nanoTime();
+        Socket layered = ((LayeredConnectionSocketFactory) delegate).createLayeredSocket(socket, target, port, context);
+        Object route = context.getAttribute(HttpClientContext.HTTP_ROUTE);
+        if (route instanceof HttpRoute) {
+            metrics.forRoute(((HttpRoute) route).getTargetHost()).tlsHandshake.recordSince(start);
+        }
+        return layered;
+    }
+}
@@ -0,0 +1,39 @@
+package cays.httpclient.metrics;
+
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.util.Args;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 记录域名解析耗时的DnsResolver
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 21:15
+ **/
+class TimingDnsResolver implements DnsResolver {
+    private final DnsResolver delegate;
+    private final LatencyRecorder lookups;
+    private final LongAdder failures;
+
+    TimingDnsResolver(DnsResolver delegate, LatencyRecorder lookups, LongAdder failures) {
+        this.delegate = Args.notNull(delegate, "DNS resolver");
+        this.lookups = lookups;
+        this.failures = failures;
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        long start = System.nanoTime();
+        try {
+            return delegate.resolve(host);
+        } catch (UnknownHostException e) {
+            failures.increment();
+            throw e;
+        } finally {
+            lookups.recordSince(start);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package cays.httpclient.pool;
+
+import cays.httpclient.dns.DnsCacheConfig;
+import org.apache.http.HttpHost;
+import org.apache.http.util.Args;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 连接池配置，使用方式与CacheConfig一致：PoolConfig.custom()...build()
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 9:12
+ **/
+public final class PoolConfig {
+    public static final PoolConfig DEFAULT = custom().build();
+
+    private final int maxTotal;
+    private final int defaultMaxPerRoute;
+    private final Map<HttpHost, Integer> maxPerRoute;
+    private final int validateAfterInactivity;
+    private final long connectionTimeToLive;
+    private final long evictionInterval;
+    private final long maxIdleTime;
+    private final int connectTimeout;
+    private final int socketTimeout;
+    private final int connectionRequestTimeout;
+    private final DnsCacheConfig dnsCacheConfig;
+
+    private PoolConfig(Builder builder) {
+        this.maxTotal = builder.maxTotal;
+        this.defaultMaxPerRoute = builder.defaultMaxPerRoute;
+        this.maxPerRoute = Collections.unmodifiableMap(new LinkedHashMap<>(builder.maxPerRoute));
+        this.validateAfterInactivity = builder.validateAfterInactivity;
+        this.connectionTimeToLive = builder.connectionTimeToLive;
+        this.evictionInterval = builder.evictionInterval;
+        this.maxIdleTime = builder.maxIdleTime;
+        this.connectTimeout = builder.connectTimeout;
+        this.socketTimeout = builder.socketTimeout;
+        this.connectionRequestTimeout = builder.connectionRequestTimeout;
+        this.dnsCacheConfig = builder.dnsCacheConfig;
+    }
+
+    public static Builder custom() {
+        return new Builder();
+    }
+
+    /**
+     * 连接池最大连接数
+     */
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    /**
+     * 每个路由默认的最大连接数
+     */
+    public int getDefaultMaxPerRoute() {
+        return defaultMaxPerRoute;
+    }
+
+    /**
+     * 单独指定的路由最大连接数
+     */
+    public Map<HttpHost, Integer> getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    /**
+     * 连接空闲多久(毫秒)后再次使用前需要校验
+     */
+    public int getValidateAfterInactivity() {
+        return validateAfterInactivity;
+    }
+
+    /**
+     * 连接最长存活时间(毫秒)，小于等于0表示不限制
+     */
+    public long getConnectionTimeToLive() {
+        return connectionTimeToLive;
+    }
+
+    /**
+     * 后台清理过期、空闲连接的间隔(毫秒)
+     */
+    public long getEvictionInterval() {
+        return evictionInterval;
+    }
+
+    /**
+     * 连接最长空闲时间(毫秒)，超过后被后台线程关闭
+     */
+    public long getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public int getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    /**
+     * 从连接池获取连接的超时时间(毫秒)
+     */
+    public int getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    /**
+     * 新建连接时DNS解析结果的缓存配置，默认为null，不缓存，每次都调用InetAddress查询(仍有JVM自己的缓存)
+     */
+    public DnsCacheConfig getDnsCacheConfig() {
+        return dnsCacheConfig;
+    }
+
+    @Override
+    public String toString() {
+        return "[maxTotal=" + maxTotal +
+                ", defaultMaxPerRoute=" + defaultMaxPerRoute +
+                ", maxPerRoute=" + maxPerRoute +
+                ", validateAfterInactivity=" + validateAfterInactivity +
+                ", connectionTimeToLive=" + connectionTimeToLive +
+                ", evictionInterval=" + evictionInterval +
+                ", maxIdleTime=" + maxIdleTime +
+                ", connectTimeout=" + connectTimeout +
+                ", socketTimeout=" + socketTimeout +
+                ", connectionRequestTimeout=" + connectionRequestTimeout +
+                ", dnsCacheConfig=" + dnsCacheConfig +
+                "]";
+    }
+
+    public static class Builder {
+        private int maxTotal = 200;
+        private int defaultMaxPerRoute = 20;
+        private final Map<HttpHost, Integer> maxPerRoute = new LinkedHashMap<>();
+        private int validateAfterInactivity = 2000;
+        private long connectionTimeToLive = -1;
+        private long evictionInterval = 5000;
+        private long maxIdleTime = 30000;
+        private int connectTimeout = 5000;
+        private int socketTimeout = 30000;
+        private int connectionRequestTimeout = 5000;
+        private DnsCacheConfig dnsCacheConfig;
+
+        Builder() {
+        }
+
+        public Builder setMaxTotal(int maxTotal) {
+            this.maxTotal = Args.positive(maxTotal, "Max total");
+            return this;
+        }
+
+        public Builder setDefaultMaxPerRoute(int defaultMaxPerRoute) {
+            this.defaultMaxPerRoute = Args.positive(defaultMaxPerRoute, "Default max per route");
+            return this;
+        }
+
+        public Builder setMaxPerRoute(HttpHost host, int max) {
+            Args.notNull(host, "Host");
+            this.maxPerRoute.put(host, Args.positive(max, "Max per route"));
+            return this;
+        }
+
+        public Builder setValidateAfterInactivity(int validateAfterInactivity) {
+            this.validateAfterInactivity = validateAfterInactivity;
+            return this;
+        }
+
+        public Builder setConnectionTimeToLive(long connectionTimeToLive) {
+            this.connectionTimeToLive = connectionTimeToLive;
+            return this;
+        }
+
+        public Builder setEvictionInterval(long evictionInterval) {
+            this.evictionInterval = Args.positive(evictionInterval, "Eviction interval");
+            return this;
+        }
+
+        public Builder setMaxIdleTime(long maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+            return this;
+        }
+
+        public Builder setConnectTimeout(int connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        public Builder setSocketTimeout(int socketTimeout) {
+            this.socketTimeout = socketTimeout;
+            return this;
+        }
+
+        public Builder setConnectionRequestTimeout(int connectionRequestTimeout) {
+            this.connectionRequestTimeout = connectionRequestTimeout;
+            return this;
+        }
+
+        /**
+         * @param dnsCacheConfig 为null时不缓存DNS解析结果，与InetAddress缓存的关系见{@link DnsCacheConfig}
+         */
+        public Builder setDnsCacheConfig(DnsCacheConfig dnsCacheConfig) {
+            this.dnsCacheConfig = dnsCacheConfig;
+            return this;
+        }
+
+        public PoolConfig build() {
+            return new PoolConfig(this);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package cays.httpclient.pool;
+
+import cays.httpclient.dns.CachingDnsResolver;
+import cays.httpclient.metrics.HttpClientMetrics;
+import cays.httpclient.tls.TlsSocketFactory;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.client.IdleConnectionEvictor;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.Args;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 共享连接池的HttpClient工厂，线程安全，应该长期持有而不是每次请求都创建
+ * <p>
+ * 所有通过该工厂创建的HttpClient共用一个PoolingHttpClientConnectionManager，
+ * 关闭单个HttpClient不会关闭连接池，只有调用{@link #close()}才会释放所有连接。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 9:30
+ **/
+public class PooledHttpClientFactory implements Closeable {
+    private final PoolConfig config;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final HttpClientConnectionManager clientConnectionManager;
+    private final HttpClientMetrics metrics;
+    private final CachingDnsResolver dnsCache;
+    private final String poolName;
+    private final IdleConnectionEvictor connectionEvictor;
+    private final RequestConfig requestConfig;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    public PooledHttpClientFactory() {
+        this(PoolConfig.DEFAULT);
+    }
+
+    public PooledHttpClientFactory(PoolConfig config) {
+        this(config, defaultRegistry());
+    }
+
+    /**
+     * @param config 连接池配置
+     * @param socketFactoryRegistry 各协议对应的Socket工厂，例如自定义的SSL工厂
+     */
+    public PooledHttpClientFactory(PoolConfig config, Registry<ConnectionSocketFactory> socketFactoryRegistry) {
+        this(config, socketFactoryRegistry, null);
+    }
+
+    /**
+     * @param config 连接池配置
+     * @param socketFactoryRegistry 各协议对应的Socket工厂，例如自定义的SSL工厂
+     * @param metrics 采集请求指标，为null时不采集
+     */
+    public PooledHttpClientFactory(PoolConfig config, Registry<ConnectionSocketFactory> socketFactoryRegistry,
+                                   HttpClientMetrics metrics) {
+        this(config, socketFactoryRegistry, metrics, SystemDefaultDnsResolver.INSTANCE);
+    }
+
+    /**
+     * @param config 连接池配置
+     * @param socketFactoryRegistry 各协议对应的Socket工厂，例如自定义的SSL工厂
+     * @param metrics 采集请求指标，为null时不采集
+     * @param dnsResolver 实际查询DNS的解析器，例如固定主机映射的InMemoryDnsResolver，
+     *                    按{@link PoolConfig#getDnsCacheConfig()}在外面加缓存
+     */
+    public PooledHttpClientFactory(PoolConfig config, Registry<ConnectionSocketFactory> socketFactoryRegistry,
+                                   HttpClientMetrics metrics, DnsResolver dnsResolver) {
+        this.config = Args.notNull(config, "Pool config");
+        Args.notNull(socketFactoryRegistry, "Socket factory registry");
+        Args.notNull(dnsResolver, "DNS resolver");
+        this.metrics = metrics;
+        if (metrics != null) {
+            socketFactoryRegistry = metrics.instrument(socketFactoryRegistry);
+            // 只统计实际的DNS查询，缓存命中不计入
+            dnsResolver = metrics.instrument(dnsResolver);
+        }
+        if (config.getDnsCacheConfig() != null) {
+            this.dnsCache = new CachingDnsResolver(dnsResolver, config.getDnsCacheConfig());
+            dnsResolver = dnsCache;
+        } else {
+            this.dnsCache = null;
+        }
+        this.connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry,
+                null, null, dnsResolver, config.getConnectionTimeToLive(), TimeUnit.MILLISECONDS);
+        this.connectionManager.setMaxTotal(config.getMaxTotal());
+        this.connectionManager.setDefaultMaxPerRoute(config.getDefaultMaxPerRoute());
+        for (Map.Entry<HttpHost, Integer> entry : config.getMaxPerRoute().entrySet()) {
+            this.connectionManager.setMaxPerRoute(new HttpRoute(entry.getKey()), entry.getValue());
+        }
+        // 空闲超过一定时间的连接在复用前先校验是否可用，避免拿到已被服务端关闭的连接
+        this.connectionManager.setValidateAfterInactivity(config.getValidateAfterInactivity());
+        this.requestConfig = RequestConfig.custom()
+                .setConnectTimeout(config.getConnectTimeout())
+                .setSocketTimeout(config.getSocketTimeout())
+                .setConnectionRequestTimeout(config.getConnectionRequestTimeout())
+                .build();
+        // 后台线程定期清理过期和空闲连接
+        this.connectionEvictor = new IdleConnectionEvictor(this.connectionManager,
+                config.getEvictionInterval(), TimeUnit.MILLISECONDS,
+                config.getMaxIdleTime(), TimeUnit.MILLISECONDS);
+        this.connectionEvictor.start();
+        if (metrics != null) {
+            this.clientConnectionManager = metrics.instrument(connectionManager);
+            this.poolName = metrics.addPool(connectionManager);
+        } else {
+            this.clientConnectionManager = connectionManager;
+            this.poolName = null;
+        }
+    }
+
+    /**
+     * 进程内默认共享的工厂，JVM退出时自动关闭
+     */
+    public static PooledHttpClientFactory getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    private static Registry<ConnectionSocketFactory> defaultRegistry() {
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                // 共享的TLS工厂，所有连接池共用SSLContext和会话缓存
+                .register("https", TlsSocketFactory.getDefault())
+                .build();
+    }
+
+    /**
+     * 创建使用共享连接池的HttpClientBuilder，可以继续添加拦截器、重试策略等
+     */
+    public HttpClientBuilder custom() {
+        return configure(HttpClients.custom());
+    }
+
+    /**
+     * 给已有的builder(例如CachingHttpClients.custom())设置共享连接池
+     * @param builder HttpClientBuilder或其子类
+     * @return 传入的builder
+     */
+    public <B extends HttpClientBuilder> B configure(B builder) {
+        ensureOpen();
+        builder.setConnectionManager(clientConnectionManager)
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(requestConfig);
+        if (metrics != null) {
+            metrics.configure(builder);
+        }
+        return builder;
+    }
+
+    /**
+     * 创建默认配置的HttpClient
+     */
+    public CloseableHttpClient createClient() {
+        return custom().build();
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    public RequestConfig getRequestConfig() {
+        return requestConfig;
+    }
+
+    public PoolingHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    /**
+     * 请求指标，没有采集时返回null
+     */
+    public HttpClientMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * DNS缓存，配置为不缓存时返回null
+     */
+    public CachingDnsResolver getDnsCache() {
+        return dnsCache;
+    }
+
+    /**
+     * 连接池当前的租用、可用、等待数量
+     */
+    public PoolStats getTotalStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    private void ensureOpen() {
+        if (closed.get()) {
+            throw new IllegalStateException("Connection pool shut down");
+        }
+    }
+
+    /**
+     * 停止后台清理线程并关闭所有连接
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            connectionEvictor.shutdown();
+            try {
+                connectionEvictor.awaitTermination(config.getEvictionInterval(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            connectionManager.shutdown();
+            if (dnsCache != null) {
+                dnsCache.close();
+            }
+            if (poolName != null) {
+                metrics.removePool(poolName);
+            }
+        }
+    }
+
+    private static class DefaultHolder {
+        private static final PooledHttpClientFactory INSTANCE = new PooledHttpClientFactory(PoolConfig.DEFAULT,
+                defaultRegistry(), HttpClientMetrics.getDefault());
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::close, "http-client-pool-shutdown"));
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package cays.httpclient.ratelimit;
+
+import cays.httpclient.retry.RetryAfterStrategy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.Header;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.util.Args;
+
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 单个目标主机的限流和排队
+ * <p>
+ * 没有请求排队时直接从无锁的令牌桶获取令牌。令牌不足时请求进入队列，先按优先级通道排序，同一通道内按加权公平队列(WFQ)
+ * 排序：每个请求的虚拟完成时间为max(当前虚拟时间, 所在分组上一个请求的完成时间) + 1/权重，
+ * 权重为2的分组得到的令牌是权重为1的分组的两倍，单个分组的大量请求不会让其他分组饿死。
+ * <p>
+ * 收到429/503的Retry-After时在指定时间内暂停发放令牌；X-RateLimit-Remaining为0时暂停到X-RateLimit-Reset，
+ * 剩余配额不够按配置的速率用到窗口结束时，把速率降到剩余配额/剩余时间，窗口结束后恢复。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 13:50
+ **/
+public class HostRateLimiter {
+    // HttpStatus中没有429
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+    private static final long MAX_PAUSE_NANOS = TimeUnit.DAYS.toNanos(1);
+
+    private final Log log = LogFactory.getLog(getClass());
+    private final HttpHost target;
+    private final RateLimitConfig config;
+    private final double configuredRate;
+    private final TokenBucket bucket;
+    private final long maxWaitNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    // 以下字段只在持有锁时访问
+    private final Map<String, Double> groupFinish = new HashMap<>();
+    private double virtualTime;
+    private long sequence;
+    // 服务端要求降低速率时，恢复配置速率的时间，0表示没有调整
+    private volatile long restoreRateAt;
+    private final LongAdder immediate = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    public HostRateLimiter(HttpHost target, RateLimitConfig config) {
+        this.target = Args.notNull(target, "Target host");
+        this.config = Args.notNull(config, "Rate limit config");
+        this.configuredRate = config.getRate(target.getHostName());
+        this.bucket = new TokenBucket(configuredRate, config.getBurst(target.getHostName()));
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(config.getMaxWait());
+    }
+
+    /**
+     * 获取发送一个请求的许可，令牌不足时按优先级和分组排队等待
+     * @param group 调用方分组
+     * @param priority 优先级通道
+     * @throws RateLimitExceededException 在maxWait内拿不到令牌
+     * @throws InterruptedIOException 等待时线程被中断
+     */
+    public void acquire(String group, RequestPriority priority)
+            throws RateLimitExceededException, InterruptedIOException {
+        Args.notNull(group, "Group");
+        Args.notNull(priority, "Priority");
+        long start = System.nanoTime();
+        restoreRate(start);
+        if (waiting.get() == 0 && bucket.tryAcquire(start) == 0) {
+            immediate.increment();
+            return;
+        }
+        long deadline = start + maxWaitNanos;
+        lock.lock();
+        try {
+            Waiter waiter = enqueue(group, priority);
+            waiting.incrementAndGet();
+            boolean granted = false;
+            try {
+                while (true) {
+                    long now = System.nanoTime();
+                    long remaining = deadline - now;
+                    long wait = remaining;
+                    if (waiters.peek() == waiter) {
+                        wait = bucket.tryAcquire(now);
+                        if (wait == 0) {
+                            granted = true;
+                            grant(waiter, now - start);
+                            return;
+                        }
+                    }
+                    if (wait > remaining || remaining <= 0) {
+                        rejected.increment();
+                        throw new RateLimitExceededException(target, "Rate limit for " + target
+                                + " would delay the request beyond " + config.getMaxWait() + " ms");
+                    }
+                    changed.awaitNanos(wait);
+                }
+            } finally {
+                waiting.decrementAndGet();
+                if (!granted) {
+                    waiters.remove(waiter);
+                    changed.signalAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for rate limit of " + target);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Waiter enqueue(String group, RequestPriority priority) {
+        Double last = groupFinish.get(group);
+        double start = last != null && last > virtualTime ? last : virtualTime;
+        double finish = start + 1.0 / config.getGroupWeight(group);
+        groupFinish.put(group, finish);
+        Waiter waiter = new Waiter(priority, finish, sequence++);
+        waiters.add(waiter);
+        // 新的请求可能排在队首前面，唤醒队首重新检查
+        changed.signalAll();
+        return waiter;
+    }
+
+    private void grant(Waiter waiter, long waited) {
+        waiters.poll();
+        if (waiter.finish > virtualTime) {
+            virtualTime = waiter.finish;
+        }
+        if (waiters.isEmpty()) {
+            // 没有排队的请求时各分组重新开始
+            groupFinish.clear();
+            virtualTime = 0;
+        }
+        delayed.increment();
+        waitNanos.add(waited);
+        changed.signalAll();
+    }
+
+    /**
+     * 根据响应调整发放令牌的速度
+     */
+    public void onResponse(HttpResponse response) {
+        Args.notNull(response, "HTTP response");
+        long now = System.nanoTime();
+        int status = response.getStatusLine().getStatusCode();
+        if (status == SC_TOO_MANY_REQUESTS || status == HttpStatus.SC_SERVICE_UNAVAILABLE) {
+            throttled.increment();
+            long retryAfter = RetryAfterStrategy.retryAfter(response);
+            if (retryAfter >= 0) {
+                pause(now, retryAfter, "Retry-After");
+            }
+        }
+        long remaining = longHeader(response, "X-RateLimit-Remaining", "RateLimit-Remaining");
+        long reset = resetMillis(longHeader(response, "X-RateLimit-Reset", "RateLimit-Reset"));
+        if (remaining < 0 || reset < 0) {
+            return;
+        }
+        if (remaining == 0) {
+            pause(now, reset, "X-RateLimit-Reset");
+        } else if (reset > 0) {
+            double serverRate = remaining * 1000.0 / reset;
+            if (serverRate < configuredRate) {
+                bucket.setRate(serverRate);
+                restoreRateAt = now + TimeUnit.MILLISECONDS.toNanos(reset);
+            }
+        }
+    }
+
+    private void pause(long now, long millis, String reason) {
+        // 超过一天的暂停按一天计算，避免now加上饱和的纳秒数后溢出
+        bucket.pauseUntil(now + Math.min(TimeUnit.MILLISECONDS.toNanos(millis), MAX_PAUSE_NANOS));
+        if (log.isInfoEnabled()) {
+            log.info("Requests to " + target + " paused for " + millis + " ms (" + reason + ")");
+        }
+    }
+
+    private void restoreRate(long now) {
+        long restoreAt = restoreRateAt;
+        if (restoreAt != 0 && now - restoreAt >= 0) {
+            restoreRateAt = 0;
+            bucket.setRate(configuredRate);
+        }
+    }
+
+    private static long longHeader(HttpResponse response, String name, String alternative) {
+        Header header = response.getFirstHeader(name);
+        if (header == null) {
+            header = response.getFirstHeader(alternative);
+        }
+        if (header == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(header.getValue().trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 重置时间有的服务为剩余秒数，有的(例如GitHub)为UNIX时间戳，统一转成剩余毫秒数
+     */
+    private static long resetMillis(long reset) {
+        if (reset < 0) {
+            return -1;
+        }
+        if (reset > 1000000000L) {
+            return Math.max(0, TimeUnit.SECONDS.toMillis(reset) - System.currentTimeMillis());
+        }
+        return TimeUnit.SECONDS.toMillis(reset);
+    }
+
+    public HttpHost getTarget() {
+        return target;
+    }
+
+    /**
+     * 当前发放令牌的速率，服务端要求降速时低于配置的速率
+     */
+    public double getRate() {
+        return bucket.getRate();
+    }
+
+    public int getAvailableTokens() {
+        return bucket.getAvailableTokens();
+    }
+
+    /**
+     * 正在排队的请求数
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * 不需要排队直接放行的请求数
+     */
+    public long getImmediate() {
+        return immediate.sum();
+    }
+
+    /**
+     * 排队后放行的请求数
+     */
+    public long getDelayed() {
+        return delayed.sum();
+    }
+
+    /**
+     * 等待超时被拒绝的请求数
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * 收到429/503的次数
+     */
+    public long getThrottled() {
+        return throttled.sum();
+    }
+
+    /**
+     * 排队后放行的请求的平均等待时间(毫秒)
+     */
+    public double getMeanWaitMillis() {
+        long count = delayed.sum();
+        return count == 0 ? 0 : waitNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return "[target=" + target + ", rate=" + getRate() + ", immediate=" + getImmediate()
+                + ", delayed=" + getDelayed() + ", rejected=" + getRejected() + ", throttled=" + getThrottled()
+                + ", meanWait=" + String.format("%.2f", getMeanWaitMillis()) + "ms]";
+    }
+
+    /**
+     * 排队的请求，先按优先级，再按虚拟完成时间，最后按到达顺序
+     */
+    private static final class Waiter implements Comparable<Waiter> {
+        private final RequestPriority priority;
+        private final double finish;
+        private final long sequence;
+
+        private Waiter(RequestPriority priority, double finish, long sequence) {
+            this.priority = priority;
+            this.finish = finish;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            if (priority != other.priority) {
+                return priority.compareTo(other.priority);
+            }
+            if (finish != other.finish) {
+                return Double.compare(finish, other.finish);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package cays.httpclient.ratelimit;
+
+import org.apache.http.util.Args;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 限流配置，使用方式与PoolConfig一致：RateLimitConfig.custom()...build()
+ * <p>
+ * 每个目标主机一个令牌桶，可以为单独的主机设置不同的速率。调用方分组的权重决定令牌不足时各组分到的比例。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 13:45
+ **/
+public final class RateLimitConfig {
+    public static final RateLimitConfig DEFAULT = custom().build();
+
+    private final double rate;
+    private final int burst;
+    private final Map<String, Double> hostRates;
+    private final Map<String, Integer> hostBursts;
+    private final Map<String, Integer> groupWeights;
+    private final long maxWait;
+    private final boolean adaptive;
+
+    private RateLimitConfig(Builder builder) {
+        this.rate = builder.rate;
+        this.burst = builder.burst;
+        this.hostRates = Collections.unmodifiableMap(new HashMap<>(builder.hostRates));
+        this.hostBursts = Collections.unmodifiableMap(new HashMap<>(builder.hostBursts));
+        this.groupWeights = Collections.unmodifiableMap(new HashMap<>(builder.groupWeights));
+        this.maxWait = builder.maxWait;
+        this.adaptive = builder.adaptive;
+    }
+
+    public static Builder custom() {
+        return new Builder();
+    }
+
+    /**
+     * 默认每个主机每秒的请求数
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * 默认每个主机最多连续发出的请求数
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * 指定主机的速率，没有单独设置时为默认值
+     */
+    public double getRate(String host) {
+        Double hostRate = hostRates.get(host.toLowerCase(Locale.ROOT));
+        return hostRate != null ? hostRate : rate;
+    }
+
+    public int getBurst(String host) {
+        Integer hostBurst = hostBursts.get(host.toLowerCase(Locale.ROOT));
+        return hostBurst != null ? hostBurst : burst;
+    }
+
+    /**
+     * 调用方分组的权重，没有设置的分组为1
+     */
+    public int getGroupWeight(String group) {
+        Integer weight = groupWeights.get(group);
+        return weight != null ? weight : 1;
+    }
+
+    /**
+     * 请求最多排队等待的时间(毫秒)，超过时抛出RateLimitExceededException
+     */
+    public long getMaxWait() {
+        return maxWait;
+    }
+
+    /**
+     * 是否根据Retry-After和X-RateLimit-*响应头调整速率
+     */
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    @Override
+    public String toString() {
+        return "[rate=" + rate +
+                ", burst=" + burst +
+                ", hostRates=" + hostRates +
+                ", groupWeights=" + groupWeights +
+                ", maxWait=" + maxWait +
+                ", adaptive=" + adaptive +
+                "]";
+    }
+
+    public static class Builder {
+        private double rate = 100;
+        private int burst = 10;
+        private final Map<String, Double> hostRates = new HashMap<>();
+        private final Map<String, Integer> hostBursts = new HashMap<>();
+        private final Map<String, Integer> groupWeights = new HashMap<>();
+        private long maxWait = 30000;
+        private boolean adaptive = true;
+
+        Builder() {
+        }
+
+        public Builder setRate(double rate) {
+            Args.check(rate > 0, "Rate must be positive");
+            this.rate = rate;
+            return this;
+        }
+
+        public Builder setBurst(int burst) {
+            this.burst = Args.positive(burst, "Burst");
+            return this;
+        }
+
+        /**
+         * 单独设置某个主机的速率，例如配额不同的第三方接口
+         */
+        public Builder setRate(String host, double rate, int burst) {
+            Args.notBlank(host, "Host");
+            Args.check(rate > 0, "Rate must be positive");
+            String key = host.toLowerCase(Locale.ROOT);
+            hostRates.put(key, rate);
+            hostBursts.put(key, Args.positive(burst, "Burst"));
+            return this;
+        }
+
+        public Builder setGroupWeight(String group, int weight) {
+            Args.notBlank(group, "Group");
+            groupWeights.put(group, Args.positive(weight, "Group weight"));
+            return this;
+        }
+
+        public Builder setMaxWait(long maxWait) {
+            this.maxWait = Args.notNegative(maxWait, "Max wait");
+            return this;
+        }
+
+        public Builder setAdaptive(boolean adaptive) {
+            this.adaptive = adaptive;
+            return this;
+        }
+
+        public RateLimitConfig build() {
+            return new RateLimitConfig(this);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package cays.httpclient.ratelimit;
+
+import org.apache.http.HttpHost;
+
+import java.io.IOException;
+
+/**
+ * 请求在限流队列中等待超过maxWait，没有发送到服务端
+ * <p>
+ * 继承IOException，调用方现有的异常处理不需要修改。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 13:40
+ **/
+public class RateLimitExceededException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final HttpHost target;
+
+    public RateLimitExceededException(HttpHost target, String message) {
+        super(message);
+        this.target = target;
+    }
+
+    public HttpHost getTarget() {
+        return target;
+    }
+}
@@ -0,0 +1,41 @@
+package cays.httpclient.ratelimit;
+
+import org.apache.http.HttpHost;
+import org.apache.http.util.Args;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按路由(目标主机)保存限流器，第一次访问时创建，多个HttpClient共用时共享同一个配额
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 13:55
+ **/
+public class RateLimiterRegistry {
+    private final RateLimitConfig config;
+    private final ConcurrentHashMap<HttpHost, HostRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    public RateLimiterRegistry() {
+        this(RateLimitConfig.DEFAULT);
+    }
+
+    public RateLimiterRegistry(RateLimitConfig config) {
+        this.config = Args.notNull(config, "Rate limit config");
+    }
+
+    public HostRateLimiter get(HttpHost target) {
+        Args.notNull(target, "Target host");
+        HostRateLimiter limiter = limiters.get(target);
+        return limiter != null ? limiter : limiters.computeIfAbsent(target, host -> new HostRateLimiter(host, config));
+    }
+
+    public Collection<HostRateLimiter> getAll() {
+        return Collections.unmodifiableCollection(limiters.values());
+    }
+
+    public RateLimitConfig getConfig() {
+        return config;
+    }
+}
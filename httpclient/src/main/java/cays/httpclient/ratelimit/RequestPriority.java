@@ -0,0 +1,19 @@
+package cays.httpclient.ratelimit;
+
+/**
+ * 请求的优先级通道，令牌不足时高优先级的请求总是先于低优先级的请求发出
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 13:30
+ **/
+public enum RequestPriority {
+    /**
+     * 用户正在等待结果的请求
+     */
+    INTERACTIVE,
+    NORMAL,
+    /**
+     * 批量导入、文件上传等可以等待的请求
+     */
+    BULK
+}
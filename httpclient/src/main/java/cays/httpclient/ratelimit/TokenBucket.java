@@ -0,0 +1,97 @@
+package cays.httpclient.ratelimit;
+
+import org.apache.http.util.Args;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁的令牌桶，按GCRA(通用信元速率算法)实现
+ * <p>
+ * 只保存下一个令牌的理论到达时间，获取令牌时CAS向后推进一个间隔，不需要定时补充令牌，也不加锁。
+ * 到达时间最多比当前时间提前(burst - 1)个间隔，即最多连续发出burst个请求。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 13:35
+ **/
+public class TokenBucket {
+    private final int burst;
+    private final AtomicLong arrival;
+    private volatile double rate;
+    private volatile long intervalNanos;
+    private volatile long toleranceNanos;
+
+    /**
+     * @param rate 每秒的令牌数
+     * @param burst 最多连续获取的令牌数
+     */
+    public TokenBucket(double rate, int burst) {
+        this.burst = Args.positive(burst, "Burst");
+        setRate(rate);
+        this.arrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * 尝试获取一个令牌
+     * @param now System.nanoTime()
+     * @return 0表示已获取，否则为还需要等待的纳秒数，没有消耗令牌
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = arrival.get();
+            long start = current - now > 0 ? current : now;
+            long wait = start - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 在until之前不再发放令牌，之后令牌重新逐个积累，用于服务端要求暂停的情况
+     * @param until System.nanoTime()时间
+     */
+    public void pauseUntil(long until) {
+        while (true) {
+            long current = arrival.get();
+            long paused = until + toleranceNanos;
+            if (current - paused >= 0 || arrival.compareAndSet(current, paused)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 修改速率，已经发出的令牌不受影响
+     */
+    public void setRate(double rate) {
+        Args.check(rate > 0, "Rate must be positive");
+        long interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+        this.rate = rate;
+        this.intervalNanos = interval;
+        this.toleranceNanos = interval * (burst - 1);
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * 当前可以立即获取的令牌数
+     */
+    public int getAvailableTokens() {
+        long ahead = arrival.get() - System.nanoTime();
+        if (ahead <= 0) {
+            return burst;
+        }
+        long available = (toleranceNanos - ahead) / intervalNanos + 1;
+        return (int) Math.max(0, Math.min(burst, available));
+    }
+}
@@ -0,0 +1,61 @@
+package cays.httpclient.retry;
+
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.Args;
+
+/**
+ * 自适应重试，把退避、重试预算、I/O异常重试和状态码重试组合在一起配置到HttpClientBuilder上
+ * <p>
+ * 同一个实例可以配置到多个HttpClient上，这些客户端共用每个路由的重试预算。
+ * <pre>
+ * AdaptiveRetry retry = new AdaptiveRetry(RetryConfig.DEFAULT);
+ * CloseableHttpClient client = retry.configure(clientFactory.custom()).build();
+ * </pre>
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 19:10
+ **/
+public class AdaptiveRetry {
+    private final RetryConfig config;
+    private final RetryBudget budget;
+    private final AdaptiveRetryHandler retryHandler;
+    private final RetryAfterStrategy retryAfterStrategy;
+
+    public AdaptiveRetry() {
+        this(RetryConfig.DEFAULT);
+    }
+
+    public AdaptiveRetry(RetryConfig config) {
+        this.config = Args.notNull(config, "Retry config");
+        DecorrelatedJitterBackoff backoff = new DecorrelatedJitterBackoff(config.getBaseDelay(), config.getMaxDelay());
+        this.budget = new RetryBudget(config.getBudgetRatio(), config.getBudgetMaxTokens());
+        this.retryHandler = new AdaptiveRetryHandler(config.getMaxRetries(), backoff, budget);
+        this.retryAfterStrategy = new RetryAfterStrategy(config, backoff, budget);
+    }
+
+    /**
+     * 注册统计请求数的拦截器、I/O异常重试和状态码重试
+     */
+    public <B extends HttpClientBuilder> B configure(B builder) {
+        builder.addInterceptorFirst(budget)
+                .setRetryHandler(retryHandler)
+                .setServiceUnavailableRetryStrategy(retryAfterStrategy);
+        return builder;
+    }
+
+    public RetryConfig getConfig() {
+        return config;
+    }
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    public AdaptiveRetryHandler getRetryHandler() {
+        return retryHandler;
+    }
+
+    public RetryAfterStrategy getRetryAfterStrategy() {
+        return retryAfterStrategy;
+    }
+}
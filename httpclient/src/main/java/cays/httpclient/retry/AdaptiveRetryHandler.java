@@ -0,0 +1,73 @@
+package cays.httpclient.retry;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.HttpRequestRetryHandler;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * I/O异常重试：退避等待后再重试，重试次数同时受单个请求的上限和路由的重试预算限制
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 19:00
+ **/
+public class AdaptiveRetryHandler implements HttpRequestRetryHandler {
+    // 外部打断(包括超时)、未知主机名、证书问题，重试也不会成功
+    private static final List<Class<? extends IOException>> NON_RETRIABLE = Arrays.asList(
+            InterruptedIOException.class, UnknownHostException.class, SSLException.class);
+
+    private final Log log = LogFactory.getLog(getClass());
+    private final int maxRetries;
+    private final DecorrelatedJitterBackoff backoff;
+    private final RetryBudget budget;
+
+    public AdaptiveRetryHandler(int maxRetries, DecorrelatedJitterBackoff backoff, RetryBudget budget) {
+        this.maxRetries = Args.notNegative(maxRetries, "Max retries");
+        this.backoff = Args.notNull(backoff, "Backoff");
+        this.budget = Args.notNull(budget, "Retry budget");
+    }
+
+    @Override
+    public boolean retryRequest(IOException exception, int executionCount, HttpContext context) {
+        if (executionCount > maxRetries) {
+            return false;
+        }
+        for (Class<? extends IOException> type : NON_RETRIABLE) {
+            if (type.isInstance(exception)) {
+                return false;
+            }
+        }
+        HttpClientContext clientContext = HttpClientContext.adapt(context);
+        HttpRequest request = clientContext.getRequest();
+        // 非幂等请求只有在请求还没有发出时才重试
+        if (!RetryRequests.isIdempotent(request) && clientContext.isRequestSent()) {
+            return false;
+        }
+        if (!budget.tryAcquire(clientContext.getTargetHost())) {
+            log.warn("Retry budget exhausted for " + clientContext.getTargetHost() + ", not retrying: " + exception);
+            return false;
+        }
+        long delay = backoff.nextDelay(context);
+        if (log.isInfoEnabled()) {
+            log.info("I/O exception (" + exception.getClass().getName() + ") caught: " + exception.getMessage()
+                    + ", retry " + executionCount + "/" + maxRetries + " in " + delay + " ms");
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,58 @@
+package cays.httpclient.retry;
+
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 带去相关抖动(decorrelated jitter)的指数退避
+ * <p>
+ * 下一次等待时间在[base, 上一次等待时间 * 3]之间随机选取，不超过max。
+ * 等待时间整体指数增长，同时各个客户端的重试时间被打散，不会在同一时刻一起重试。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 18:45
+ **/
+public class DecorrelatedJitterBackoff {
+    // 同一个请求上一次的等待时间保存在HttpContext中，I/O异常重试和状态码重试共用
+    private static final String PREVIOUS_DELAY = "http.retry.previous-delay";
+
+    private final long baseDelay;
+    private final long maxDelay;
+
+    public DecorrelatedJitterBackoff(long baseDelay, long maxDelay) {
+        this.baseDelay = Args.positive(baseDelay, "Base delay");
+        this.maxDelay = Args.positive(maxDelay, "Max delay");
+    }
+
+    /**
+     * @param previousDelay 上一次的等待时间(毫秒)，第一次重试传0
+     * @return 下一次的等待时间(毫秒)
+     */
+    public long nextDelay(long previousDelay) {
+        long upper = Math.min(maxDelay, Math.max(baseDelay, previousDelay) * 3);
+        if (upper <= baseDelay) {
+            return baseDelay;
+        }
+        return ThreadLocalRandom.current().nextLong(baseDelay, upper + 1);
+    }
+
+    /**
+     * 根据保存在HttpContext中的上一次等待时间计算下一次等待时间
+     */
+    public long nextDelay(HttpContext context) {
+        Object previous = context.getAttribute(PREVIOUS_DELAY);
+        long delay = nextDelay(previous instanceof Long ? (Long) previous : 0);
+        context.setAttribute(PREVIOUS_DELAY, delay);
+        return delay;
+    }
+
+    public long getBaseDelay() {
+        return baseDelay;
+    }
+
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+}
@@ -0,0 +1,97 @@
+package cays.httpclient.retry;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ServiceUnavailableRetryStrategy;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 状态码重试：429、503等响应按服务端的Retry-After等待后重试，没有Retry-After时使用退避时间
+ * <p>
+ * Retry-After超过上限时不重试，直接把响应返回给调用方。
+ * 等待由HttpClient在retryRequest之后调用getRetryInterval完成，两次调用在同一个线程中，
+ * 计算出的等待时间通过ThreadLocal传递。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 19:05
+ **/
+public class RetryAfterStrategy implements ServiceUnavailableRetryStrategy {
+    private final Log log = LogFactory.getLog(getClass());
+    private final int maxRetries;
+    private final Set<Integer> retryableStatusCodes;
+    private final long maxRetryAfter;
+    private final DecorrelatedJitterBackoff backoff;
+    private final RetryBudget budget;
+    private final ThreadLocal<Long> retryInterval = ThreadLocal.withInitial(() -> 0L);
+
+    public RetryAfterStrategy(RetryConfig config, DecorrelatedJitterBackoff backoff, RetryBudget budget) {
+        Args.notNull(config, "Retry config");
+        this.maxRetries = config.getMaxRetries();
+        this.retryableStatusCodes = config.getRetryableStatusCodes();
+        this.maxRetryAfter = config.getMaxRetryAfter();
+        this.backoff = Args.notNull(backoff, "Backoff");
+        this.budget = Args.notNull(budget, "Retry budget");
+    }
+
+    @Override
+    public boolean retryRequest(HttpResponse response, int executionCount, HttpContext context) {
+        int status = response.getStatusLine().getStatusCode();
+        if (!retryableStatusCodes.contains(status) || executionCount > maxRetries) {
+            return false;
+        }
+        HttpClientContext clientContext = HttpClientContext.adapt(context);
+        if (!RetryRequests.isIdempotent(clientContext.getRequest())) {
+            return false;
+        }
+        long retryAfter = retryAfter(response);
+        if (retryAfter > maxRetryAfter) {
+            log.warn("Retry-After " + retryAfter + " ms exceeds " + maxRetryAfter + " ms, not retrying");
+            return false;
+        }
+        if (!budget.tryAcquire(clientContext.getTargetHost())) {
+            log.warn("Retry budget exhausted for " + clientContext.getTargetHost() + ", not retrying: " + status);
+            return false;
+        }
+        long delay = retryAfter >= 0 ? retryAfter : backoff.nextDelay(context);
+        retryInterval.set(delay);
+        if (log.isInfoEnabled()) {
+            log.info("Status " + status + " received, retry " + executionCount + "/" + maxRetries
+                    + " in " + delay + " ms");
+        }
+        return true;
+    }
+
+    @Override
+    public long getRetryInterval() {
+        return retryInterval.get();
+    }
+
+    /**
+     * 解析Retry-After，支持秒数和HTTP日期两种格式
+     * @return 等待的毫秒数，没有或无法解析时返回-1
+     */
+    public static long retryAfter(HttpResponse response) {
+        Header header = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+        if (header == null) {
+            return -1;
+        }
+        String value = header.getValue().trim();
+        try {
+            // 超大的秒数饱和为Long.MAX_VALUE，不会溢出成负数再被当作0
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            Date date = DateUtils.parseDate(value);
+            return date != null ? Math.max(0, date.getTime() - System.currentTimeMillis()) : -1;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package cays.httpclient.retry;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.client.methods.HttpRequestWrapper;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按路由(目标主机)计算的重试预算，用令牌桶限制重试占正常流量的比例
+ * <p>
+ * 每个新请求向所在路由的桶中存入ratio个令牌，每次重试取出一个令牌，桶空时不再重试。
+ * 后端故障时所有请求都失败，重试数最多为请求数的ratio倍，不会成倍放大后端的压力。
+ * 桶的初始令牌数等于容量，流量很小时也可以重试。
+ * <p>
+ * 作为请求拦截器注册到HttpClient上统计请求数，同一个请求的重试不会重复存入。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 18:50
+ **/
+public class RetryBudget implements HttpRequestInterceptor {
+    private static final String DEPOSITED = "http.retry-budget.deposited";
+    // 令牌以千分之一为单位保存，使用整数原子操作
+    private static final long UNIT = 1000;
+
+    private final long depositPerRequest;
+    private final long capacity;
+    private final ConcurrentHashMap<HttpHost, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param ratio 重试数占请求数的比例上限
+     * @param maxTokens 每个路由的桶容量
+     */
+    public RetryBudget(double ratio, int maxTokens) {
+        Args.check(ratio >= 0 && ratio <= 1, "Ratio must be between 0 and 1");
+        this.depositPerRequest = Math.round(ratio * UNIT);
+        this.capacity = Args.notNegative(maxTokens, "Max tokens") * UNIT;
+    }
+
+    /**
+     * 每次执行请求时调用，重试时原始请求相同，不再存入令牌
+     */
+    @Override
+    public void process(HttpRequest request, HttpContext context) {
+        HttpClientContext clientContext = HttpClientContext.adapt(context);
+        HttpHost target = clientContext.getTargetHost();
+        if (target == null) {
+            return;
+        }
+        Object original = request instanceof HttpRequestWrapper ? ((HttpRequestWrapper) request).getOriginal() : request;
+        if (context.getAttribute(DEPOSITED) == original) {
+            return;
+        }
+        context.setAttribute(DEPOSITED, original);
+        deposit(target);
+    }
+
+    /**
+     * 为一个新请求存入令牌，不经过拦截器统计请求数时直接调用
+     */
+    public void deposit(HttpHost target) {
+        AtomicLong bucket = bucket(target);
+        long current;
+        do {
+            current = bucket.get();
+            if (current >= capacity) {
+                return;
+            }
+        } while (!bucket.compareAndSet(current, Math.min(capacity, current + depositPerRequest)));
+    }
+
+    /**
+     * 尝试为一次重试取出令牌
+     * @return false表示预算已用完，不应重试
+     */
+    public boolean tryAcquire(HttpHost target) {
+        if (target == null) {
+            return true;
+        }
+        AtomicLong bucket = bucket(target);
+        long current;
+        do {
+            current = bucket.get();
+            if (current < UNIT) {
+                rejected.increment();
+                return false;
+            }
+        } while (!bucket.compareAndSet(current, current - UNIT));
+        retries.increment();
+        return true;
+    }
+
+    private AtomicLong bucket(HttpHost target) {
+        return buckets.computeIfAbsent(target, host -> new AtomicLong(capacity));
+    }
+
+    /**
+     * 路由当前剩余的令牌数
+     */
+    public double getAvailable(HttpHost target) {
+        AtomicLong bucket = buckets.get(target);
+        return (bucket != null ? bucket.get() : capacity) / (double) UNIT;
+    }
+
+    /**
+     * 预算允许的重试次数
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * 预算用完被拒绝的重试次数
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,155 @@
+package cays.httpclient.retry;
+
+import org.apache.http.util.Args;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 重试配置，使用方式与PoolConfig一致：RetryConfig.custom()...build()
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 18:40
+ **/
+public final class RetryConfig {
+    public static final RetryConfig DEFAULT = custom().build();
+
+    private final int maxRetries;
+    private final long baseDelay;
+    private final long maxDelay;
+    private final long maxRetryAfter;
+    private final Set<Integer> retryableStatusCodes;
+    private final double budgetRatio;
+    private final int budgetMaxTokens;
+
+    private RetryConfig(Builder builder) {
+        this.maxRetries = builder.maxRetries;
+        this.baseDelay = builder.baseDelay;
+        this.maxDelay = builder.maxDelay;
+        this.maxRetryAfter = builder.maxRetryAfter;
+        this.retryableStatusCodes = Collections.unmodifiableSet(new LinkedHashSet<>(builder.retryableStatusCodes));
+        this.budgetRatio = builder.budgetRatio;
+        this.budgetMaxTokens = builder.budgetMaxTokens;
+    }
+
+    public static Builder custom() {
+        return new Builder();
+    }
+
+    /**
+     * 单个请求最多重试次数，不包括第一次请求
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * 退避的最小等待时间(毫秒)
+     */
+    public long getBaseDelay() {
+        return baseDelay;
+    }
+
+    /**
+     * 退避的最大等待时间(毫秒)
+     */
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * 服务端Retry-After要求的等待时间超过这个值(毫秒)时不再重试
+     */
+    public long getMaxRetryAfter() {
+        return maxRetryAfter;
+    }
+
+    /**
+     * 需要重试的响应状态码
+     */
+    public Set<Integer> getRetryableStatusCodes() {
+        return retryableStatusCodes;
+    }
+
+    /**
+     * 重试预算：每个请求存入的令牌数，即重试数占请求数的比例上限
+     */
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    /**
+     * 重试预算：每个路由令牌桶的容量，流量很小时也允许少量重试
+     */
+    public int getBudgetMaxTokens() {
+        return budgetMaxTokens;
+    }
+
+    @Override
+    public String toString() {
+        return "[maxRetries=" + maxRetries +
+                ", baseDelay=" + baseDelay +
+                ", maxDelay=" + maxDelay +
+                ", maxRetryAfter=" + maxRetryAfter +
+                ", retryableStatusCodes=" + retryableStatusCodes +
+                ", budgetRatio=" + budgetRatio +
+                ", budgetMaxTokens=" + budgetMaxTokens +
+                "]";
+    }
+
+    public static class Builder {
+        private int maxRetries = 3;
+        private long baseDelay = 100;
+        private long maxDelay = 10000;
+        private long maxRetryAfter = 30000;
+        private Set<Integer> retryableStatusCodes = new LinkedHashSet<>(Arrays.asList(429, 503));
+        private double budgetRatio = 0.2;
+        private int budgetMaxTokens = 10;
+
+        Builder() {
+        }
+
+        public Builder setMaxRetries(int maxRetries) {
+            this.maxRetries = Args.notNegative(maxRetries, "Max retries");
+            return this;
+        }
+
+        public Builder setBaseDelay(long baseDelay) {
+            this.baseDelay = Args.positive(baseDelay, "Base delay");
+            return this;
+        }
+
+        public Builder setMaxDelay(long maxDelay) {
+            this.maxDelay = Args.positive(maxDelay, "Max delay");
+            return this;
+        }
+
+        public Builder setMaxRetryAfter(long maxRetryAfter) {
+            this.maxRetryAfter = Args.notNegative(maxRetryAfter, "Max Retry-After");
+            return this;
+        }
+
+        public Builder setRetryableStatusCodes(Integer... statusCodes) {
+            this.retryableStatusCodes = new LinkedHashSet<>(Arrays.asList(statusCodes));
+            return this;
+        }
+
+        public Builder setBudgetRatio(double budgetRatio) {
+            Args.check(budgetRatio >= 0 && budgetRatio <= 1, "Budget ratio must be between 0 and 1");
+            this.budgetRatio = budgetRatio;
+            return this;
+        }
+
+        public Builder setBudgetMaxTokens(int budgetMaxTokens) {
+            this.budgetMaxTokens = Args.notNegative(budgetMaxTokens, "Budget max tokens");
+            return this;
+        }
+
+        public RetryConfig build() {
+            Args.check(baseDelay <= maxDelay, "Base delay must not exceed max delay");
+            return new RetryConfig(this);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package cays.httpclient.retry;
+
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequest;
+
+/**
+ * 重试相关的请求判断
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 18:55
+ **/
+public final class RetryRequests {
+    private RetryRequests() {
+    }
+
+    /**
+     * 没有请求体的请求认为是幂等的，可以安全地重试
+     */
+    public static boolean isIdempotent(HttpRequest request) {
+        return !(request instanceof HttpEntityEnclosingRequest);
+    }
+}
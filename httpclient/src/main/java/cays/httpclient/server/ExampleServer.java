@@ -0,0 +1,80 @@
+package cays.httpclient.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 示例程序访问的服务地址，默认启动内置的HttpbinServer，不需要网络
+ * <p>
+ * 设置系统属性-Dhttpbin.url=http://httpbin.org 时改为访问指定的httpbin服务。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 23:10
+ **/
+public final class ExampleServer implements Closeable {
+    public static final String BASE_URL_PROPERTY = "httpbin.url";
+
+    private final HttpbinServer server;
+    private final String baseUrl;
+    private final String httpsBaseUrl;
+
+    private ExampleServer(HttpbinServer server, String baseUrl, String httpsBaseUrl) {
+        this.server = server;
+        this.baseUrl = baseUrl;
+        this.httpsBaseUrl = httpsBaseUrl;
+    }
+
+    public static ExampleServer start() throws IOException {
+        return start(ServerConfig.DEFAULT);
+    }
+
+    /**
+     * @param config 本地服务的配置，访问外部服务时不使用
+     */
+    public static ExampleServer start(ServerConfig config) throws IOException {
+        String baseUrl = System.getProperty(BASE_URL_PROPERTY);
+        if (baseUrl != null && !baseUrl.isEmpty()) {
+            baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+            return new ExampleServer(null, baseUrl, baseUrl.replaceFirst("^http:", "https:"));
+        }
+        HttpbinServer server = HttpbinServer.start(config);
+        return new ExampleServer(server, server.getBaseUrl(), server.getHttpsBaseUrl());
+    }
+
+    /**
+     * HTTP地址
+     * @param path 以/开头的路径，例如/get
+     */
+    public String url(String path) {
+        return baseUrl + path;
+    }
+
+    /**
+     * HTTPS地址，本地服务使用自签名证书
+     * @param path 以/开头的路径，例如/get
+     */
+    public String httpsUrl(String path) {
+        return httpsBaseUrl + path;
+    }
+
+    /**
+     * 是否使用内置的本地服务
+     */
+    public boolean isLocal() {
+        return server != null;
+    }
+
+    /**
+     * 内置的本地服务，访问外部服务时返回null
+     */
+    public HttpbinServer getServer() {
+        return server;
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,828 @@
+package cays.httpclient.server;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.util.Args;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 内置的httpbin风格测试服务，基于JDK自带的HttpServer和HttpsServer，示例和压测不依赖外网
+ * <p>
+ * 支持的地址：
+ * <ul>
+ * <li>/get、/post、/anything：返回请求参数、请求头、表单、JSON和上传的文件</li>
+ * <li>/headers：返回请求头</li>
+ * <li>/response-headers?name=value：查询参数作为响应头返回，例如X-RateLimit-Remaining</li>
+ * <li>/redirect/{n}?status_code=..：重定向n次后到/get，状态码为301、302、303、307或308，默认302；/redirect-to?url=..&amp;status_code=..：重定向到指定地址</li>
+ * <li>/cache：带Last-Modified和ETag，If-None-Match与ETag相同或If-Modified-Since不早于Last-Modified时返回304；/cache/{n}：Cache-Control: max-age=n</li>
+ * <li>/status/{codes}：返回指定状态码，多个状态码用逗号分隔时随机选一个</li>
+ * <li>/delay/{n}：n秒后返回，最多10秒</li>
+ * <li>/bytes/{n}：n字节随机数据</li>
+ * <li>/json/{n}：n条记录组成的JSON数组，记录结构与HttpClientExample发送的记录相同</li>
+ * <li>/gzip、/deflate：使用对应编码压缩的回显内容</li>
+ * </ul>
+ * HTTPS使用classpath中的自签名证书(CN=localhost)，{@link #createClientSslContext()}返回信任该证书的SSLContext。
+ * 延迟和/delay通过定时线程调度，不占用处理请求的线程。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 23:00
+ **/
+public class HttpbinServer implements Closeable {
+    public static final String KEY_STORE_RESOURCE = "/httpbin-server.p12";
+    private static final char[] KEY_STORE_PASSWORD = "changeit".toCharArray();
+    // 请求体超过该大小时只统计长度，不回显内容
+    private static final int MAX_ECHO_BYTES = 1024 * 1024;
+    private static final long MAX_DELAY_SECONDS = 10;
+    private static final int MAX_BYTES = 100 * 1024 * 1024;
+    private static final int MAX_JSON_RECORDS = 1000000;
+    private static final byte[] CRLF_CRLF = {'\r', '\n', '\r', '\n'};
+
+    static {
+        // 默认没有关闭Nagle算法，响应头和响应体分开写时每个请求要等待延迟确认(约40ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        // 默认最多保留200个空闲连接，多出的连接被服务端关闭，客户端连接池复用时得到NoHttpResponseException
+        if (System.getProperty("sun.net.httpserver.maxIdleConnections") == null) {
+            System.setProperty("sun.net.httpserver.maxIdleConnections", "10000");
+        }
+    }
+
+    private final Log log = LogFactory.getLog(getClass());
+    private final ServerConfig config;
+    private final HttpServer httpServer;
+    private final HttpsServer httpsServer;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService scheduler;
+    private final Date lastModified = new Date();
+    private final String etag = "\"" + Long.toHexString(System.nanoTime()) + "\"";
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+    // 最近一次/json/{n}的响应体，压测时反复请求同一个n不用每次重新序列化
+    private volatile JsonBody lastJsonBody;
+
+    private HttpbinServer(ServerConfig config) throws IOException {
+        this.config = config;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(config.getWorkerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "httpbin-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "httpbin-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpServer = HttpServer.create(new InetSocketAddress(config.getHost(), config.getPort()),
+                config.getBacklog());
+        if (config.getHttpsPort() >= 0) {
+            this.httpsServer = HttpsServer.create(new InetSocketAddress(config.getHost(), config.getHttpsPort()),
+                    config.getBacklog());
+            this.httpsServer.setHttpsConfigurator(new HttpsConfigurator(createServerSslContext()));
+        } else {
+            this.httpsServer = null;
+        }
+        register("/get", this::get);
+        register("/post", this::post);
+        register("/anything", this::anything);
+        register("/headers", this::headers);
+        register("/response-headers", this::responseHeaders);
+        register("/redirect/", this::redirect);
+        register("/redirect-to", this::redirectTo);
+        register("/cache", this::cache);
+        register("/status/", this::status);
+        register("/delay/", this::delay);
+        register("/bytes/", this::bytes);
+        register("/json/", this::json);
+        register("/gzip", this::gzip);
+        register("/deflate", this::deflate);
+        httpServer.setExecutor(workers);
+        httpServer.start();
+        if (httpsServer != null) {
+            httpsServer.setExecutor(workers);
+            httpsServer.start();
+        }
+    }
+
+    /**
+     * 使用默认配置启动，HTTP和HTTPS都使用系统分配的端口
+     */
+    public static HttpbinServer start() throws IOException {
+        return start(ServerConfig.DEFAULT);
+    }
+
+    public static HttpbinServer start(ServerConfig config) throws IOException {
+        return new HttpbinServer(Args.notNull(config, "Server config"));
+    }
+
+    private void register(String path, HttpHandler handler) {
+        HttpHandler dispatcher = exchange -> dispatch(exchange, handler);
+        httpServer.createContext(path, dispatcher);
+        if (httpsServer != null) {
+            httpsServer.createContext(path, dispatcher);
+        }
+    }
+
+    /**
+     * 按配置注入错误和延迟，有延迟时由定时线程到期后交给工作线程处理
+     */
+    private void dispatch(HttpExchange exchange, HttpHandler handler) {
+        requests.increment();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpHandler target = handler;
+        if (config.getErrorRate() > 0 && random.nextDouble() < config.getErrorRate()) {
+            injectedErrors.increment();
+            target = this::injectedError;
+        }
+        long delay = config.getLatency();
+        if (config.getLatencyJitter() > 0) {
+            delay += random.nextLong(config.getLatencyJitter() + 1);
+        }
+        schedule(exchange, target, delay);
+    }
+
+    private void schedule(HttpExchange exchange, HttpHandler handler, long delayMillis) {
+        if (delayMillis <= 0) {
+            handle(exchange, handler);
+            return;
+        }
+        scheduler.schedule(() -> workers.execute(() -> handle(exchange, handler)),
+                delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void handle(HttpExchange exchange, HttpHandler handler) {
+        try {
+            handler.handle(exchange);
+        } catch (IOException | RuntimeException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Failed to handle " + exchange.getRequestURI(), e);
+            }
+            exchange.close();
+        }
+    }
+
+    private void injectedError(HttpExchange exchange) throws IOException {
+        respond(exchange, config.getErrorStatus(), null, null);
+    }
+
+    private void get(HttpExchange exchange) throws IOException {
+        if (!checkMethod(exchange, "GET", "HEAD")) {
+            return;
+        }
+        respondJson(exchange, 200, echo(exchange, null));
+    }
+
+    private void post(HttpExchange exchange) throws IOException {
+        if (!checkMethod(exchange, "POST")) {
+            return;
+        }
+        respondJson(exchange, 200, echo(exchange, readBody(exchange)));
+    }
+
+    private void anything(HttpExchange exchange) throws IOException {
+        JSONObject json = echo(exchange, readBody(exchange));
+        json.put("method", exchange.getRequestMethod());
+        respondJson(exchange, 200, json);
+    }
+
+    private void headers(HttpExchange exchange) throws IOException {
+        JSONObject json = new JSONObject(true);
+        json.put("headers", headers(exchange.getRequestHeaders()));
+        respondJson(exchange, 200, json);
+    }
+
+    private void responseHeaders(HttpExchange exchange) throws IOException {
+        List<NameValuePair> parameters = queryParameters(exchange.getRequestURI());
+        for (NameValuePair parameter : parameters) {
+            exchange.getResponseHeaders().add(parameter.getName(), parameter.getValue());
+        }
+        respondJson(exchange, 200, multiValueMap(parameters));
+    }
+
+    private void redirect(HttpExchange exchange) throws IOException {
+        int remaining = pathParameter(exchange, "/redirect/");
+        if (remaining < 1) {
+            respond(exchange, 404, null, null);
+            return;
+        }
+        int status = 302;
+        for (NameValuePair parameter : queryParameters(exchange.getRequestURI())) {
+            if ("status_code".equals(parameter.getName())) {
+                status = parseInt(parameter.getValue(), 302);
+            }
+        }
+        // 只接受带Location的重定向状态码，304、305等不会被客户端跟随
+        if (status != 301 && status != 302 && status != 303 && status != 307 && status != 308) {
+            respond(exchange, 400, null, null);
+            return;
+        }
+        // 中间的每一跳使用相同的状态码
+        String query = status != 302 ? "?status_code=" + status : "";
+        exchange.getResponseHeaders().set("Location", remaining > 1 ? "/redirect/" + (remaining - 1) + query : "/get");
+        respond(exchange, status, null, null);
+    }
+
+    private void redirectTo(HttpExchange exchange) throws IOException {
+        String url = null;
+        int status = 302;
+        for (NameValuePair parameter : queryParameters(exchange.getRequestURI())) {
+            if ("url".equals(parameter.getName())) {
+                url = parameter.getValue();
+            } else if ("status_code".equals(parameter.getName())) {
+                status = parseInt(parameter.getValue(), 302);
+            }
+        }
+        if (url == null || status < 300 || status > 399) {
+            respond(exchange, 400, null, null);
+            return;
+        }
+        exchange.getResponseHeaders().set("Location", url);
+        respond(exchange, status, null, null);
+    }
+
+    private void cache(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.startsWith("/cache/")) {
+            int maxAge = pathParameter(exchange, "/cache/");
+            if (maxAge < 0) {
+                respond(exchange, 404, null, null);
+                return;
+            }
+            exchange.getResponseHeaders().set("Cache-Control", "public, max-age=" + maxAge);
+            respondJson(exchange, 200, echo(exchange, null));
+            return;
+        }
+        Headers requestHeaders = exchange.getRequestHeaders();
+        Headers responseHeaders = exchange.getResponseHeaders();
+        responseHeaders.set("Last-Modified", DateUtils.formatDate(lastModified));
+        responseHeaders.set("ETag", etag);
+        if (notModified(requestHeaders)) {
+            respond(exchange, 304, null, null);
+            return;
+        }
+        respondJson(exchange, 200, echo(exchange, null));
+    }
+
+    /**
+     * 按RFC 7232判断条件请求：有If-None-Match时只比较ETag(弱比较)，否则比较If-Modified-Since与Last-Modified
+     */
+    private boolean notModified(Headers requestHeaders) {
+        List<String> ifNoneMatch = requestHeaders.get("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String value : ifNoneMatch) {
+                for (String tag : value.split(",")) {
+                    tag = tag.trim();
+                    if ("*".equals(tag) || opaqueTag(tag).equals(opaqueTag(etag))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        String ifModifiedSince = requestHeaders.getFirst("If-Modified-Since");
+        Date since = ifModifiedSince != null ? DateUtils.parseDate(ifModifiedSince) : null;
+        // HTTP日期只精确到秒
+        return since != null && lastModified.getTime() / 1000 <= since.getTime() / 1000;
+    }
+
+    private static String opaqueTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private void status(HttpExchange exchange) throws IOException {
+        String[] codes = exchange.getRequestURI().getPath().substring("/status/".length()).split(",");
+        int status = parseInt(codes[ThreadLocalRandom.current().nextInt(codes.length)].trim(), -1);
+        if (status < 100 || status > 599) {
+            respond(exchange, 400, null, null);
+            return;
+        }
+        if (status >= 300 && status < 400) {
+            exchange.getResponseHeaders().set("Location", "/redirect/1");
+        }
+        respond(exchange, status, null, null);
+    }
+
+    private void delay(HttpExchange exchange) {
+        double seconds;
+        try {
+            seconds = Double.parseDouble(exchange.getRequestURI().getPath().substring("/delay/".length()));
+        } catch (NumberFormatException e) {
+            seconds = -1;
+        }
+        if (seconds < 0) {
+            handle(exchange, ex -> respond(ex, 404, null, null));
+            return;
+        }
+        long delay = (long) (Math.min(seconds, MAX_DELAY_SECONDS) * 1000);
+        schedule(exchange, ex -> respondJson(ex, 200, echo(ex, readBody(ex))), delay);
+    }
+
+    private void bytes(HttpExchange exchange) throws IOException {
+        int length = pathParameter(exchange, "/bytes/");
+        if (length < 0) {
+            respond(exchange, 404, null, null);
+            return;
+        }
+        byte[] body = new byte[Math.min(length, MAX_BYTES)];
+        ThreadLocalRandom.current().nextBytes(body);
+        respond(exchange, 200, "application/octet-stream", body);
+    }
+
+    private void json(HttpExchange exchange) throws IOException {
+        int count = pathParameter(exchange, "/json/");
+        if (count < 0 || count > MAX_JSON_RECORDS) {
+            respond(exchange, 404, null, null);
+            return;
+        }
+        JsonBody body = lastJsonBody;
+        if (body == null || body.count != count) {
+            List<Map<String, Object>> records = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Map<String, Object> record = new LinkedHashMap<>();
+                record.put("id", "" + i);
+                record.put("name", "name" + i);
+                record.put("price", 5.12 + i);
+                record.put("lastUpdateTime", lastModified.getTime() + i);
+                record.put("message", "httpbin record message " + i);
+                records.add(record);
+            }
+            body = new JsonBody(count, JSON.toJSONBytes(records));
+            lastJsonBody = body;
+        }
+        respond(exchange, 200, "application/json", body.bytes);
+    }
+
+    private void gzip(HttpExchange exchange) throws IOException {
+        JSONObject json = echo(exchange, null);
+        json.put("gzipped", true);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(body)) {
+            out.write(JSON.toJSONBytes(json));
+        }
+        exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        respond(exchange, 200, "application/json", body.toByteArray());
+    }
+
+    private void deflate(HttpExchange exchange) throws IOException {
+        JSONObject json = echo(exchange, null);
+        json.put("deflated", true);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (OutputStream out = new DeflaterOutputStream(body)) {
+            out.write(JSON.toJSONBytes(json));
+        }
+        exchange.getResponseHeaders().set("Content-Encoding", "deflate");
+        respond(exchange, 200, "application/json", body.toByteArray());
+    }
+
+    /**
+     * 与httpbin相同的回显内容，body为null时不包含请求体相关的字段
+     */
+    private static JSONObject echo(HttpExchange exchange, Body body) {
+        JSONObject json = new JSONObject(true);
+        json.put("args", multiValueMap(queryParameters(exchange.getRequestURI())));
+        if (body != null) {
+            JSONObject form = new JSONObject(true);
+            JSONObject files = new JSONObject(true);
+            Object parsedJson = null;
+            String data = "";
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            String mimeType = contentType != null ? contentType.split(";")[0].trim().toLowerCase() : "";
+            if (body.isComplete()) {
+                if ("application/x-www-form-urlencoded".equals(mimeType)) {
+                    form = multiValueMap(URLEncodedUtils.parse(body.text(), StandardCharsets.UTF_8));
+                } else if (mimeType.startsWith("multipart/")) {
+                    parseMultipart(body.bytes, boundary(contentType), form, files);
+                } else {
+                    data = body.text();
+                    if (mimeType.endsWith("json")) {
+                        try {
+                            parsedJson = JSON.parse(data);
+                        } catch (RuntimeException e) {
+                            // 不是合法的JSON，只回显原文
+                        }
+                    }
+                }
+            }
+            json.put("data", data);
+            json.put("files", files);
+            json.put("form", form);
+            json.put("json", parsedJson);
+            json.put("length", body.length);
+        }
+        json.put("headers", headers(exchange.getRequestHeaders()));
+        json.put("origin", exchange.getRemoteAddress().getAddress().getHostAddress());
+        json.put("url", requestUrl(exchange));
+        return json;
+    }
+
+    /**
+     * 解析multipart请求体，文件部分为文本时保存内容，否则保存为data URL
+     */
+    private static void parseMultipart(byte[] body, String boundary, JSONObject form, JSONObject files) {
+        if (boundary == null) {
+            return;
+        }
+        byte[] delimiter = ("--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        int position = indexOf(body, delimiter, 0);
+        while (position >= 0) {
+            int start = position + delimiter.length;
+            if (start + 1 < body.length && body[start] == '-' && body[start + 1] == '-') {
+                break;
+            }
+            start += 2;
+            int next = indexOf(body, delimiter, start);
+            int headerEnd = indexOf(body, CRLF_CRLF, start);
+            if (next < 0 || headerEnd < 0 || headerEnd > next) {
+                break;
+            }
+            String partHeaders = new String(body, start, headerEnd - start, StandardCharsets.UTF_8);
+            int dataStart = headerEnd + CRLF_CRLF.length;
+            int dataEnd = Math.max(dataStart, next - 2);
+            String name = dispositionParameter(partHeaders, "name");
+            String fileName = dispositionParameter(partHeaders, "filename");
+            String partType = partHeader(partHeaders, "content-type");
+            if (name != null) {
+                if (fileName == null) {
+                    form.put(name, new String(body, dataStart, dataEnd - dataStart, StandardCharsets.UTF_8));
+                } else if (partType == null || partType.startsWith("text/")) {
+                    files.put(name, new String(body, dataStart, dataEnd - dataStart, StandardCharsets.UTF_8));
+                } else {
+                    byte[] content = new byte[dataEnd - dataStart];
+                    System.arraycopy(body, dataStart, content, 0, content.length);
+                    files.put(name, "data:" + partType + ";base64," + Base64.getEncoder().encodeToString(content));
+                }
+            }
+            position = next;
+        }
+    }
+
+    private static String boundary(String contentType) {
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.regionMatches(true, 0, "boundary=", 0, "boundary=".length())) {
+                return unquote(trimmed.substring("boundary=".length()));
+            }
+        }
+        return null;
+    }
+
+    private static String dispositionParameter(String partHeaders, String name) {
+        String disposition = partHeader(partHeaders, "content-disposition");
+        if (disposition == null) {
+            return null;
+        }
+        for (String parameter : disposition.split(";")) {
+            String trimmed = parameter.trim();
+            int equals = trimmed.indexOf('=');
+            if (equals > 0 && trimmed.substring(0, equals).trim().equalsIgnoreCase(name)) {
+                return unquote(trimmed.substring(equals + 1).trim());
+            }
+        }
+        return null;
+    }
+
+    private static String partHeader(String partHeaders, String name) {
+        for (String line : partHeaders.split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase(name)) {
+                return line.substring(colon + 1).trim();
+            }
+        }
+        return null;
+    }
+
+    private static String unquote(String value) {
+        return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")
+                ? value.substring(1, value.length() - 1) : value;
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern, int from) {
+        outer:
+        for (int i = Math.max(0, from); i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * 请求头名称按httpbin的格式首字母大写，多个值用逗号连接
+     */
+    private static JSONObject headers(Headers requestHeaders) {
+        JSONObject headers = new JSONObject(true);
+        for (Map.Entry<String, List<String>> entry : requestHeaders.entrySet()) {
+            headers.put(canonicalName(entry.getKey()), String.join(",", entry.getValue()));
+        }
+        return headers;
+    }
+
+    private static String canonicalName(String name) {
+        StringBuilder canonical = new StringBuilder(name.length());
+        boolean upper = true;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            canonical.append(upper ? Character.toUpperCase(c) : Character.toLowerCase(c));
+            upper = c == '-';
+        }
+        return canonical.toString();
+    }
+
+    private static JSONObject multiValueMap(List<NameValuePair> parameters) {
+        JSONObject map = new JSONObject(true);
+        for (NameValuePair parameter : parameters) {
+            Object previous = map.get(parameter.getName());
+            if (previous == null) {
+                map.put(parameter.getName(), parameter.getValue());
+            } else if (previous instanceof List) {
+                @SuppressWarnings("unchecked")
+                List<Object> values = (List<Object>) previous;
+                values.add(parameter.getValue());
+            } else {
+                List<Object> values = new ArrayList<>();
+                values.add(previous);
+                values.add(parameter.getValue());
+                map.put(parameter.getName(), values);
+            }
+        }
+        return map;
+    }
+
+    private static List<NameValuePair> queryParameters(URI uri) {
+        return URLEncodedUtils.parse(uri, StandardCharsets.UTF_8);
+    }
+
+    private static String requestUrl(HttpExchange exchange) {
+        String host = exchange.getRequestHeaders().getFirst("Host");
+        if (host == null) {
+            InetSocketAddress local = exchange.getLocalAddress();
+            host = local.getHostString() + ":" + local.getPort();
+        }
+        String scheme = exchange instanceof com.sun.net.httpserver.HttpsExchange ? "https" : "http";
+        return scheme + "://" + host + exchange.getRequestURI();
+    }
+
+    private static int pathParameter(HttpExchange exchange, String prefix) {
+        return parseInt(exchange.getRequestURI().getPath().substring(prefix.length()), -1);
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static boolean checkMethod(HttpExchange exchange, String... methods) throws IOException {
+        for (String method : methods) {
+            if (method.equals(exchange.getRequestMethod())) {
+                return true;
+            }
+        }
+        exchange.getResponseHeaders().set("Allow", String.join(", ", methods));
+        respond(exchange, 405, null, null);
+        return false;
+    }
+
+    /**
+     * 读取请求体，gzip和deflate编码的请求体先解压，超过MAX_ECHO_BYTES的部分只统计长度
+     */
+    private static Body readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        long length = 0;
+        byte[] buffer = new byte[8192];
+        try (InputStream in = decode(exchange)) {
+            for (int n; (n = in.read(buffer)) != -1; ) {
+                if (length < MAX_ECHO_BYTES) {
+                    bytes.write(buffer, 0, (int) Math.min(n, MAX_ECHO_BYTES - length));
+                }
+                length += n;
+            }
+        }
+        return new Body(bytes.toByteArray(), length);
+    }
+
+    private static InputStream decode(HttpExchange exchange) throws IOException {
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        InputStream in = exchange.getRequestBody();
+        if ("gzip".equalsIgnoreCase(encoding)) {
+            return new GZIPInputStream(in);
+        }
+        if ("deflate".equalsIgnoreCase(encoding)) {
+            return new InflaterInputStream(in);
+        }
+        return in;
+    }
+
+    private static void drain(HttpExchange exchange) {
+        byte[] buffer = new byte[8192];
+        try (InputStream in = exchange.getRequestBody()) {
+            while (in.read(buffer) != -1) {
+                // 丢弃请求体，连接才能继续复用
+            }
+        } catch (IOException e) {
+            // 请求体已经读完并关闭
+        }
+    }
+
+    private static void respondJson(HttpExchange exchange, int status, JSONObject json) throws IOException {
+        respond(exchange, status, "application/json", JSON.toJSONBytes(json));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body)
+            throws IOException {
+        try {
+            if (contentType != null) {
+                exchange.getResponseHeaders().set("Content-Type", contentType);
+            }
+            boolean noBody = body == null || body.length == 0 || status == 304 || status == 204
+                    || "HEAD".equals(exchange.getRequestMethod());
+            if (noBody) {
+                // 没有响应体时HttpServer不会再读取剩余的请求体，未读完就关闭连接，这里先读完
+                drain(exchange);
+                // 长度为0时HttpServer使用chunked编码，-1表示没有响应体
+                exchange.sendResponseHeaders(status, -1);
+            } else {
+                exchange.sendResponseHeaders(status, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static SSLContext createServerSslContext() throws IOException {
+        try {
+            KeyManagerFactory keyManagerFactory =
+                    KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keyManagerFactory.init(loadKeyStore(), KEY_STORE_PASSWORD);
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+            return sslContext;
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Cannot create server SSL context", e);
+        }
+    }
+
+    /**
+     * 只信任本服务自签名证书的SSLContext，客户端用来访问{@link #getHttpsBaseUrl()}
+     */
+    public static SSLContext createClientSslContext() throws IOException {
+        try {
+            TrustManagerFactory trustManagerFactory =
+                    TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            trustManagerFactory.init(loadKeyStore());
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, trustManagerFactory.getTrustManagers(), null);
+            return sslContext;
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Cannot create client SSL context", e);
+        }
+    }
+
+    private static KeyStore loadKeyStore() throws IOException, GeneralSecurityException {
+        try (InputStream in = HttpbinServer.class.getResourceAsStream(KEY_STORE_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Key store not found: " + KEY_STORE_RESOURCE);
+            }
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, KEY_STORE_PASSWORD);
+            return keyStore;
+        }
+    }
+
+    /**
+     * HTTP地址，例如http://127.0.0.1:12345
+     */
+    public String getBaseUrl() {
+        return "http://" + config.getHost() + ":" + getPort();
+    }
+
+    /**
+     * HTTPS地址，证书签发给localhost，例如https://localhost:12346，没有启动HTTPS时返回null
+     */
+    public String getHttpsBaseUrl() {
+        return httpsServer != null ? "https://localhost:" + getHttpsPort() : null;
+    }
+
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * HTTPS端口，没有启动HTTPS时返回-1
+     */
+    public int getHttpsPort() {
+        return httpsServer != null ? httpsServer.getAddress().getPort() : -1;
+    }
+
+    public ServerConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * 收到的请求数
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * 注入错误的请求数
+     */
+    public long getInjectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        if (httpsServer != null) {
+            httpsServer.stop(0);
+        }
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return "[baseUrl=" + getBaseUrl() + ", httpsBaseUrl=" + getHttpsBaseUrl()
+                + ", requests=" + getRequests() + ", injectedErrors=" + getInjectedErrors() + "]";
+    }
+
+    private static final class Body {
+        private final byte[] bytes;
+        private final long length;
+
+        private Body(byte[] bytes, long length) {
+            this.bytes = bytes;
+            this.length = length;
+        }
+
+        private boolean isComplete() {
+            return bytes.length == length;
+        }
+
+        private String text() {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class JsonBody {
+        private final int count;
+        private final byte[] bytes;
+
+        private JsonBody(int count, byte[] bytes) {
+            this.count = count;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package cays.httpclient.server;
+
+import org.apache.http.util.Args;
+
+/**
+ * 本地测试服务配置，使用方式与PoolConfig一致：ServerConfig.custom()...build()
+ * <p>
+ * 注入的延迟和错误作用于所有地址，用来模拟慢服务和不稳定的服务。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 22:50
+ **/
+public final class ServerConfig {
+    public static final ServerConfig DEFAULT = custom().build();
+
+    private final String host;
+    private final int port;
+    private final int httpsPort;
+    private final int workerThreads;
+    private final int backlog;
+    private final long latency;
+    private final long latencyJitter;
+    private final double errorRate;
+    private final int errorStatus;
+
+    private ServerConfig(Builder builder) {
+        this.host = builder.host;
+        this.port = builder.port;
+        this.httpsPort = builder.httpsPort;
+        this.workerThreads = builder.workerThreads;
+        this.backlog = builder.backlog;
+        this.latency = builder.latency;
+        this.latencyJitter = builder.latencyJitter;
+        this.errorRate = builder.errorRate;
+        this.errorStatus = builder.errorStatus;
+    }
+
+    public static Builder custom() {
+        return new Builder();
+    }
+
+    /**
+     * 监听地址，默认只监听本机
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * HTTP端口，0表示由系统分配
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * HTTPS端口，0表示由系统分配，小于0表示不启动HTTPS
+     */
+    public int getHttpsPort() {
+        return httpsPort;
+    }
+
+    /**
+     * 处理请求的线程数
+     */
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    /**
+     * 等待accept的连接队列长度
+     */
+    public int getBacklog() {
+        return backlog;
+    }
+
+    /**
+     * 每个请求固定增加的延迟(毫秒)
+     */
+    public long getLatency() {
+        return latency;
+    }
+
+    /**
+     * 在固定延迟之上再随机增加0到latencyJitter毫秒
+     */
+    public long getLatencyJitter() {
+        return latencyJitter;
+    }
+
+    /**
+     * 直接返回错误状态码的请求比例，0到1之间
+     */
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    /**
+     * 注入错误时返回的状态码
+     */
+    public int getErrorStatus() {
+        return errorStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "[host=" + host +
+                ", port=" + port +
+                ", httpsPort=" + httpsPort +
+                ", workerThreads=" + workerThreads +
+                ", backlog=" + backlog +
+                ", latency=" + latency +
+                ", latencyJitter=" + latencyJitter +
+                ", errorRate=" + errorRate +
+                ", errorStatus=" + errorStatus +
+                "]";
+    }
+
+    public static class Builder {
+        private String host = "127.0.0.1";
+        private int port = 0;
+        private int httpsPort = 0;
+        private int workerThreads = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+        private int backlog = 1024;
+        private long latency = 0;
+        private long latencyJitter = 0;
+        private double errorRate = 0;
+        private int errorStatus = 503;
+
+        Builder() {
+        }
+
+        public Builder setHost(String host) {
+            this.host = Args.notBlank(host, "Host");
+            return this;
+        }
+
+        public Builder setPort(int port) {
+            this.port = Args.notNegative(port, "Port");
+            return this;
+        }
+
+        public Builder setHttpsPort(int httpsPort) {
+            this.httpsPort = httpsPort;
+            return this;
+        }
+
+        public Builder setWorkerThreads(int workerThreads) {
+            this.workerThreads = Args.positive(workerThreads, "Worker threads");
+            return this;
+        }
+
+        public Builder setBacklog(int backlog) {
+            this.backlog = Args.positive(backlog, "Backlog");
+            return this;
+        }
+
+        public Builder setLatency(long latency) {
+            this.latency = Args.notNegative(latency, "Latency");
+            return this;
+        }
+
+        public Builder setLatencyJitter(long latencyJitter) {
+            this.latencyJitter = Args.notNegative(latencyJitter, "Latency jitter");
+            return this;
+        }
+
+        public Builder setErrorRate(double errorRate) {
+            Args.check(errorRate >= 0 && errorRate <= 1, "Error rate must be between 0 and 1");
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        public Builder setErrorStatus(int errorStatus) {
+            Args.check(errorStatus >= 100 && errorStatus < 600, "Invalid error status");
+            this.errorStatus = errorStatus;
+            return this;
+        }
+
+        public ServerConfig build() {
+            return new ServerConfig(this);
+        }
+    }
+}
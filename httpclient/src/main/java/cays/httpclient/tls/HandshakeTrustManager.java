@@ -0,0 +1,119 @@
+package cays.httpclient.tls;
+
+import org.apache.http.ssl.TrustStrategy;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.X509ExtendedTrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.net.Socket;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+
+/**
+ * 包装证书校验，记录当前线程的握手是否校验了服务端证书
+ * <p>
+ * JDK没有提供判断会话是否恢复的方法，TLS 1.3恢复会话时会话ID和创建时间也都是新的。
+ * 恢复会话不再交换证书，也就不会调用checkServerTrusted，以此区分完整握手和恢复会话。
+ * 握手在调用startHandshake的线程上同步完成，所以用ThreadLocal记录。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 9:20
+ **/
+final class HandshakeTrustManager extends X509ExtendedTrustManager {
+    private final X509TrustManager delegate;
+    private final TrustStrategy trustStrategy;
+    private final ThreadLocal<Boolean> verified = new ThreadLocal<>();
+
+    HandshakeTrustManager(X509TrustManager delegate, TrustStrategy trustStrategy) {
+        this.delegate = delegate;
+        this.trustStrategy = trustStrategy;
+    }
+
+    /**
+     * 开始握手前调用
+     */
+    void begin() {
+        verified.set(Boolean.FALSE);
+    }
+
+    /**
+     * 握手结束后调用
+     * @return 本次握手是否校验了服务端证书，false表示恢复了已有的会话
+     */
+    boolean end() {
+        boolean result = Boolean.TRUE.equals(verified.get());
+        verified.remove();
+        return result;
+    }
+
+    private boolean trusted(X509Certificate[] chain, String authType) throws CertificateException {
+        if (verified.get() != null) {
+            verified.set(Boolean.TRUE);
+        }
+        return trustStrategy != null && trustStrategy.isTrusted(chain, authType);
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+            throws CertificateException {
+        if (trusted(chain, authType)) {
+            return;
+        }
+        if (delegate instanceof X509ExtendedTrustManager) {
+            ((X509ExtendedTrustManager) delegate).checkServerTrusted(chain, authType, socket);
+        } else {
+            delegate.checkServerTrusted(chain, authType);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+            throws CertificateException {
+        if (trusted(chain, authType)) {
+            return;
+        }
+        if (delegate instanceof X509ExtendedTrustManager) {
+            ((X509ExtendedTrustManager) delegate).checkServerTrusted(chain, authType, engine);
+        } else {
+            delegate.checkServerTrusted(chain, authType);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        if (trusted(chain, authType)) {
+            return;
+        }
+        delegate.checkServerTrusted(chain, authType);
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+            throws CertificateException {
+        if (delegate instanceof X509ExtendedTrustManager) {
+            ((X509ExtendedTrustManager) delegate).checkClientTrusted(chain, authType, socket);
+        } else {
+            delegate.checkClientTrusted(chain, authType);
+        }
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+            throws CertificateException {
+        if (delegate instanceof X509ExtendedTrustManager) {
+            ((X509ExtendedTrustManager) delegate).checkClientTrusted(chain, authType, engine);
+        } else {
+            delegate.checkClientTrusted(chain, authType);
+        }
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        delegate.checkClientTrusted(chain, authType);
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+        return delegate.getAcceptedIssuers();
+    }
+}
@@ -0,0 +1,53 @@
+package cays.httpclient.tls;
+
+import cays.httpclient.cache.ExpiringMap;
+import org.apache.http.util.Args;
+
+import java.security.cert.Certificate;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按主机和端口缓存服务端证书链，重复查看证书时不需要再建立连接
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 9:25
+ **/
+public class PeerCertificateCache {
+    private final long timeToLive;
+    private final ExpiringMap<String, Certificate[]> entries;
+
+    /**
+     * @param timeToLive 缓存时间(毫秒)，证书可能更换，不宜太长
+     * @param maxEntries 最多缓存的主机数，超过时移除最久没有访问的主机
+     */
+    public PeerCertificateCache(long timeToLive, int maxEntries) {
+        this.timeToLive = Args.positive(timeToLive, "Time to live");
+        this.entries = new ExpiringMap<>(Args.positive(maxEntries, "Max entries"));
+    }
+
+    /**
+     * @return 缓存的证书链，没有缓存或已过期时返回null
+     */
+    public Certificate[] get(String host, int port) {
+        Certificate[] chain = entries.get(key(host, port), System.nanoTime());
+        return chain != null ? chain.clone() : null;
+    }
+
+    public void put(String host, int port, Certificate[] chain) {
+        Args.notNull(chain, "Certificate chain");
+        entries.put(key(host, port), chain.clone(), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeToLive));
+    }
+
+    public void remove(String host, int port) {
+        entries.remove(key(host, port));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static String key(String host, int port) {
+        return Args.notBlank(host, "Host").toLowerCase(Locale.ROOT) + ":" + port;
+    }
+}
@@ -0,0 +1,201 @@
+package cays.httpclient.tls;
+
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.ssl.TrustStrategy;
+import org.apache.http.util.Args;
+
+import javax.net.ssl.HostnameVerifier;
+import java.security.KeyStore;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * TLS配置，使用方式与PoolConfig一致：TlsConfig.custom()...build()
+ * <p>
+ * 默认只启用TLS 1.3和TLS 1.2的AEAD密码套件，JDK不支持的协议和套件在创建连接时自动过滤。
+ * 会话缓存保存在SSLContext中，同一个TlsSocketFactory的连接共用，新连接可以恢复会话，省去证书交换和校验。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 9:10
+ **/
+public final class TlsConfig {
+    public static final TlsConfig DEFAULT = custom().build();
+
+    /**
+     * TLS 1.3的套件在前，TLS 1.2只保留ECDHE前向保密的AEAD套件
+     */
+    static final String[] MODERN_CIPHER_SUITES = {
+            "TLS_AES_128_GCM_SHA256",
+            "TLS_AES_256_GCM_SHA384",
+            "TLS_CHACHA20_POLY1305_SHA256",
+            "TLS_ECDHE_ECDSA_WITH_AES_128_GCM_SHA256",
+            "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256",
+            "TLS_ECDHE_ECDSA_WITH_AES_256_GCM_SHA384",
+            "TLS_ECDHE_RSA_WITH_AES_256_GCM_SHA384",
+            "TLS_ECDHE_ECDSA_WITH_CHACHA20_POLY1305_SHA256",
+            "TLS_ECDHE_RSA_WITH_CHACHA20_POLY1305_SHA256"
+    };
+
+    private final String[] protocols;
+    private final String[] cipherSuites;
+    private final int sessionCacheSize;
+    private final int sessionTimeout;
+    private final Map<String, Integer> hostSessionTimeouts;
+    private final KeyStore trustStore;
+    private final TrustStrategy trustStrategy;
+    private final HostnameVerifier hostnameVerifier;
+
+    private TlsConfig(Builder builder) {
+        this.protocols = builder.protocols;
+        this.cipherSuites = builder.cipherSuites;
+        this.sessionCacheSize = builder.sessionCacheSize;
+        this.sessionTimeout = builder.sessionTimeout;
+        this.hostSessionTimeouts = Collections.unmodifiableMap(new HashMap<>(builder.hostSessionTimeouts));
+        this.trustStore = builder.trustStore;
+        this.trustStrategy = builder.trustStrategy;
+        this.hostnameVerifier = builder.hostnameVerifier;
+    }
+
+    public static Builder custom() {
+        return new Builder();
+    }
+
+    /**
+     * 启用的协议，按优先级排列
+     */
+    public String[] getProtocols() {
+        return protocols.clone();
+    }
+
+    /**
+     * 启用的密码套件，为null时使用JDK的默认套件
+     */
+    public String[] getCipherSuites() {
+        return cipherSuites == null ? null : cipherSuites.clone();
+    }
+
+    /**
+     * 客户端会话缓存的最大会话数
+     */
+    public int getSessionCacheSize() {
+        return sessionCacheSize;
+    }
+
+    /**
+     * 会话可以恢复的时间(秒)
+     */
+    public int getSessionTimeout() {
+        return sessionTimeout;
+    }
+
+    /**
+     * 单独设置的会话有效时间(秒)，key为小写的主机名
+     */
+    public Map<String, Integer> getHostSessionTimeouts() {
+        return hostSessionTimeouts;
+    }
+
+    /**
+     * 指定主机的会话有效时间，没有单独设置时为默认值
+     */
+    public int getSessionTimeout(String host) {
+        Integer timeout = hostSessionTimeouts.get(host.toLowerCase(Locale.ROOT));
+        return timeout != null ? timeout : sessionTimeout;
+    }
+
+    /**
+     * 信任的证书，为null时使用JDK默认的信任库
+     */
+    public KeyStore getTrustStore() {
+        return trustStore;
+    }
+
+    /**
+     * 在证书校验之前调用，返回true时直接信任，例如TrustSelfSignedStrategy
+     */
+    public TrustStrategy getTrustStrategy() {
+        return trustStrategy;
+    }
+
+    public HostnameVerifier getHostnameVerifier() {
+        return hostnameVerifier;
+    }
+
+    @Override
+    public String toString() {
+        return "[protocols=" + String.join(",", protocols) +
+                ", cipherSuites=" + (cipherSuites == null ? "default" : cipherSuites.length) +
+                ", sessionCacheSize=" + sessionCacheSize +
+                ", sessionTimeout=" + sessionTimeout +
+                ", hostSessionTimeouts=" + hostSessionTimeouts +
+                "]";
+    }
+
+    public static class Builder {
+        private String[] protocols = {"TLSv1.3", "TLSv1.2"};
+        private String[] cipherSuites = MODERN_CIPHER_SUITES;
+        private int sessionCacheSize = 1000;
+        private int sessionTimeout = 3600;
+        private final Map<String, Integer> hostSessionTimeouts = new HashMap<>();
+        private KeyStore trustStore;
+        private TrustStrategy trustStrategy;
+        private HostnameVerifier hostnameVerifier = SSLConnectionSocketFactory.getDefaultHostnameVerifier();
+
+        Builder() {
+        }
+
+        public Builder setProtocols(String... protocols) {
+            Args.check(protocols != null && protocols.length > 0, "Protocols may not be empty");
+            this.protocols = protocols.clone();
+            return this;
+        }
+
+        /**
+         * @param cipherSuites 为null时使用JDK的默认套件
+         */
+        public Builder setCipherSuites(String... cipherSuites) {
+            this.cipherSuites = cipherSuites == null ? null : cipherSuites.clone();
+            return this;
+        }
+
+        public Builder setSessionCacheSize(int sessionCacheSize) {
+            this.sessionCacheSize = Args.notNegative(sessionCacheSize, "Session cache size");
+            return this;
+        }
+
+        public Builder setSessionTimeout(int sessionTimeout) {
+            this.sessionTimeout = Args.positive(sessionTimeout, "Session timeout");
+            return this;
+        }
+
+        /**
+         * 单独设置某个主机的会话有效时间，这些主机使用单独的SSLContext和会话缓存
+         */
+        public Builder setSessionTimeout(String host, int sessionTimeout) {
+            Args.notBlank(host, "Host");
+            hostSessionTimeouts.put(host.toLowerCase(Locale.ROOT), Args.positive(sessionTimeout, "Session timeout"));
+            return this;
+        }
+
+        public Builder setTrustStore(KeyStore trustStore) {
+            this.trustStore = trustStore;
+            return this;
+        }
+
+        public Builder setTrustStrategy(TrustStrategy trustStrategy) {
+            this.trustStrategy = trustStrategy;
+            return this;
+        }
+
+        public Builder setHostnameVerifier(HostnameVerifier hostnameVerifier) {
+            this.hostnameVerifier = Args.notNull(hostnameVerifier, "Hostname verifier");
+            return this;
+        }
+
+        public TlsConfig build() {
+            return new TlsConfig(this);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package cays.httpclient.tls;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.ssl.SSLInitializationException;
+import org.apache.http.util.Args;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 可复用的HTTPS Socket工厂，应该长期持有，注册到连接池上供所有连接共用
+ * <p>
+ * SSLContext只在第一次使用时创建，会话缓存随SSLContext保存，新连接优先恢复之前的会话。
+ * 单独设置了会话有效时间的主机使用各自的SSLContext，会话缓存互不影响。
+ * 每次握手按完整握手和恢复会话分别统计次数和耗时，见{@link #getStatistics()}。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 9:30
+ **/
+public class TlsSocketFactory implements LayeredConnectionSocketFactory {
+    private final TlsConfig config;
+    private final HandshakeTrustManager trustManager;
+    private final TlsStatistics statistics = new TlsStatistics();
+    // key为会话有效时间，相同设置的主机共用一个SSLContext
+    private final ConcurrentHashMap<Integer, SessionSocketFactory> socketFactories = new ConcurrentHashMap<>();
+
+    public TlsSocketFactory(TlsConfig config) {
+        this.config = Args.notNull(config, "TLS config");
+        this.trustManager = new HandshakeTrustManager(createTrustManager(config.getTrustStore()),
+                config.getTrustStrategy());
+        // 提前创建默认的SSLContext，配置错误时尽早失败
+        socketFactory(config.getSessionTimeout());
+    }
+
+    /**
+     * 进程内默认共享的工厂，使用JDK默认的信任库
+     */
+    public static TlsSocketFactory getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    public TlsConfig getConfig() {
+        return config;
+    }
+
+    public TlsStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * 指定主机使用的SSLContext，可以查看会话缓存
+     */
+    public SSLContext getSslContext(String host) {
+        return socketFactory(host).sslContext;
+    }
+
+    @Override
+    public Socket createSocket(HttpContext context) throws IOException {
+        return socketFactory(config.getSessionTimeout()).createSocket(context);
+    }
+
+    @Override
+    public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                InetSocketAddress localAddress, HttpContext context) throws IOException {
+        return socketFactory(host.getHostName())
+                .connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+    }
+
+    @Override
+    public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+        return socketFactory(target).createLayeredSocket(socket, target, port, context);
+    }
+
+    private SessionSocketFactory socketFactory(String host) {
+        return socketFactory(config.getSessionTimeout(host));
+    }
+
+    private SessionSocketFactory socketFactory(int sessionTimeout) {
+        return socketFactories.computeIfAbsent(sessionTimeout, this::createSocketFactory);
+    }
+
+    private SessionSocketFactory createSocketFactory(int sessionTimeout) {
+        SSLContext sslContext;
+        try {
+            sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new TrustManager[]{trustManager}, null);
+        } catch (GeneralSecurityException e) {
+            throw new SSLInitializationException("Cannot create SSL context", e);
+        }
+        SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+        sessionContext.setSessionCacheSize(config.getSessionCacheSize());
+        sessionContext.setSessionTimeout(sessionTimeout);
+        SSLParameters supported = sslContext.getSupportedSSLParameters();
+        String[] protocols = supported(config.getProtocols(), supported.getProtocols());
+        if (protocols.length == 0) {
+            throw new SSLInitializationException("None of the protocols "
+                    + Arrays.toString(config.getProtocols()) + " is supported", null);
+        }
+        String[] cipherSuites = config.getCipherSuites();
+        if (cipherSuites != null) {
+            cipherSuites = supported(cipherSuites, supported.getCipherSuites());
+            if (cipherSuites.length == 0) {
+                throw new SSLInitializationException("None of the configured cipher suites is supported", null);
+            }
+        }
+        return new SessionSocketFactory(sslContext, protocols, cipherSuites);
+    }
+
+    /**
+     * 按配置的顺序保留JDK支持的项，例如Java 8的早期版本不支持TLS 1.3
+     */
+    private static String[] supported(String[] configured, String[] supported) {
+        List<String> supportedList = Arrays.asList(supported);
+        List<String> result = new ArrayList<>(configured.length);
+        for (String value : configured) {
+            if (supportedList.contains(value)) {
+                result.add(value);
+            }
+        }
+        return result.toArray(new String[0]);
+    }
+
+    private static X509TrustManager createTrustManager(KeyStore trustStore) {
+        try {
+            TrustManagerFactory trustManagerFactory =
+                    TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            trustManagerFactory.init(trustStore);
+            for (TrustManager trustManager : trustManagerFactory.getTrustManagers()) {
+                if (trustManager instanceof X509TrustManager) {
+                    return (X509TrustManager) trustManager;
+                }
+            }
+            throw new SSLInitializationException("No X509TrustManager available", null);
+        } catch (GeneralSecurityException e) {
+            throw new SSLInitializationException("Cannot create trust manager", e);
+        }
+    }
+
+    /**
+     * 一个SSLContext对应的Socket工厂，握手和主机名校验沿用SSLConnectionSocketFactory
+     */
+    private final class SessionSocketFactory extends SSLConnectionSocketFactory {
+        private final SSLContext sslContext;
+
+        private SessionSocketFactory(SSLContext sslContext, String[] protocols, String[] cipherSuites) {
+            super(sslContext, protocols, cipherSuites, config.getHostnameVerifier());
+            this.sslContext = sslContext;
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context)
+                throws IOException {
+            trustManager.begin();
+            long start = System.nanoTime();
+            Socket layered;
+            boolean verified;
+            try {
+                layered = super.createLayeredSocket(socket, target, port, context);
+            } catch (IOException | RuntimeException e) {
+                statistics.recordFailure();
+                throw e;
+            } finally {
+                verified = trustManager.end();
+            }
+            statistics.record(!verified, System.nanoTime() - start);
+            return layered;
+        }
+    }
+
+    private static final class DefaultHolder {
+        private static final TlsSocketFactory INSTANCE = new TlsSocketFactory(TlsConfig.DEFAULT);
+    }
+}
@@ -0,0 +1,80 @@
+package cays.httpclient.tls;
+
+import cays.httpclient.metrics.LatencyRecorder;
+import cays.httpclient.metrics.LatencySnapshot;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TLS握手计数和耗时，完整握手和恢复会话分别统计，线程安全
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 9:15
+ **/
+public class TlsStatistics implements TlsStatisticsMXBean {
+    private final LatencyRecorder fullHandshakeTime = new LatencyRecorder();
+    private final LatencyRecorder resumedHandshakeTime = new LatencyRecorder();
+    private final LongAdder failedHandshakes = new LongAdder();
+
+    void record(boolean resumed, long nanos) {
+        (resumed ? resumedHandshakeTime : fullHandshakeTime).record(nanos);
+    }
+
+    void recordFailure() {
+        failedHandshakes.increment();
+    }
+
+    /**
+     * 交换并校验了证书的握手次数
+     */
+    @Override
+    public long getFullHandshakes() {
+        return fullHandshakeTime.getCount();
+    }
+
+    /**
+     * 恢复已有会话的握手次数
+     */
+    @Override
+    public long getResumedHandshakes() {
+        return resumedHandshakeTime.getCount();
+    }
+
+    /**
+     * 握手或主机名校验失败的次数
+     */
+    @Override
+    public long getFailedHandshakes() {
+        return failedHandshakes.sum();
+    }
+
+    /**
+     * 成功的握手中恢复会话的比例
+     */
+    @Override
+    public double getResumptionRatio() {
+        long resumed = getResumedHandshakes();
+        long total = resumed + getFullHandshakes();
+        return total == 0 ? 0 : (double) resumed / total;
+    }
+
+    @Override
+    public LatencySnapshot getFullHandshakeTime() {
+        return fullHandshakeTime.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getResumedHandshakeTime() {
+        return resumedHandshakeTime.snapshot();
+    }
+
+    @Override
+    public String toString() {
+        return "[full=" + getFullHandshakes() +
+                ", resumed=" + getResumedHandshakes() +
+                ", failed=" + getFailedHandshakes() +
+                ", fullHandshakeTime=" + getFullHandshakeTime() +
+                ", resumedHandshakeTime=" + getResumedHandshakeTime() +
+                "]";
+    }
+}
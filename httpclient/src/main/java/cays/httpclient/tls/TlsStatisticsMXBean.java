@@ -0,0 +1,23 @@
+package cays.httpclient.tls;
+
+import cays.httpclient.metrics.LatencySnapshot;
+
+/**
+ * TLS握手统计的JMX接口
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 9:15
+ **/
+public interface TlsStatisticsMXBean {
+    long getFullHandshakes();
+
+    long getResumedHandshakes();
+
+    long getFailedHandshakes();
+
+    double getResumptionRatio();
+
+    LatencySnapshot getFullHandshakeTime();
+
+    LatencySnapshot getResumedHandshakeTime();
+}
@@ -0,0 +1,208 @@
+package cays.httpclient.upload;
+
+import cays.httpclient.entity.FileChannelBody;
+import cays.httpclient.handler.ResponseHandlers;
+import cays.httpclient.io.ByteBufferPool;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.HttpMultipartMode;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.Args;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 大文件分块并行上传
+ * <p>
+ * 文件按chunkSize切分，每块作为一个分段请求通过连接池的多个连接并行发送，
+ * 请求头带上传标识、块序号和Content-Range，由服务端负责合并。
+ * 每完成一块就记录进度，上传中断后再次调用会跳过已完成的块。
+ * 每次上传在线程池中提交parallelism个任务，依次领取未完成的块，线程池在多次上传之间复用。
+ * 并行数不应超过连接池每个路由的最大连接数。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 15:40
+ **/
+public class ParallelRangeUploader {
+    public static final String UPLOAD_ID_HEADER = "X-Upload-Id";
+    public static final String CHUNK_INDEX_HEADER = "X-Upload-Chunk";
+    public static final String CHUNK_COUNT_HEADER = "X-Upload-Chunk-Count";
+    private static final String PROGRESS_SUFFIX = ".upload-progress";
+
+    private final CloseableHttpClient httpClient;
+    private final long chunkSize;
+    private final int parallelism;
+    private final Executor executor;
+    private final ByteBufferPool bufferPool;
+
+    /**
+     * 使用自带的线程池，线程数等于parallelism，空闲60秒后退出
+     * @param httpClient 使用连接池的HttpClient
+     * @param chunkSize 每块的字节数
+     * @param parallelism 同时上传的块数
+     */
+    public ParallelRangeUploader(CloseableHttpClient httpClient, long chunkSize, int parallelism) {
+        this(httpClient, chunkSize, parallelism, newExecutor(Args.positive(parallelism, "Parallelism")));
+    }
+
+    /**
+     * @param httpClient 使用连接池的HttpClient
+     * @param chunkSize 每块的字节数
+     * @param parallelism 每次上传同时上传的块数
+     * @param executor 执行上传的线程池，可以与其他上传共用
+     */
+    public ParallelRangeUploader(CloseableHttpClient httpClient, long chunkSize, int parallelism, Executor executor) {
+        this.httpClient = Args.notNull(httpClient, "HTTP client");
+        this.chunkSize = Args.positive(chunkSize, "Chunk size");
+        this.parallelism = Args.positive(parallelism, "Parallelism");
+        this.executor = Args.notNull(executor, "Executor");
+        this.bufferPool = new ByteBufferPool(1024 * 1024, parallelism, true);
+    }
+
+    private static Executor newExecutor(int threads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "range-upload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    public UploadResult upload(String url, File file) throws IOException, InterruptedException {
+        return upload(url, file, null);
+    }
+
+    /**
+     * 上传文件，进度保存在文件旁边的.upload-progress文件中，全部完成后删除
+     * @param url 上传地址
+     * @param file 上传的文件
+     * @param listener 进度回调，可以为null
+     * @throws IOException 有块上传失败，已完成的块已经记录，可以重新调用继续上传
+     */
+    public UploadResult upload(String url, File file, ProgressListener listener)
+            throws IOException, InterruptedException {
+        Args.notNull(url, "URL");
+        Args.notNull(file, "File");
+        if (!file.isFile()) {
+            throw new IOException("File not found: " + file);
+        }
+        long fileLength = file.length();
+        String uploadId = uploadId(file);
+        File progressFile = new File(file.getPath() + PROGRESS_SUFFIX);
+        UploadProgress progress = UploadProgress.load(progressFile.toPath(), uploadId, fileLength, chunkSize);
+        long resumedBytes = progress.getCompletedBytes();
+        AtomicLong completedBytes = new AtomicLong(resumedBytes);
+        AtomicLong uploadedBytes = new AtomicLong();
+
+        long start = System.nanoTime();
+        Queue<Integer> remaining = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < progress.getChunkCount(); i++) {
+            if (!progress.isCompleted(i)) {
+                remaining.add(i);
+            }
+        }
+        // 一块失败不影响其他块，全部尝试后一起抛出
+        Queue<IOException> failures = new ConcurrentLinkedQueue<>();
+        List<FutureTask<Void>> workers = new ArrayList<>();
+        try {
+            for (int i = Math.min(parallelism, remaining.size()); i > 0; i--) {
+                FutureTask<Void> worker = new FutureTask<>(() -> {
+                    Integer index;
+                    while ((index = remaining.poll()) != null) {
+                        try {
+                            uploadChunk(url, file, progress, index);
+                        } catch (IOException e) {
+                            failures.add(e);
+                            continue;
+                        }
+                        progress.markCompleted(index);
+                        long chunkLength = progress.getChunkLength(index);
+                        uploadedBytes.addAndGet(chunkLength);
+                        long done = completedBytes.addAndGet(chunkLength);
+                        if (listener != null) {
+                            listener.onProgress(done, fileLength);
+                        }
+                    }
+                    return null;
+                });
+                executor.execute(worker);
+                workers.add(worker);
+            }
+            for (FutureTask<Void> worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause() instanceof IOException
+                            ? (IOException) e.getCause() : new IOException(e.getCause()));
+                }
+            }
+        } finally {
+            // 调用线程被中断时停止剩余的块
+            remaining.clear();
+            for (FutureTask<Void> worker : workers) {
+                worker.cancel(true);
+            }
+        }
+        IOException failure = failures.poll();
+        if (failure != null) {
+            for (IOException other : failures) {
+                failure.addSuppressed(other);
+            }
+            throw failure;
+        }
+        long elapsed = System.nanoTime() - start;
+        progress.delete();
+        return new UploadResult(uploadId, fileLength, uploadedBytes.get(), resumedBytes, elapsed);
+    }
+
+    private void uploadChunk(String url, File file, UploadProgress progress, int index) throws IOException {
+        long offset = progress.getChunkOffset(index);
+        long length = progress.getChunkLength(index);
+        HttpEntity entity = MultipartEntityBuilder.create()
+                .setMode(HttpMultipartMode.BROWSER_COMPATIBLE)
+                .addPart("file", new FileChannelBody(file, offset, length,
+                        ContentType.DEFAULT_BINARY, file.getName(), bufferPool))
+                .build();
+        HttpPost post = new HttpPost(url);
+        post.setHeader(UPLOAD_ID_HEADER, progress.getUploadId());
+        post.setHeader(CHUNK_INDEX_HEADER, String.valueOf(index));
+        post.setHeader(CHUNK_COUNT_HEADER, String.valueOf(progress.getChunkCount()));
+        post.setHeader("Content-Range", "bytes " + offset + "-" + (offset + length - 1) + "/" + progress.getFileLength());
+        post.setEntity(entity);
+        httpClient.execute(post, ResponseHandlers.toStringHandler());
+    }
+
+    /**
+     * 同一个文件(路径、长度、修改时间都相同)每次得到相同的标识，服务端据此续传
+     */
+    private static String uploadId(File file) {
+        String key = file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified();
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * 上传进度回调，在上传线程中调用
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long completedBytes, long totalBytes);
+    }
+}
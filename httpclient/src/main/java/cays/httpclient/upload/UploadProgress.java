@@ -0,0 +1,152 @@
+package cays.httpclient.upload;
+
+import org.apache.http.util.Args;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.BitSet;
+import java.util.Properties;
+
+/**
+ * 分块上传的进度，每完成一块就写入进度文件，中断后可以从已完成的位置继续上传
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 15:20
+ **/
+public class UploadProgress {
+    private final Path progressFile;
+    private final String uploadId;
+    private final long fileLength;
+    private final long chunkSize;
+    private final int chunkCount;
+    private final BitSet completed;
+
+    private UploadProgress(Path progressFile, String uploadId, long fileLength, long chunkSize, BitSet completed) {
+        this.progressFile = progressFile;
+        this.uploadId = uploadId;
+        this.fileLength = fileLength;
+        this.chunkSize = chunkSize;
+        this.chunkCount = (int) ((fileLength + chunkSize - 1) / chunkSize);
+        this.completed = completed;
+    }
+
+    /**
+     * 读取进度文件，文件不存在或者与本次上传不匹配时从头开始
+     * @param progressFile 进度文件
+     * @param uploadId 上传标识
+     * @param fileLength 文件长度
+     * @param chunkSize 分块大小
+     */
+    public static UploadProgress load(Path progressFile, String uploadId, long fileLength, long chunkSize)
+            throws IOException {
+        Args.notNull(progressFile, "Progress file");
+        Args.notNull(uploadId, "Upload id");
+        Args.positive(chunkSize, "Chunk size");
+        BitSet completed = new BitSet();
+        if (Files.exists(progressFile)) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(progressFile)) {
+                properties.load(in);
+            }
+            if (uploadId.equals(properties.getProperty("uploadId"))
+                    && String.valueOf(fileLength).equals(properties.getProperty("fileLength"))
+                    && String.valueOf(chunkSize).equals(properties.getProperty("chunkSize"))) {
+                for (String index : properties.getProperty("completed", "").split(",")) {
+                    if (!index.isEmpty()) {
+                        completed.set(Integer.parseInt(index));
+                    }
+                }
+            }
+        }
+        return new UploadProgress(progressFile, uploadId, fileLength, chunkSize, completed);
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public long getFileLength() {
+        return fileLength;
+    }
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * 第index块的起始位置
+     */
+    public long getChunkOffset(int index) {
+        return index * chunkSize;
+    }
+
+    /**
+     * 第index块的字节数，最后一块可能不足chunkSize
+     */
+    public long getChunkLength(int index) {
+        return Math.min(chunkSize, fileLength - getChunkOffset(index));
+    }
+
+    public synchronized boolean isCompleted(int index) {
+        return completed.get(index);
+    }
+
+    public synchronized boolean isFinished() {
+        return completed.cardinality() == chunkCount;
+    }
+
+    /**
+     * 已完成的字节数
+     */
+    public synchronized long getCompletedBytes() {
+        long bytes = 0;
+        for (int i = completed.nextSetBit(0); i >= 0; i = completed.nextSetBit(i + 1)) {
+            bytes += getChunkLength(i);
+        }
+        return bytes;
+    }
+
+    /**
+     * 标记第index块已完成并保存进度
+     */
+    public synchronized void markCompleted(int index) throws IOException {
+        completed.set(index);
+        save();
+    }
+
+    /**
+     * 上传完成后删除进度文件
+     */
+    public synchronized void delete() throws IOException {
+        Files.deleteIfExists(progressFile);
+    }
+
+    private void save() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("uploadId", uploadId);
+        properties.setProperty("fileLength", String.valueOf(fileLength));
+        properties.setProperty("chunkSize", String.valueOf(chunkSize));
+        StringBuilder indexes = new StringBuilder();
+        for (int i = completed.nextSetBit(0); i >= 0; i = completed.nextSetBit(i + 1)) {
+            if (indexes.length() > 0) {
+                indexes.append(',');
+            }
+            indexes.append(i);
+        }
+        properties.setProperty("completed", indexes.toString());
+        // 先写临时文件再替换，中途崩溃不会留下损坏的进度文件
+        Path tmp = progressFile.resolveSibling(progressFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            properties.store(out, "parallel range upload progress");
+        }
+        Files.move(tmp, progressFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
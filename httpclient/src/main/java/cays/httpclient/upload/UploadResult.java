@@ -0,0 +1,65 @@
+package cays.httpclient.upload;
+
+/**
+ * 分块上传的结果
+ *
+ * @author Chai yansheng
+ * @create 2026-10-18 15:30
+ **/
+public class UploadResult {
+    private final String uploadId;
+    private final long fileLength;
+    private final long uploadedBytes;
+    private final long resumedBytes;
+    private final long elapsedNanos;
+
+    public UploadResult(String uploadId, long fileLength, long uploadedBytes, long resumedBytes, long elapsedNanos) {
+        this.uploadId = uploadId;
+        this.fileLength = fileLength;
+        this.uploadedBytes = uploadedBytes;
+        this.resumedBytes = resumedBytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public long getFileLength() {
+        return fileLength;
+    }
+
+    /**
+     * 本次上传的字节数
+     */
+    public long getUploadedBytes() {
+        return uploadedBytes;
+    }
+
+    /**
+     * 之前已经上传、本次跳过的字节数
+     */
+    public long getResumedBytes() {
+        return resumedBytes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * 本次上传的吞吐量，单位MB/s
+     */
+    public double getThroughputMBps() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return uploadedBytes / (1024.0 * 1024.0) / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[uploadId=%s, fileLength=%d, uploaded=%d, resumed=%d, elapsed=%.2fs, throughput=%.2f MB/s]",
+                uploadId, fileLength, uploadedBytes, resumedBytes, elapsedNanos / 1e9, getThroughputMBps());
+    }
+}
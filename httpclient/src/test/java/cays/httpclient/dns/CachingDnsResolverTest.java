@@ -0,0 +1,204 @@
+package cays.httpclient.dns;
+
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.impl.conn.InMemoryDnsResolver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * CachingDnsResolver的缓存过期、解析失败缓存和地址轮换，使用InMemoryDnsResolver作为delegate
+ * <p>
+ * 缓存时间使用假的时钟推进，不依赖sleep。
+ *
+ * @author Chai yansheng
+ * @create 2026-10-19 21:10
+ **/
+public class CachingDnsResolverTest {
+    private static final String HOST = "api.example.com";
+
+    private InMemoryDnsResolver hosts;
+    private AtomicInteger lookups;
+    private DnsResolver delegate;
+    private CachingDnsResolver resolver;
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Before
+    public void setUp() throws UnknownHostException {
+        hosts = new InMemoryDnsResolver();
+        hosts.add(HOST, address(10, 0, 0, 1), address(10, 0, 0, 2), address(10, 0, 0, 3));
+        lookups = new AtomicInteger();
+        delegate = host -> {
+            lookups.incrementAndGet();
+            return hosts.resolve(host);
+        };
+    }
+
+    @After
+    public void tearDown() {
+        if (resolver != null) {
+            resolver.close();
+        }
+    }
+
+    @Test
+    public void cachesUntilTimeToLiveExpires() throws Exception {
+        resolver = newResolver(DnsCacheConfig.custom()
+                .setTimeToLive(200)
+                .setRefreshAhead(1)
+                .build());
+
+        resolver.resolve(HOST);
+        resolver.resolve(HOST.toUpperCase());
+        assertEquals(1, lookups.get());
+        assertEquals(1, resolver.getHits());
+
+        advance(199);
+        resolver.resolve(HOST);
+        assertEquals(1, lookups.get());
+
+        advance(1);
+        resolver.resolve(HOST);
+        assertEquals(2, lookups.get());
+        assertEquals(2, resolver.getMisses());
+    }
+
+    @Test
+    public void refreshesAheadInBackground() throws Exception {
+        resolver = newResolver(DnsCacheConfig.custom()
+                .setTimeToLive(1000)
+                .setRefreshAhead(0.2)
+                .build());
+
+        resolver.resolve(HOST);
+        advance(300);
+        // 超过刷新时间仍然直接返回缓存的结果，后台刷新一次
+        resolver.resolve(HOST);
+        resolver.resolve(HOST);
+        assertEquals(1, resolver.getMisses());
+        long deadline = System.currentTimeMillis() + 2000;
+        while (resolver.getRefreshes() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, resolver.getRefreshes());
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void zeroTimeToLiveDisablesPositiveCaching() throws Exception {
+        resolver = newResolver(DnsCacheConfig.custom()
+                .setTimeToLive(0)
+                .build());
+
+        resolver.resolve(HOST);
+        resolver.resolve(HOST);
+        assertEquals(2, lookups.get());
+        assertEquals(0, resolver.size());
+    }
+
+    @Test
+    public void cachesUnknownHostForNegativeTimeToLive() throws Exception {
+        resolver = newResolver(DnsCacheConfig.custom()
+                .setNegativeTimeToLive(200)
+                .build());
+
+        assertUnknown("missing.example.com");
+        assertUnknown("missing.example.com");
+        assertEquals(1, lookups.get());
+
+        advance(200);
+        hosts.add("missing.example.com", address(10, 0, 0, 9));
+        assertArrayEquals(new InetAddress[]{address(10, 0, 0, 9)}, resolver.resolve("missing.example.com"));
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void zeroNegativeTimeToLiveDoesNotCacheFailures() {
+        resolver = newResolver(DnsCacheConfig.custom()
+                .setNegativeTimeToLive(0)
+                .build());
+
+        assertUnknown("missing.example.com");
+        assertUnknown("missing.example.com");
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void rotatesAddresses() throws Exception {
+        resolver = newResolver(DnsCacheConfig.custom()
+                .setTimeToLive(60000)
+                .build());
+
+        Set<InetAddress> first = new HashSet<>();
+        InetAddress[] previous = null;
+        for (int i = 0; i < 3; i++) {
+            InetAddress[] addresses = resolver.resolve(HOST);
+            assertEquals(3, addresses.length);
+            assertEquals(new HashSet<>(Arrays.asList(hosts.resolve(HOST))), new HashSet<>(Arrays.asList(addresses)));
+            if (previous != null) {
+                assertNotEquals(previous[0], addresses[0]);
+            }
+            first.add(addresses[0]);
+            previous = addresses;
+        }
+        // 三次解析轮流以每个地址开头
+        assertEquals(3, first.size());
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedHost() throws Exception {
+        hosts.add("a.example.com", address(10, 0, 1, 1));
+        hosts.add("b.example.com", address(10, 0, 1, 2));
+        resolver = newResolver(DnsCacheConfig.custom()
+                .setTimeToLive(60000)
+                .setMaxEntries(2)
+                .build());
+
+        resolver.resolve(HOST);
+        resolver.resolve("a.example.com");
+        resolver.resolve(HOST);
+        // 超过上限时移除最久没有访问的a.example.com
+        resolver.resolve("b.example.com");
+        assertEquals(2, resolver.size());
+        resolver.resolve(HOST);
+        assertEquals(3, lookups.get());
+        resolver.resolve("a.example.com");
+        assertEquals(4, lookups.get());
+    }
+
+    private CachingDnsResolver newResolver(DnsCacheConfig config) {
+        return new CachingDnsResolver(delegate, config, nanoTime::get);
+    }
+
+    private void advance(long millis) {
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private void assertUnknown(String host) {
+        try {
+            resolver.resolve(host);
+            fail("Expected UnknownHostException for " + host);
+        } catch (UnknownHostException expected) {
+            // 解析失败
+        }
+    }
+
+    private static InetAddress address(int a, int b, int c, int d) throws UnknownHostException {
+        return InetAddress.getByAddress(new byte[]{(byte) a, (byte) b, (byte) c, (byte) d});
+    }
+}